@@ -0,0 +1,80 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.PieChartData;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量PPT生成基准测试：30 个图表（折线图、饼图、甘特图各 10 个）合并为一个文档，对比串行渲染与按线程数并行渲染
+ * <p>
+ * 运行：mvn -Pjmh -DskipTests package &amp;&amp; java -jar target/benchmarks.jar BatchDeckBenchmark
+ *
+ * @author z
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchDeckBenchmark {
+
+    private static final int CHARTS_PER_TYPE = 10;
+
+    /** 渲染线程数，0 表示串行渲染 */
+    @Param({"0", "1", "2", "4", "8"})
+    public int threads;
+
+    private List<Object> chartDataList;
+
+    private ChartGenerateOptions options;
+
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        chartDataList = new ArrayList<>(CHARTS_PER_TYPE * 3);
+        for (int i = 0; i < CHARTS_PER_TYPE; i++) {
+            chartDataList.add(BenchmarkSupport.lineData(4, 1000));
+            chartDataList.add(new PieChartData("基准饼图", BenchmarkSupport.pieData(20)));
+            chartDataList.add(new GanttChartData("基准甘特图", BenchmarkSupport.devices(20, 10)));
+        }
+        options = new ChartGenerateOptions();
+        if (threads > 0) {
+            options.setParallelRender(true);
+            pool = new ForkJoinPool(threads);
+        }
+        PptTemplateCache.getTemplateBytes(ChartData.LINE_TEMPLATE_PATH);
+        PptTemplateCache.getTemplateBytes(ChartData.PIE_TEMPLATE_PATH);
+        PptTemplateCache.getTemplateBytes(ChartData.GANTT_TEMPLATE_PATH);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long buildAndWrite() throws Exception {
+        try (XMLSlideShow ppt = pool == null
+                ? BatchDeckPptUtil.buildDeck(chartDataList, options)
+                : BatchDeckPptUtil.buildDeck(chartDataList, options, pool)) {
+            BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+            ppt.write(out);
+            return out.getCount();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.mygs.trackppt.utils;
+
+import ch.qos.logback.classic.Level;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.TrackingDevice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试公共工具：固定种子的测试数据、丢弃输出的输出流、关闭逐行日志
+ *
+ * @author z
+ * @since 1.0.0
+ */
+final class BenchmarkSupport {
+
+    /** 固定随机种子，保证每次运行的数据一致 */
+    static final long SEED = 20240601L;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 关闭 INFO/DEBUG 日志，避免日志输出占据测量时间
+     */
+    static void quietLogging() {
+        Logger root = LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        if (root instanceof ch.qos.logback.classic.Logger) {
+            ((ch.qos.logback.classic.Logger) root).setLevel(Level.WARN);
+        }
+    }
+
+    /**
+     * 生成列式折线图数据
+     */
+    static ColumnarLineData lineData(int seriesCount, int pointsPerSeries) {
+        ColumnarLineData data = new SyntheticDataGenerator(SEED).lineData(seriesCount, pointsPerSeries);
+        data.setTitle("基准折线图");
+        return data;
+    }
+
+    /**
+     * 生成饼图数据
+     */
+    static Map<String, Double> pieData(int categoryCount) {
+        return new SyntheticDataGenerator(SEED).pieData(categoryCount);
+    }
+
+    /**
+     * 生成甘特图设备数据，每个设备一行、若干时间段
+     */
+    static List<TrackingDevice> devices(int deviceCount, int intervalsPerDevice) {
+        return new SyntheticDataGenerator(SEED).trackingDevices(deviceCount, intervalsPerDevice);
+    }
+
+    /**
+     * 丢弃写入内容、仅统计字节数的输出流
+     */
+    static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
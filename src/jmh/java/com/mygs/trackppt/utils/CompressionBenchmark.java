@@ -0,0 +1,144 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.GanttChartData;
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写出压缩设置基准测试：在三个内置模板上对比 XML 部件 / 已压缩媒体的不同压缩级别，
+ * 分别测量完整写出（POI 写出后按设置重新压缩）与直通写出的耗时，输出大小作为附加结果（如 writeFull:outputBytes）
+ * 与吞吐量一起报告。
+ * <p>
+ * 运行：mvn -Pjmh -DskipTests package &amp;&amp; java -jar target/benchmarks.jar CompressionBenchmark
+ *
+ * @author z
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"LINE", "PIE", "GANTT"})
+    public String chart;
+
+    /** XML 部件压缩级别：-1 默认，0 STORE，1~9 deflate */
+    @Param({"-1", "0", "1", "9"})
+    public int xmlLevel;
+
+    /** 已压缩媒体的压缩级别 */
+    @Param({"-1", "0"})
+    public int mediaLevel;
+
+    String template;
+
+    ChartGenerateOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        switch (chart) {
+            case "LINE":
+                template = ChartData.LINE_TEMPLATE_PATH;
+                break;
+            case "PIE":
+                template = ChartData.PIE_TEMPLATE_PATH;
+                break;
+            default:
+                template = ChartData.GANTT_TEMPLATE_PATH;
+                break;
+        }
+        options = new ChartGenerateOptions();
+        options.setXmlCompressionLevel(xmlLevel);
+        options.setMediaCompressionLevel(mediaLevel);
+        PptTemplateCache.getTemplateBytes(template);
+    }
+
+    @Benchmark
+    public long writeFull(WriteState state, OutputSize size) throws IOException {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        PassthroughDeckWriter.write(state.ppt, (byte[]) null, state.modifiedParts, options, out);
+        size.outputBytes = out.getCount();
+        return size.outputBytes;
+    }
+
+    @Benchmark
+    public long writePassthrough(WriteState state, OutputSize size) throws IOException {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        PassthroughDeckWriter.write(state.ppt, PptTemplateCache.peekTemplateBytes(template), state.modifiedParts,
+                options, out);
+        size.outputBytes = out.getCount();
+        return size.outputBytes;
+    }
+
+    /**
+     * 输出大小附加结果：EVENTS 类型的计数不按时间归一化，记录的是每次写出的字节数（各次写出大小相同）
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize {
+
+        public long outputBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            outputBytes = 0;
+        }
+    }
+
+    /**
+     * 图表已填充完成、待写出的 PPT
+     */
+    @State(Scope.Thread)
+    public static class WriteState {
+
+        private static final ColumnarLineData LINE_DATA = BenchmarkSupport.lineData(4, 1000);
+
+        private static final Map<String, Double> PIE_DATA = BenchmarkSupport.pieData(12);
+
+        private static final GanttChartData GANTT_DATA = new GanttChartData("基准甘特图", BenchmarkSupport.devices(20, 10));
+
+        XMLSlideShow ppt;
+
+        List<? extends POIXMLDocumentPart> modifiedParts;
+
+        @Setup(Level.Invocation)
+        public void fill(CompressionBenchmark benchmark) throws Exception {
+            ppt = PptTemplateCache.openSlideShow(benchmark.template);
+            XSLFSlide slide = ppt.getSlides().get(0);
+            switch (benchmark.chart) {
+                case "LINE":
+                    LineChartPptUtil.fillChartToPPT(LINE_DATA, slide);
+                    modifiedParts = PassthroughDeckWriter.chartsOf(slide);
+                    break;
+                case "PIE":
+                    PieChartPptUtil.fillPieChartToPPT(PIE_DATA, slide, "基准饼图");
+                    modifiedParts = PassthroughDeckWriter.chartsOf(slide);
+                    break;
+                default:
+                    GanttChartPptUtil.generateGanttChart(ppt, GANTT_DATA, 1, benchmark.options);
+                    modifiedParts = Collections.singletonList(slide);
+                    break;
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            ppt.close();
+        }
+    }
+}
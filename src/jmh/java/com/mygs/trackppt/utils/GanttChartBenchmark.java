@@ -0,0 +1,116 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.constant.GanttBarStyle;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.GanttChartData;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 甘特图生成基准测试：端到端及分阶段（形状创建、写出），按设备数与每设备时间段数参数化
+ * <p>
+ * 运行：mvn -Pjmh -DskipTests package &amp;&amp; java -jar target/benchmarks.jar GanttChartBenchmark -prof gc
+ *
+ * @author z
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GanttChartBenchmark {
+
+    private static final String TEMPLATE = ChartData.GANTT_TEMPLATE_PATH;
+
+    @Param({"10", "50"})
+    public int deviceCount;
+
+    @Param({"1", "20"})
+    public int intervalsPerDevice;
+
+    @Param({"COMPOSITE", "ROUND_RECT"})
+    public GanttBarStyle barStyle;
+
+    /** 刻度标签是否合并为一个带制表位的文本框 */
+    @Param({"false", "true"})
+    public boolean tabbedTickLabels;
+
+    GanttChartData ganttChartData;
+
+    ChartGenerateOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        ganttChartData = new GanttChartData("基准甘特图", BenchmarkSupport.devices(deviceCount, intervalsPerDevice));
+        options = new ChartGenerateOptions();
+        options.setGanttBarStyle(barStyle);
+        options.setGanttTabbedTickLabels(tabbedTickLabels);
+        PptTemplateCache.getTemplateBytes(TEMPLATE);
+    }
+
+    @Benchmark
+    public long endToEnd() {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        GanttChartPptUtil.generatePPTChart(TEMPLATE, out, ganttChartData, options);
+        return out.getCount();
+    }
+
+    @Benchmark
+    public XMLSlideShow shapeCreation(TemplateState state) throws Exception {
+        GanttChartPptUtil.generateGanttChart(state.ppt, ganttChartData, 1, options);
+        return state.ppt;
+    }
+
+    @Benchmark
+    public long write(WriteState state) throws IOException {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        state.ppt.write(out);
+        return out.getCount();
+    }
+
+    /**
+     * 刚从模板打开的 PPT
+     */
+    @State(Scope.Thread)
+    public static class TemplateState {
+
+        XMLSlideShow ppt;
+
+        @Setup(Level.Invocation)
+        public void open() throws IOException {
+            ppt = PptTemplateCache.openSlideShow(TEMPLATE);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            ppt.close();
+        }
+    }
+
+    /**
+     * 甘特图形状已创建、待写出的 PPT
+     */
+    @State(Scope.Thread)
+    public static class WriteState {
+
+        XMLSlideShow ppt;
+
+        @Setup(Level.Invocation)
+        public void draw(GanttChartBenchmark benchmark) throws Exception {
+            ppt = PptTemplateCache.openSlideShow(TEMPLATE);
+            GanttChartPptUtil.generateGanttChart(ppt, benchmark.ganttChartData, 1, benchmark.options);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            ppt.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.GanttChartData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 甘特图布局计算基准测试（不涉及 POI）：直接计算与命中布局缓存，按设备数与每设备时间段数参数化
+ * <p>
+ * 运行：mvn -Pjmh -DskipTests package &amp;&amp; java -jar target/benchmarks.jar GanttLayoutBenchmark -prof gc
+ *
+ * @author z
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GanttLayoutBenchmark {
+
+    @Param({"10", "50"})
+    public int deviceCount;
+
+    @Param({"1", "20", "1000"})
+    public int intervalsPerDevice;
+
+    GanttChartData ganttChartData;
+
+    ChartGenerateOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ganttChartData = new GanttChartData("基准甘特图", BenchmarkSupport.devices(deviceCount, intervalsPerDevice));
+        options = new ChartGenerateOptions();
+        options.setGanttLayoutCache(true);
+        GanttLayoutEngine.clear();
+    }
+
+    @Benchmark
+    public GanttLayout compute() {
+        return GanttLayoutEngine.compute(ganttChartData, options);
+    }
+
+    @Benchmark
+    public GanttLayout cached() {
+        return GanttLayoutEngine.layout(ganttChartData, options);
+    }
+}
@@ -0,0 +1,177 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFChart;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 折线图生成基准测试：端到端（常规 / 批量工作簿写入）及分阶段（模板加载、工作表填充、重新绘图、完整写出 / 直通写出）
+ * 分阶段测试在每次调用前重新准备 PPT（Level.Invocation），单次调用为毫秒级，准备开销不计入结果。
+ * <p>
+ * 运行：mvn -Pjmh -DskipTests package &amp;&amp; java -jar target/benchmarks.jar LineChartBenchmark -prof gc
+ *
+ * @author z
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LineChartBenchmark {
+
+    private static final String TEMPLATE = ChartData.LINE_TEMPLATE_PATH;
+
+    @Param({"1", "8"})
+    public int seriesCount;
+
+    @Param({"100", "5000"})
+    public int pointsPerSeries;
+
+    ColumnarLineData lineData;
+
+    String[] names;
+
+    private ChartGenerateOptions standardOptions;
+
+    private ChartGenerateOptions bulkOptions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        lineData = BenchmarkSupport.lineData(seriesCount, pointsPerSeries);
+        names = LineChartPptUtil.resolveSeriesNames(lineData);
+        standardOptions = new ChartGenerateOptions();
+        bulkOptions = new ChartGenerateOptions();
+        bulkOptions.setBulkSheetWriter(true);
+        // 预先载入模板缓存
+        PptTemplateCache.getTemplateBytes(TEMPLATE);
+    }
+
+    @Benchmark
+    public long endToEnd() {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        LineChartPptUtil.generatePPTChart(TEMPLATE, out, 1, lineData, standardOptions);
+        return out.getCount();
+    }
+
+    @Benchmark
+    public long endToEndBulk() {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        LineChartPptUtil.generatePPTChart(TEMPLATE, out, 1, lineData, bulkOptions);
+        return out.getCount();
+    }
+
+    @Benchmark
+    public int templateLoad() throws IOException {
+        try (XMLSlideShow ppt = PptTemplateCache.openSlideShow(TEMPLATE)) {
+            return ppt.getSlides().size();
+        }
+    }
+
+    @Benchmark
+    public int sheetFill(SheetState state) {
+        return LineChartPptUtil.fillSheet(state.sheet, lineData, names, false);
+    }
+
+    @Benchmark
+    public boolean plot(PlotState state) {
+        return LineChartPptUtil.plotSeries(state.chart, state.sheet, names, state.maxRows, false);
+    }
+
+    @Benchmark
+    public long write(WriteState state) throws IOException {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        state.ppt.write(out);
+        return out.getCount();
+    }
+
+    @Benchmark
+    public long writePassthrough(WriteState state) throws IOException {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        PassthroughDeckWriter.write(state.ppt, PptTemplateCache.peekTemplateBytes(TEMPLATE),
+                PassthroughDeckWriter.chartsOf(state.ppt.getSlides().get(0)), out);
+        return out.getCount();
+    }
+
+    /**
+     * 已打开模板并加载嵌入工作簿的 PPT
+     */
+    @State(Scope.Thread)
+    public static class SheetState {
+
+        XMLSlideShow ppt;
+
+        XSLFChart chart;
+
+        XSSFSheet sheet;
+
+        @Setup(Level.Invocation)
+        public void open() throws Exception {
+            ppt = PptTemplateCache.openSlideShow(TEMPLATE);
+            chart = ppt.getCharts().get(0);
+            sheet = chart.getWorkbook().getSheetAt(0);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            ppt.close();
+        }
+    }
+
+    /**
+     * 工作表已填充、尚未重建系列的 PPT
+     */
+    @State(Scope.Thread)
+    public static class PlotState {
+
+        XMLSlideShow ppt;
+
+        XSLFChart chart;
+
+        XSSFSheet sheet;
+
+        int maxRows;
+
+        @Setup(Level.Invocation)
+        public void fill(LineChartBenchmark benchmark) throws Exception {
+            ppt = PptTemplateCache.openSlideShow(TEMPLATE);
+            chart = ppt.getCharts().get(0);
+            sheet = chart.getWorkbook().getSheetAt(0);
+            maxRows = LineChartPptUtil.fillSheet(sheet, benchmark.lineData, benchmark.names, false);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            ppt.close();
+        }
+    }
+
+    /**
+     * 图表已填充完成、待写出的 PPT
+     */
+    @State(Scope.Thread)
+    public static class WriteState {
+
+        XMLSlideShow ppt;
+
+        @Setup(Level.Invocation)
+        public void fill(LineChartBenchmark benchmark) throws Exception {
+            ppt = PptTemplateCache.openSlideShow(TEMPLATE);
+            LineChartPptUtil.fillChartToPPT(benchmark.lineData, ppt.getSlides().get(0));
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            ppt.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.PieChartData;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 饼图生成基准测试：端到端（常规 / 批量工作簿写入）及分阶段（数据填充含重新绘图、写出）
+ * <p>
+ * 运行：mvn -Pjmh -DskipTests package &amp;&amp; java -jar target/benchmarks.jar PieChartBenchmark -prof gc
+ *
+ * @author z
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PieChartBenchmark {
+
+    private static final String TEMPLATE = ChartData.PIE_TEMPLATE_PATH;
+
+    @Param({"5", "50"})
+    public int categoryCount;
+
+    PieChartData pieChartData;
+
+    private ChartGenerateOptions standardOptions;
+
+    private ChartGenerateOptions bulkOptions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        pieChartData = new PieChartData("基准饼图", BenchmarkSupport.pieData(categoryCount));
+        standardOptions = new ChartGenerateOptions();
+        bulkOptions = new ChartGenerateOptions();
+        bulkOptions.setBulkSheetWriter(true);
+        PptTemplateCache.getTemplateBytes(TEMPLATE);
+    }
+
+    @Benchmark
+    public long endToEnd() {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        PieChartPptUtil.generatePieChartPPT(TEMPLATE, out, pieChartData, 1, standardOptions);
+        return out.getCount();
+    }
+
+    @Benchmark
+    public long endToEndBulk() {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        PieChartPptUtil.generatePieChartPPT(TEMPLATE, out, pieChartData, 1, bulkOptions);
+        return out.getCount();
+    }
+
+    @Benchmark
+    public XMLSlideShow fill(TemplateState state) {
+        PieChartPptUtil.fillPieChartToPPT(pieChartData.getAmountList(), state.ppt.getSlides().get(0), pieChartData.getTitle());
+        return state.ppt;
+    }
+
+    @Benchmark
+    public long write(WriteState state) throws IOException {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        state.ppt.write(out);
+        return out.getCount();
+    }
+
+    /**
+     * 刚从模板打开的 PPT
+     */
+    @State(Scope.Thread)
+    public static class TemplateState {
+
+        XMLSlideShow ppt;
+
+        @Setup(Level.Invocation)
+        public void open() throws IOException {
+            ppt = PptTemplateCache.openSlideShow(TEMPLATE);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            ppt.close();
+        }
+    }
+
+    /**
+     * 图表已填充完成、待写出的 PPT
+     */
+    @State(Scope.Thread)
+    public static class WriteState {
+
+        XMLSlideShow ppt;
+
+        @Setup(Level.Invocation)
+        public void fill(PieChartBenchmark benchmark) throws IOException {
+            ppt = PptTemplateCache.openSlideShow(TEMPLATE);
+            PieChartPptUtil.fillPieChartToPPT(benchmark.pieChartData.getAmountList(), ppt.getSlides().get(0),
+                    benchmark.pieChartData.getTitle());
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            ppt.close();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.constant.ChartType;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.PieChartData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 首个文档生成耗时基准测试：每次测量都在新 JVM 中只生成一个文档（含模板加载与全部类加载），参数为图表类型与预热方式
+ * <ul>
+ *     <li>NONE：不预热，即当前命令行 / 批处理的情况</li>
+ *     <li>SCHEMA：测量前已完成 PoiWarmUp.touchSchemaTypes（模拟预热已在关键路径之外完成）</li>
+ *     <li>BACKGROUND：测量开始前刚调用 PoiWarmUp.warmUpInBackground，生成与后台预热同时进行（需有空闲 CPU 核，单核时反而更慢）</li>
+ *     <li>FULL：测量前已完成完整预热，相当于常驻进程（ReportDaemon）中的生成耗时</li>
+ * </ul>
+ * 类数据共享归档的效果需在相同类路径下比较，见 appcds profile 与 PoiWarmUp.main 输出的耗时。
+ * <p>
+ * 运行：mvn -Pjmh -DskipTests package &amp;&amp; java -jar target/benchmarks.jar TimeToFirstDeckBenchmark
+ *
+ * @author z
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class TimeToFirstDeckBenchmark {
+
+    @Param({"LINE", "PIE", "GANTT"})
+    public ChartType chartType;
+
+    @Param({"NONE", "SCHEMA", "BACKGROUND", "FULL"})
+    public String warmUp;
+
+    private ColumnarLineData lineData;
+
+    private PieChartData pieChartData;
+
+    private GanttChartData ganttChartData;
+
+    private ChartGenerateOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        lineData = BenchmarkSupport.lineData(4, 1000);
+        pieChartData = new PieChartData("基准饼图", BenchmarkSupport.pieData(20));
+        ganttChartData = new GanttChartData("基准甘特图", BenchmarkSupport.devices(20, 10));
+        options = new ChartGenerateOptions();
+        switch (warmUp) {
+            case "SCHEMA":
+                PoiWarmUp.touchSchemaTypes();
+                break;
+            case "BACKGROUND":
+                PoiWarmUp.warmUpInBackground();
+                break;
+            case "FULL":
+                PoiWarmUp.warmUp();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Benchmark
+    public long firstDeck() {
+        BenchmarkSupport.CountingOutputStream out = new BenchmarkSupport.CountingOutputStream();
+        switch (chartType) {
+            case LINE:
+                LineChartPptUtil.generatePPTChart(ChartData.LINE_TEMPLATE_PATH, out, 1, lineData, options);
+                break;
+            case PIE:
+                PieChartPptUtil.generatePieChartPPT(ChartData.PIE_TEMPLATE_PATH, out, pieChartData, 1, options);
+                break;
+            default:
+                GanttChartPptUtil.generatePPTChart(ChartData.GANTT_TEMPLATE_PATH, out, ganttChartData, options);
+                break;
+        }
+        return out.getCount();
+    }
+}
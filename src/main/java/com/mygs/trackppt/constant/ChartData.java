@@ -8,6 +8,17 @@ import java.awt.*;
  */
 public class ChartData {
 
+    /** ================= 模板配置 ================= */
+
+    /** 折线图模板路径 */
+    public static final String LINE_TEMPLATE_PATH = "classpath:templates/line_template.pptx";
+
+    /** 饼图模板路径 */
+    public static final String PIE_TEMPLATE_PATH = "classpath:templates/pie_template.pptx";
+
+    /** 甘特图模板路径 */
+    public static final String GANTT_TEMPLATE_PATH = "classpath:templates/gantt_template.pptx";
+
     /** ================= 折线图配置 ================= */
 
     /** 最大折线条数（1 ~ 10） */
@@ -0,0 +1,38 @@
+package com.mygs.trackppt.constant;
+
+/**
+ * 图表生成阶段，用于诊断日志与耗时统计
+ */
+public enum ChartStage {
+
+    /** 读取并分桶外部数据文件 */
+    DATA_READ("数据读取"),
+
+    /** 打开模板（解析 PPT 包） */
+    TEMPLATE_LOAD("模板加载"),
+
+    /** 写入嵌入工作簿数据 */
+    SHEET_FILL("工作表填充"),
+
+    /** 重建图表系列并重新绘图 */
+    PLOT("重新绘图"),
+
+    /** 计算甘特图布局 */
+    LAYOUT("布局计算"),
+
+    /** 创建甘特图形状 */
+    SHAPES("形状创建"),
+
+    /** 序列化并写出 PPT */
+    WRITE("写出");
+
+    private final String label;
+
+    ChartStage(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
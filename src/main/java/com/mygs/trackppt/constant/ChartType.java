@@ -0,0 +1,23 @@
+package com.mygs.trackppt.constant;
+
+/**
+ * 图表类型
+ */
+public enum ChartType {
+
+    LINE("折线图"),
+
+    PIE("饼图"),
+
+    GANTT("甘特图");
+
+    private final String label;
+
+    ChartType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
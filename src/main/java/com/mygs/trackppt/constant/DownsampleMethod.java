@@ -0,0 +1,13 @@
+package com.mygs.trackppt.constant;
+
+/**
+ * 折线图降采样算法
+ */
+public enum DownsampleMethod {
+
+    /** Largest-Triangle-Three-Buckets：每个桶保留与相邻桶构成最大三角形面积的点，保留曲线形状 */
+    LTTB,
+
+    /** 每个桶保留最小值和最大值两个点，保留峰值 */
+    MIN_MAX
+}
@@ -0,0 +1,13 @@
+package com.mygs.trackppt.constant;
+
+/**
+ * 甘特图任务条样式
+ */
+public enum GanttBarStyle {
+
+    /** 矩形 + 两端圆形拼接，每个任务条由3个形状组成 */
+    COMPOSITE,
+
+    /** 单个圆角矩形（ROUND_RECT），每个任务条只有1个形状 */
+    ROUND_RECT
+}
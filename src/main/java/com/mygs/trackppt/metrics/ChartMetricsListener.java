@@ -0,0 +1,21 @@
+package com.mygs.trackppt.metrics;
+
+import com.mygs.trackppt.pojo.ChartMetrics;
+
+/**
+ * 图表生成指标监听器，每次生成结束（无论成功与否）回调一次
+ * 回调在生成线程上同步执行，实现应尽量轻量且线程安全
+ *
+ * @author z
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface ChartMetricsListener {
+
+    /**
+     * 一次图表生成结束
+     *
+     * @param metrics 本次生成的指标
+     */
+    void onChartGenerated(ChartMetrics metrics);
+}
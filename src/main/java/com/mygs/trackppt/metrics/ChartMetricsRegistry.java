@@ -0,0 +1,70 @@
+package com.mygs.trackppt.metrics;
+
+import com.mygs.trackppt.pojo.ChartMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 图表生成指标监听器注册表
+ * 未注册任何监听器时生成过程不会构造指标对象
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class ChartMetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChartMetricsRegistry.class);
+
+    private static final List<ChartMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private ChartMetricsRegistry() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 注册监听器
+     */
+    public static void addListener(ChartMetricsListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * 移除监听器
+     */
+    public static void removeListener(ChartMetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 移除全部监听器
+     */
+    public static void clear() {
+        LISTENERS.clear();
+    }
+
+    /**
+     * 是否注册了监听器
+     */
+    public static boolean hasListeners() {
+        return !LISTENERS.isEmpty();
+    }
+
+    /**
+     * 向所有监听器发布指标，单个监听器抛出的异常不影响生成结果及其他监听器
+     */
+    public static void publish(ChartMetrics metrics) {
+        for (ChartMetricsListener listener : LISTENERS) {
+            try {
+                listener.onChartGenerated(metrics);
+            } catch (RuntimeException e) {
+                logger.warn("图表指标监听器执行失败: {}", listener, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.mygs.trackppt.metrics;
+
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.constant.ChartType;
+import com.mygs.trackppt.pojo.ChartMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内直方图指标监听器（默认实现）
+ * 按图表类型分别累计总耗时、各阶段耗时、输出字节数、形状数、数据点数与线程分配字节数的分布，以及失败次数和模板缓存命中情况；
+ * 可设置慢生成阈值，超过阈值的单次生成以 WARN 输出各阶段耗时，便于定位异常值。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class HistogramMetricsListener implements ChartMetricsListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistogramMetricsListener.class);
+
+    private final Map<ChartType, TypeStats> stats = new EnumMap<>(ChartType.class);
+
+    /** 慢生成阈值（纳秒），小于等于0表示不检测 */
+    private final long slowThresholdNanos;
+
+    public HistogramMetricsListener() {
+        this(0);
+    }
+
+    /**
+     * @param slowThresholdMillis 慢生成阈值（毫秒），小于等于0表示不检测
+     */
+    public HistogramMetricsListener(long slowThresholdMillis) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(slowThresholdMillis, 0));
+        for (ChartType type : ChartType.values()) {
+            stats.put(type, new TypeStats());
+        }
+    }
+
+    @Override
+    public void onChartGenerated(ChartMetrics metrics) {
+        TypeStats s = stats.get(metrics.getChartType());
+        s.total.record(metrics.getTotalNanos());
+        for (ChartStage stage : ChartStage.values()) {
+            long nanos = metrics.getStageNanos(stage);
+            if (nanos > 0) {
+                s.stages.get(stage).record(nanos);
+            }
+        }
+        if (metrics.getOutputBytes() >= 0) {
+            s.outputBytes.record(metrics.getOutputBytes());
+        }
+        if (metrics.getShapeCount() > 0) {
+            s.shapes.record(metrics.getShapeCount());
+        }
+        s.points.record(metrics.getPointCount());
+        if (metrics.getAllocatedBytes() >= 0) {
+            s.allocatedBytes.record(metrics.getAllocatedBytes());
+        }
+        if (!metrics.isSuccess()) {
+            s.failures.incrementAndGet();
+        }
+        if (metrics.getTemplateCacheHit() != null) {
+            (metrics.getTemplateCacheHit() ? s.cacheHits : s.cacheMisses).incrementAndGet();
+        }
+        if (slowThresholdNanos > 0 && metrics.getTotalNanos() > slowThresholdNanos) {
+            logger.warn("{}生成耗时{}ms，超过阈值{}ms: {}", metrics.getChartType().getLabel(),
+                    TimeUnit.NANOSECONDS.toMillis(metrics.getTotalNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos), metrics);
+        }
+    }
+
+    /**
+     * 总耗时分布（纳秒）
+     */
+    public LatencyHistogram getTotalHistogram(ChartType chartType) {
+        return stats.get(chartType).total;
+    }
+
+    /**
+     * 阶段耗时分布（纳秒）
+     */
+    public LatencyHistogram getStageHistogram(ChartType chartType, ChartStage stage) {
+        return stats.get(chartType).stages.get(stage);
+    }
+
+    /**
+     * 输出字节数分布
+     */
+    public LatencyHistogram getOutputBytesHistogram(ChartType chartType) {
+        return stats.get(chartType).outputBytes;
+    }
+
+    /**
+     * 形状数量分布
+     */
+    public LatencyHistogram getShapeCountHistogram(ChartType chartType) {
+        return stats.get(chartType).shapes;
+    }
+
+    /**
+     * 数据点数量分布
+     */
+    public LatencyHistogram getPointCountHistogram(ChartType chartType) {
+        return stats.get(chartType).points;
+    }
+
+    /**
+     * 生成线程分配字节数分布
+     */
+    public LatencyHistogram getAllocatedBytesHistogram(ChartType chartType) {
+        return stats.get(chartType).allocatedBytes;
+    }
+
+    public long getFailureCount(ChartType chartType) {
+        return stats.get(chartType).failures.get();
+    }
+
+    public long getTemplateCacheHitCount(ChartType chartType) {
+        return stats.get(chartType).cacheHits.get();
+    }
+
+    public long getTemplateCacheMissCount(ChartType chartType) {
+        return stats.get(chartType).cacheMisses.get();
+    }
+
+    /**
+     * 生成各图表类型的耗时分位数报告，例如用于定时输出到日志
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (ChartType type : ChartType.values()) {
+            TypeStats s = stats.get(type);
+            if (s.total.getCount() == 0) {
+                continue;
+            }
+            sb.append(type.getLabel()).append(": 次数=").append(s.total.getCount())
+                    .append(", 失败=").append(s.failures.get());
+            appendPercentiles(sb.append(", 总耗时"), s.total);
+            for (ChartStage stage : ChartStage.values()) {
+                LatencyHistogram h = s.stages.get(stage);
+                if (h.getCount() > 0) {
+                    appendPercentiles(sb.append(", ").append(stage.getLabel()), h);
+                }
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 清空全部统计
+     */
+    public void reset() {
+        for (TypeStats s : stats.values()) {
+            s.reset();
+        }
+    }
+
+    private static void appendPercentiles(StringBuilder sb, LatencyHistogram h) {
+        sb.append("[p50=").append(toMillis(h.getValueAtPercentile(50)))
+                .append("ms, p95=").append(toMillis(h.getValueAtPercentile(95)))
+                .append("ms, p99=").append(toMillis(h.getValueAtPercentile(99)))
+                .append("ms, max=").append(toMillis(h.getMax())).append("ms]");
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 单个图表类型的统计
+     */
+    private static class TypeStats {
+
+        final LatencyHistogram total = new LatencyHistogram();
+
+        final Map<ChartStage, LatencyHistogram> stages = new EnumMap<>(ChartStage.class);
+
+        final LatencyHistogram outputBytes = new LatencyHistogram();
+
+        final LatencyHistogram shapes = new LatencyHistogram();
+
+        final LatencyHistogram points = new LatencyHistogram();
+
+        final LatencyHistogram allocatedBytes = new LatencyHistogram();
+
+        final AtomicLong failures = new AtomicLong();
+
+        final AtomicLong cacheHits = new AtomicLong();
+
+        final AtomicLong cacheMisses = new AtomicLong();
+
+        TypeStats() {
+            for (ChartStage stage : ChartStage.values()) {
+                stages.put(stage, new LatencyHistogram());
+            }
+        }
+
+        void reset() {
+            total.reset();
+            stages.values().forEach(LatencyHistogram::reset);
+            outputBytes.reset();
+            shapes.reset();
+            points.reset();
+            allocatedBytes.reset();
+            failures.set(0);
+            cacheHits.set(0);
+            cacheMisses.set(0);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.mygs.trackppt.metrics;
+
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.pojo.ChartMetrics;
+
+import java.util.Locale;
+
+/**
+ * Micrometer 风格的指标适配器
+ * 本项目不直接依赖 Micrometer，指标通过三个函数式接口输出，标签为 key/value 交替的字符串数组，
+ * 可直接对接 MeterRegistry，例如：
+ * <pre>
+ * new MeterRegistryMetricsListener(
+ *         (name, tags, nanos) -&gt; Timer.builder(name).tags(tags).register(registry).record(nanos, TimeUnit.NANOSECONDS),
+ *         (name, tags, amount) -&gt; DistributionSummary.builder(name).tags(tags).register(registry).record(amount),
+ *         (name, tags) -&gt; registry.counter(name, tags).increment());
+ * </pre>
+ * 输出的指标：
+ * <ul>
+ *     <li>ppt.chart.duration（计时，标签 chart、success）：单次生成总耗时</li>
+ *     <li>ppt.chart.stage.duration（计时，标签 chart、stage）：各阶段耗时</li>
+ *     <li>ppt.chart.output.bytes / ppt.chart.shapes / ppt.chart.points（分布，标签 chart）</li>
+ *     <li>ppt.chart.allocated.bytes（分布，标签 chart、low_memory）：生成线程分配的字节数，JVM 支持时输出</li>
+ *     <li>ppt.template.cache（计数，标签 chart、result=hit|miss）</li>
+ * </ul>
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class MeterRegistryMetricsListener implements ChartMetricsListener {
+
+    public static final String DURATION = "ppt.chart.duration";
+    public static final String STAGE_DURATION = "ppt.chart.stage.duration";
+    public static final String OUTPUT_BYTES = "ppt.chart.output.bytes";
+    public static final String SHAPES = "ppt.chart.shapes";
+    public static final String POINTS = "ppt.chart.points";
+    public static final String ALLOCATED_BYTES = "ppt.chart.allocated.bytes";
+    public static final String TEMPLATE_CACHE = "ppt.template.cache";
+
+    /**
+     * 计时输出
+     */
+    @FunctionalInterface
+    public interface TimerSink {
+        void record(String name, String[] tags, long nanos);
+    }
+
+    /**
+     * 分布输出
+     */
+    @FunctionalInterface
+    public interface SummarySink {
+        void record(String name, String[] tags, double amount);
+    }
+
+    /**
+     * 计数输出
+     */
+    @FunctionalInterface
+    public interface CounterSink {
+        void increment(String name, String[] tags);
+    }
+
+    private final TimerSink timers;
+
+    private final SummarySink summaries;
+
+    private final CounterSink counters;
+
+    public MeterRegistryMetricsListener(TimerSink timers, SummarySink summaries, CounterSink counters) {
+        this.timers = timers;
+        this.summaries = summaries;
+        this.counters = counters;
+    }
+
+    @Override
+    public void onChartGenerated(ChartMetrics metrics) {
+        String chart = tagValue(metrics.getChartType());
+        timers.record(DURATION, new String[]{"chart", chart, "success", String.valueOf(metrics.isSuccess())},
+                metrics.getTotalNanos());
+        for (ChartStage stage : ChartStage.values()) {
+            long nanos = metrics.getStageNanos(stage);
+            if (nanos > 0) {
+                timers.record(STAGE_DURATION, new String[]{"chart", chart, "stage", tagValue(stage)}, nanos);
+            }
+        }
+        String[] chartTag = {"chart", chart};
+        if (metrics.getOutputBytes() >= 0) {
+            summaries.record(OUTPUT_BYTES, chartTag, metrics.getOutputBytes());
+        }
+        if (metrics.getShapeCount() > 0) {
+            summaries.record(SHAPES, chartTag, metrics.getShapeCount());
+        }
+        summaries.record(POINTS, chartTag, metrics.getPointCount());
+        if (metrics.getAllocatedBytes() >= 0) {
+            summaries.record(ALLOCATED_BYTES,
+                    new String[]{"chart", chart, "low_memory", String.valueOf(metrics.isLowMemory())},
+                    metrics.getAllocatedBytes());
+        }
+        if (metrics.getTemplateCacheHit() != null) {
+            counters.increment(TEMPLATE_CACHE,
+                    new String[]{"chart", chart, "result", metrics.getTemplateCacheHit() ? "hit" : "miss"});
+        }
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,70 @@
+package com.mygs.trackppt.pojo;
+
+import com.mygs.trackppt.constant.DownsampleMethod;
+import com.mygs.trackppt.constant.GanttBarStyle;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 图表生成选项
+ * 未显式传入时使用默认值，默认值保持原有的显示效果，但以下默认值会改变输出内容：
+ * ganttMergeIntervals 默认开启，同一设备行的任务条按起点排序后合并并剔除不可见的任务条，
+ * 任务条形状的数量与绘制顺序与原有输出不同（幻灯片分辨率下显示效果不变）；需要每个时间段各自对应一个任务条时设为 false
+ */
+@Data
+@NoArgsConstructor
+public class ChartGenerateOptions {
+    // 甘特图任务条样式
+    private GanttBarStyle ganttBarStyle = GanttBarStyle.COMPOSITE;
+
+    // 是否将同一设备行的任务条放入一个组合形状
+    private boolean ganttGroupBarsByRow = false;
+
+    // 是否合并同一设备行内重叠或间距过小的任务条并剔除不可见的任务条（默认开启，会改变甘特图的形状数量与绘制顺序）
+    private boolean ganttMergeIntervals = true;
+
+    // 任务条间距不超过该像素数时合并（在幻灯片分辨率下不可见）
+    private int ganttMergeGapPx = 1;
+
+    // 甘特图 X 轴刻度标签是否合并为一个文本框（以居中制表位定位），刻度较多时可大幅减少形状数量
+    private boolean ganttTabbedTickLabels = false;
+
+    // 是否按内容缓存甘特图布局（LRU，见 GanttLayoutEngine），适用于反复渲染同一份数据；缓存会常驻输入快照与坐标数组
+    private boolean ganttLayoutCache = false;
+
+    // 折线图每个系列的降采样目标点数，0 表示不降采样
+    private int lineDownsampleTarget = 0;
+
+    // 折线图降采样算法
+    private DownsampleMethod lineDownsampleMethod = DownsampleMethod.LTTB;
+
+    // 是否使用批量写入：直接生成嵌入工作簿 XML 与图表缓存，跳过 XSSFCell 对象模型
+    private boolean bulkSheetWriter = false;
+
+    // 明细诊断日志采样间隔：每 N 次生成输出一次逐系列 / 逐行的 DEBUG 明细，0 表示不输出
+    private int diagnosticsSampleEvery = 0;
+
+    // 单任务内存预算（字节），预估占用超过预算时使用低内存模式（模板落盘、批量写入工作簿），0 表示不限制
+    private long memoryBudgetBytes = 0;
+
+    // 是否使用直通写出：只重新序列化修改过的部件，其余部件直接复制模板中的压缩数据（仅对经模板缓存加载的模板生效）
+    private boolean passthroughWrite = false;
+
+    // 写出时 XML 等文本部件的压缩级别：-1 使用默认（直通写出时沿用模板），0 不压缩（STORE），1~9 为 deflate 级别
+    private int xmlCompressionLevel = -1;
+
+    // 写出时已压缩媒体（图片、音视频、嵌入工作簿）的压缩级别，取值同上，设为 0 可省去无收益的重复压缩
+    private int mediaCompressionLevel = -1;
+
+    // 饼图保留的类别数：只保留数值最大的 N 个类别，其余合并为“其他”扇区，0 表示不限制
+    private int pieTopN = 0;
+
+    // 饼图是否按数值降序排列扇区，否则保留输入顺序
+    private boolean pieSortByValue = false;
+
+    // 饼图其他扇区的名称
+    private String pieOtherLabel = "其他";
+
+    // 批量生成时是否并行渲染：各图表在 ForkJoinPool 上各自的模板副本中渲染，再按顺序合并到同一个文档
+    private boolean parallelRender = false;
+}
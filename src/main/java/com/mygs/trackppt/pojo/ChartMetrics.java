@@ -0,0 +1,61 @@
+package com.mygs.trackppt.pojo;
+
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.constant.ChartType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 单次图表生成的指标：各阶段耗时、输出大小、形状数量、系列/数据点数量及模板缓存命中情况
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChartMetrics {
+    // 图表类型
+    private ChartType chartType;
+
+    // 是否生成成功
+    private boolean success;
+
+    // 总耗时（纳秒）
+    private long totalNanos;
+
+    // 各阶段耗时（纳秒），未经历的阶段不在其中
+    private Map<ChartStage, Long> stageNanos;
+
+    // 输出字节数，未写出时为 -1
+    private long outputBytes;
+
+    // 新建形状数量（甘特图）
+    private int shapeCount;
+
+    // 系列数量（甘特图为设备行数）
+    private int seriesCount;
+
+    // 数据点数量（甘特图为时间段数量）
+    private long pointCount;
+
+    // 模板缓存是否命中，未经模板缓存加载时为 null
+    private Boolean templateCacheHit;
+
+    // 是否使用了低内存模式
+    private boolean lowMemory;
+
+    // 生成线程在本次生成中分配的字节数，JVM 不支持时为 -1
+    private long allocatedBytes;
+
+    // 本次生成各阶段边界处采样到的最大堆占用（进程级，字节）
+    private long peakHeapBytes;
+
+    /**
+     * 指定阶段的耗时（纳秒），未经历该阶段时为 0
+     */
+    public long getStageNanos(ChartStage stage) {
+        Long nanos = stageNanos == null ? null : stageNanos.get(stage);
+        return nanos == null ? 0 : nanos;
+    }
+}
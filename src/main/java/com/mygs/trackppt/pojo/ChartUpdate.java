@@ -0,0 +1,25 @@
+package com.mygs.trackppt.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 单个图表的增量更新内容
+ * 只包含发生变化的系列或分类，未列出的数据保持不变
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChartUpdate {
+    // 图表部件名称，如 /ppt/charts/chart1.xml
+    private String chartPartName;
+
+    // 系列序号（从0开始，按图表中的出现顺序）-> 新的系列数值，点数需与原系列一致
+    private Map<Integer, double[]> seriesValues;
+
+    // 分类名称 -> 新的数值，作用于第一个系列（如饼图扇区）
+    private Map<String, Double> categoryValues;
+}
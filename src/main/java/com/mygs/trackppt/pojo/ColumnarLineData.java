@@ -0,0 +1,26 @@
+package com.mygs.trackppt.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 生成折线图所需数据（列式原始类型）
+ * 所有系列共用一列X值，每个系列一列Y值，全部使用 double 数组存储，避免装箱
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ColumnarLineData {
+    // 折线图名称
+    private String title;
+
+    // X轴取值，为 null 或长度不足时使用数据点序号 0, 1, 2...
+    private double[] xValues;
+
+    // 系列名称，与 seriesValues 一一对应；为 null 时随机选取名称
+    private String[] seriesNames;
+
+    // 系列数据，每个数组代表一个系列的Y值
+    private double[][] seriesValues;
+}
@@ -0,0 +1,45 @@
+package com.mygs.trackppt.pojo;
+
+import com.mygs.trackppt.constant.ChartData;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 常驻报表生成进程（ReportDaemon）的配置
+ * 假脱机目录与本地端口至少启用一个
+ */
+@Data
+@NoArgsConstructor
+public class ReportDaemonOptions {
+    // 假脱机目录：放入 *.properties 任务文件即被处理，null 表示不启用
+    private Path spoolDir;
+
+    // 扫描假脱机目录的间隔（毫秒）
+    private long spoolPollMillis = 500;
+
+    // 本地回环地址上监听的端口，0 表示由系统分配，-1 表示不启用
+    private int port = -1;
+
+    // 端口任务的 csv、template、output 所在目录，null 表示端口任务不能引用文件（只能使用 seed 数据与内置模板并直接返回文档）
+    private Path socketDir;
+
+    // 工作线程数
+    private int workerCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    // 等待队列容量，队列满时暂停领取新任务
+    private int queueCapacity = 16;
+
+    // 单个任务超时时间（毫秒），小于等于0表示不限制
+    private long jobTimeoutMillis = 5 * 60 * 1000L;
+
+    // 启动时预加载的模板
+    private List<String> templatePaths = Arrays.asList(
+            ChartData.LINE_TEMPLATE_PATH, ChartData.PIE_TEMPLATE_PATH, ChartData.GANTT_TEMPLATE_PATH);
+
+    // 启动时是否用预加载的模板各生成一次小图表，提前加载 POI / XMLBeans 的类与 schema 类型
+    private boolean warmUp = true;
+}
@@ -0,0 +1,308 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.LineChartData;
+import com.mygs.trackppt.pojo.PieChartData;
+import org.apache.poi.xslf.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 批量PPT生成工具类
+ * 将多个折线图、饼图、甘特图数据渲染到同一个 XMLSlideShow 中，只加载一次模板、只写出一次文件
+ * <p>
+ * 开启并行渲染（ChartGenerateOptions.parallelRender）时，每个图表先在 ForkJoinPool 上各自的模板副本中
+ * 完成工作簿填充、重新绘图与甘特图形状创建，再按顺序由调用线程把幻灯片复制进同一个文档；
+ * 共享的 XMLSlideShow 只在串行的复制阶段被修改。每个图表需要单独打开一次模板，单核下并行渲染反而更慢，
+ * 适用于多核环境下图表较多的文档。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class BatchDeckPptUtil {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchDeckPptUtil.class);
+
+    /**
+     * 批量生成PPT文件，每个图表数据占一页
+     *
+     * @param outputFilePath 输出文件路径
+     * @param chartDataList  图表数据列表，元素类型为 LineChartData、ColumnarLineData、PieChartData 或 GanttChartData
+     * @return 是否生成成功
+     */
+    public static boolean generateDeck(String outputFilePath, List<?> chartDataList) {
+        try (XMLSlideShow ppt = buildDeck(chartDataList)) {
+            // 经临时文件保存，写出成功后才替换输出文件
+            OutputFiles.writeAtomically(Paths.get(outputFilePath), ppt::write);
+            logger.info("批量PPT生成成功！共{}页，文件路径：{}", chartDataList.size(), outputFilePath);
+            return true;
+        } catch (Exception e) {
+            logger.error("批量PPT生成失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量生成PPT并写入输出流，输出流由调用方负责关闭
+     *
+     * @param outputStream  输出流
+     * @param chartDataList 图表数据列表，元素类型为 LineChartData、ColumnarLineData、PieChartData 或 GanttChartData
+     * @return 是否生成成功
+     */
+    public static boolean generateDeck(OutputStream outputStream, List<?> chartDataList) {
+        return generateDeck(outputStream, chartDataList, new ChartGenerateOptions());
+    }
+
+    /**
+     * 按生成选项批量生成PPT并写入输出流，输出流由调用方负责关闭
+     *
+     * @param outputStream  输出流
+     * @param chartDataList 图表数据列表，元素类型为 LineChartData、ColumnarLineData、PieChartData 或 GanttChartData
+     * @param options       生成选项（是否并行渲染、批量工作簿写入等）
+     * @return 是否生成成功
+     */
+    public static boolean generateDeck(OutputStream outputStream, List<?> chartDataList, ChartGenerateOptions options) {
+        try (XMLSlideShow ppt = buildDeck(chartDataList, options)) {
+            ppt.write(outputStream);
+            outputStream.flush();
+            return true;
+        } catch (Exception e) {
+            logger.error("批量PPT生成失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 将图表数据渲染为一个PPT文档
+     * 第一个图表直接使用其模板的第一页，后续图表从对应模板复制幻灯片后追加
+     *
+     * @param chartDataList 图表数据列表
+     * @return PPT文档对象，调用方负责关闭
+     * @throws Exception 模板加载或渲染失败
+     */
+    public static XMLSlideShow buildDeck(List<?> chartDataList) throws Exception {
+        return buildDeck(chartDataList, new ChartGenerateOptions());
+    }
+
+    /**
+     * 按生成选项将图表数据渲染为一个PPT文档，开启并行渲染时使用公共 ForkJoinPool
+     *
+     * @param chartDataList 图表数据列表
+     * @param options       生成选项
+     * @return PPT文档对象，调用方负责关闭
+     * @throws Exception 模板加载或渲染失败
+     */
+    public static XMLSlideShow buildDeck(List<?> chartDataList, ChartGenerateOptions options) throws Exception {
+        if (options.isParallelRender()) {
+            return buildDeck(chartDataList, options, ForkJoinPool.commonPool());
+        }
+        if (chartDataList == null || chartDataList.isEmpty()) {
+            throw new IllegalArgumentException("chartDataList must not be empty");
+        }
+
+        XMLSlideShow ppt = PptTemplateCache.openSlideShow(templatePathOf(chartDataList.get(0)));
+        // 模板路径 -> 作为复制源的模板文档
+        Map<String, XMLSlideShow> sources = new HashMap<>();
+        // 模板路径 -> 模板中嵌入工作簿的原始字节，用于给每个复制出的图表创建独立工作簿
+        Map<String, byte[]> workbookBytes = new HashMap<>();
+        try {
+            for (int i = 0; i < chartDataList.size(); i++) {
+                Object chartData = chartDataList.get(i);
+                int page = i + 1;
+                if (i > 0) {
+                    String templatePath = templatePathOf(chartData);
+                    XMLSlideShow source = sources.get(templatePath);
+                    if (source == null) {
+                        source = PptTemplateCache.openSlideShow(templatePath);
+                        sources.put(templatePath, source);
+                    }
+                    XSLFSlide slide = ppt.createSlide();
+                    slide.importContent(source.getSlides().get(0));
+                    detachWorkbooks(slide, source, templatePath, workbookBytes);
+                }
+                renderChart(ppt, chartData, page, options);
+            }
+        } catch (Exception e) {
+            ppt.close();
+            throw e;
+        } finally {
+            for (XMLSlideShow source : sources.values()) {
+                source.close();
+            }
+        }
+        return ppt;
+    }
+
+    /**
+     * 在指定的 ForkJoinPool 上并行渲染图表，再按顺序合并为一个PPT文档
+     * 每个图表在独立的模板副本中渲染，调用线程按列表顺序等待并复制幻灯片，复制与后续图表的渲染重叠进行
+     *
+     * @param chartDataList 图表数据列表
+     * @param options       生成选项
+     * @param pool          渲染使用的线程池
+     * @return PPT文档对象，调用方负责关闭
+     * @throws Exception 模板加载或渲染失败
+     */
+    public static XMLSlideShow buildDeck(List<?> chartDataList, ChartGenerateOptions options, ForkJoinPool pool)
+            throws Exception {
+        if (chartDataList == null || chartDataList.isEmpty()) {
+            throw new IllegalArgumentException("chartDataList must not be empty");
+        }
+
+        List<ForkJoinTask<XMLSlideShow>> tasks = new ArrayList<>(chartDataList.size());
+        for (Object chartData : chartDataList) {
+            // 提交前检查数据类型，避免部分任务已开始后才失败
+            String templatePath = templatePathOf(chartData);
+            tasks.add(pool.submit(() -> prepareChart(templatePath, chartData, options)));
+        }
+
+        XMLSlideShow ppt = null;
+        int attached = 0;
+        try {
+            for (; attached < tasks.size(); attached++) {
+                XMLSlideShow prepared = join(tasks.get(attached));
+                if (ppt == null) {
+                    // 第一个图表的文档直接作为合并目标
+                    ppt = prepared;
+                    continue;
+                }
+                try {
+                    XSLFSlide slide = ppt.createSlide();
+                    slide.importContent(prepared.getSlides().get(0));
+                } finally {
+                    prepared.close();
+                }
+            }
+            return ppt;
+        } catch (Exception e) {
+            if (ppt != null) {
+                ppt.close();
+            }
+            closeRemaining(tasks, attached + 1);
+            throw e;
+        }
+    }
+
+    /**
+     * 在独立的模板副本上渲染单个图表，返回只含该图表页面的文档
+     */
+    private static XMLSlideShow prepareChart(String templatePath, Object chartData, ChartGenerateOptions options)
+            throws Exception {
+        XMLSlideShow prepared = PptTemplateCache.openSlideShow(templatePath);
+        try {
+            renderChart(prepared, chartData, 1, options);
+            return prepared;
+        } catch (Exception e) {
+            prepared.close();
+            throw e;
+        }
+    }
+
+    private static XMLSlideShow join(ForkJoinTask<XMLSlideShow> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 合并失败时取消尚未开始的渲染任务，并关闭已渲染完成但未合并的文档
+     */
+    private static void closeRemaining(List<ForkJoinTask<XMLSlideShow>> tasks, int from) {
+        for (int i = from; i < tasks.size(); i++) {
+            tasks.get(i).cancel(false);
+        }
+        for (int i = from; i < tasks.size(); i++) {
+            ForkJoinTask<XMLSlideShow> task = tasks.get(i);
+            task.quietlyJoin();
+            if (task.isCompletedNormally()) {
+                try {
+                    task.getRawResult().close();
+                } catch (IOException e) {
+                    logger.warn("关闭未合并的图表文档失败", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在指定页按生成选项渲染单个图表
+     */
+    private static void renderChart(XMLSlideShow ppt, Object chartData, int page, ChartGenerateOptions options)
+            throws Exception {
+        XSLFSlide slide = ppt.getSlides().get(page - 1);
+        if (chartData instanceof LineChartData) {
+            LineChartData lineChartData = (LineChartData) chartData;
+            Map<String, List<Double>> angleList = lineChartData.getAngleList();
+            List<String> seriesNames = angleList == null ? null : new ArrayList<>(angleList.keySet());
+            List<List<Double>> dataList = angleList == null ? null : new ArrayList<>(angleList.values());
+            ColumnarLineData lineData = LineChartPptUtil.toColumnarData(lineChartData.getTitle(), dataList, seriesNames);
+            LineChartPptUtil.fillChartToPPT(LineChartPptUtil.downsample(lineData, options), slide, options);
+        } else if (chartData instanceof ColumnarLineData) {
+            LineChartPptUtil.fillChartToPPT(LineChartPptUtil.downsample((ColumnarLineData) chartData, options), slide,
+                    options);
+        } else if (chartData instanceof PieChartData) {
+            PieChartData pieChartData = (PieChartData) chartData;
+            PieChartPptUtil.fillPieChartToPPT(pieChartData.getAmountList(), slide, pieChartData.getTitle(), options);
+        } else if (chartData instanceof GanttChartData) {
+            GanttChartPptUtil.generateGanttChart(ppt, (GanttChartData) chartData, page, options);
+        } else {
+            throw new IllegalArgumentException("不支持的图表数据类型: " + chartData);
+        }
+    }
+
+    /**
+     * importContent 复制图表时会让新图表与源图表共用同一个 XSSFWorkbook 对象，
+     * 多个同类型图表填充时会互相覆盖，这里为每个复制出的图表换上独立的工作簿副本
+     */
+    private static void detachWorkbooks(XSLFSlide slide, XMLSlideShow source, String templatePath,
+                                        Map<String, byte[]> workbookBytes) throws Exception {
+        List<XSLFChart> sourceCharts = PassthroughDeckWriter.chartsOf(source.getSlides().get(0));
+        List<XSLFChart> copiedCharts = PassthroughDeckWriter.chartsOf(slide);
+        for (int i = 0; i < copiedCharts.size() && i < sourceCharts.size(); i++) {
+            String key = templatePath + "#" + i;
+            byte[] bytes = workbookBytes.get(key);
+            if (bytes == null) {
+                bytes = toBytes(sourceCharts.get(i).getWorkbook());
+                workbookBytes.put(key, bytes);
+            }
+            copiedCharts.get(i).setWorkbook(new XSSFWorkbook(new ByteArrayInputStream(bytes)));
+        }
+    }
+
+    private static byte[] toBytes(XSSFWorkbook workbook) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 根据图表数据类型获取对应的模板路径
+     */
+    private static String templatePathOf(Object chartData) {
+        if (chartData instanceof LineChartData || chartData instanceof ColumnarLineData) {
+            return ChartData.LINE_TEMPLATE_PATH;
+        } else if (chartData instanceof PieChartData) {
+            return ChartData.PIE_TEMPLATE_PATH;
+        } else if (chartData instanceof GanttChartData) {
+            return ChartData.GANTT_TEMPLATE_PATH;
+        }
+        throw new IllegalArgumentException("不支持的图表数据类型: " + chartData);
+    }
+}
@@ -0,0 +1,286 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.constant.ChartType;
+import com.mygs.trackppt.metrics.ChartMetricsRegistry;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ChartMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单次图表生成的诊断记录
+ * 记录各阶段耗时与数据规模，生成结束时输出一条 INFO 汇总日志；
+ * 逐系列 / 逐行的明细日志只在被采样的生成中且 DEBUG 开启时输出（见 ChartGenerateOptions.diagnosticsSampleEvery），
+ * 未采样时热路径上不做任何字符串格式化。注册了指标监听器时，结束时同时发布 ChartMetrics。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class ChartDiagnostics {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChartDiagnostics.class);
+
+    /** 全局生成序号，用于按间隔采样 */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /** 支持按线程统计分配字节数的 HotSpot 扩展，不支持时为 null */
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadAllocationBean();
+
+    private final ChartType chartType;
+
+    private final boolean sampled;
+
+    private final long startNanos = System.nanoTime();
+
+    private final long[] stageNanos = new long[ChartStage.values().length];
+
+    private final long startAllocatedBytes = currentThreadAllocatedBytes();
+
+    private long peakHeapBytes = usedHeapBytes();
+
+    private long stageStartNanos;
+
+    private int seriesCount;
+
+    private long pointCount;
+
+    private int shapeCount;
+
+    private long outputBytes = -1;
+
+    private Boolean templateCacheHit;
+
+    private boolean lowMemory;
+
+    private long allocatedBytes = -1;
+
+    private boolean finished;
+
+    private ChartDiagnostics(ChartType chartType, boolean sampled) {
+        this.chartType = chartType;
+        this.sampled = sampled;
+    }
+
+    /**
+     * 开始记录一次图表生成
+     *
+     * @param chartType 图表类型
+     * @param options   生成选项（明细日志采样间隔）
+     */
+    public static ChartDiagnostics start(ChartType chartType, ChartGenerateOptions options) {
+        int every = options == null ? 0 : options.getDiagnosticsSampleEvery();
+        boolean sampled = every > 0 && SEQUENCE.getAndIncrement() % every == 0;
+        return new ChartDiagnostics(chartType, sampled);
+    }
+
+    /**
+     * 是否输出明细日志：本次生成被采样且指定日志器开启了 DEBUG
+     */
+    public boolean isDetailed(Logger log) {
+        return sampled && log.isDebugEnabled();
+    }
+
+    /**
+     * 标记一个阶段开始
+     */
+    public void beginStage() {
+        sampleHeap();
+        stageStartNanos = System.nanoTime();
+    }
+
+    /**
+     * 标记阶段结束，耗时累加到该阶段（同一阶段可多次进入，如一页上有多个图表）
+     */
+    public void endStage(ChartStage stage) {
+        stageNanos[stage.ordinal()] += System.nanoTime() - stageStartNanos;
+        sampleHeap();
+    }
+
+    public ChartType getChartType() {
+        return chartType;
+    }
+
+    public long getStageNanos(ChartStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    public int getSeriesCount() {
+        return seriesCount;
+    }
+
+    public void setSeriesCount(int seriesCount) {
+        this.seriesCount = seriesCount;
+    }
+
+    public long getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(long pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    public int getShapeCount() {
+        return shapeCount;
+    }
+
+    public void setShapeCount(int shapeCount) {
+        this.shapeCount = shapeCount;
+    }
+
+    /**
+     * 输出字节数，未写出时为 -1
+     */
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    public void setOutputBytes(long outputBytes) {
+        this.outputBytes = outputBytes;
+    }
+
+    /**
+     * 模板缓存是否命中，未经模板缓存加载时为 null
+     */
+    public Boolean getTemplateCacheHit() {
+        return templateCacheHit;
+    }
+
+    public void setTemplateCacheHit(Boolean templateCacheHit) {
+        this.templateCacheHit = templateCacheHit;
+    }
+
+    /**
+     * 是否使用了低内存模式（模板落盘、批量写入工作簿）
+     */
+    public boolean isLowMemory() {
+        return lowMemory;
+    }
+
+    public void setLowMemory(boolean lowMemory) {
+        this.lowMemory = lowMemory;
+    }
+
+    /**
+     * 生成线程在本次生成中分配的字节数，结束前或 JVM 不支持时为 -1
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * 各阶段边界处采样到的最大堆占用（进程级，并发生成时包含其他任务的占用）
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /**
+     * 结束记录，输出一条汇总日志并向指标监听器发布，重复调用时只处理一次
+     *
+     * @param success 是否生成成功
+     */
+    public void finish(boolean success) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        long totalNanos = System.nanoTime() - startNanos;
+        sampleHeap();
+        if (startAllocatedBytes >= 0) {
+            allocatedBytes = currentThreadAllocatedBytes() - startAllocatedBytes;
+        }
+        if (ChartMetricsRegistry.hasListeners()) {
+            ChartMetricsRegistry.publish(toMetrics(success, totalNanos));
+        }
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder(160);
+        summary.append("类型=").append(chartType.getLabel())
+                .append(", 成功=").append(success)
+                .append(", 总耗时=").append(toMillis(totalNanos)).append("ms");
+        for (ChartStage stage : ChartStage.values()) {
+            long nanos = stageNanos[stage.ordinal()];
+            if (nanos > 0) {
+                summary.append(", ").append(stage.getLabel()).append('=').append(toMillis(nanos)).append("ms");
+            }
+        }
+        if (seriesCount > 0) {
+            summary.append(", 系列=").append(seriesCount);
+        }
+        if (pointCount > 0) {
+            summary.append(", 数据点=").append(pointCount);
+        }
+        if (shapeCount > 0) {
+            summary.append(", 形状=").append(shapeCount);
+        }
+        if (outputBytes >= 0) {
+            summary.append(", 输出=").append(outputBytes).append("字节");
+        }
+        if (templateCacheHit != null) {
+            summary.append(", 模板缓存=").append(templateCacheHit ? "命中" : "未命中");
+        }
+        if (lowMemory) {
+            summary.append(", 低内存模式");
+        }
+        if (allocatedBytes >= 0) {
+            summary.append(", 分配=").append(allocatedBytes / 1024).append("KB");
+        }
+        summary.append(", 堆峰值=").append(peakHeapBytes / (1024 * 1024)).append("MB");
+        logger.info("图表生成完成 [{}]", summary);
+    }
+
+    private ChartMetrics toMetrics(boolean success, long totalNanos) {
+        Map<ChartStage, Long> stages = new EnumMap<>(ChartStage.class);
+        for (ChartStage stage : ChartStage.values()) {
+            long nanos = stageNanos[stage.ordinal()];
+            if (nanos > 0) {
+                stages.put(stage, nanos);
+            }
+        }
+        return new ChartMetrics(chartType, success, totalNanos, stages, outputBytes, shapeCount, seriesCount,
+                pointCount, templateCacheHit, lowMemory, allocatedBytes, peakHeapBytes);
+    }
+
+    private void sampleHeap() {
+        peakHeapBytes = Math.max(peakHeapBytes, usedHeapBytes());
+    }
+
+    private static long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return THREAD_BEAN == null ? -1 : THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threadAllocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+                if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                    return hotspot;
+                }
+            }
+        } catch (LinkageError e) {
+            logger.debug("当前JVM不支持按线程统计分配字节数");
+        }
+        return null;
+    }
+
+    private static String toMillis(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        return micros / 1000 + "." + String.format("%03d", micros % 1000);
+    }
+}
@@ -0,0 +1,320 @@
+package com.mygs.trackppt.utils;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.poi.ss.util.CellReference;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+
+/**
+ * 嵌入工作簿单元格增量修改工具类
+ * 不构建 XSSFWorkbook，只对目标工作表的 XML 做一次流式（StAX）复制并替换指定单元格的数值，
+ * 工作簿中的其他部件按原始压缩数据直接复制。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+class EmbeddedSheetPatcher {
+
+    static final String SHEET_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    static final String RELATIONSHIP_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newInstance();
+
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private EmbeddedSheetPatcher() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 修改 xlsx 中的单元格数值
+     *
+     * @param xlsx  原工作簿内容
+     * @param edits 工作表名称（null 表示第一个工作表）-> 行号（从0开始）-> 列号（从0开始）-> 新数值，NaN 表示清空
+     * @return 修改后的工作簿内容
+     * @throws IOException 工作簿读取或解析失败
+     */
+    static byte[] patch(byte[] xlsx, Map<String, NavigableMap<Integer, NavigableMap<Integer, Double>>> edits)
+            throws IOException {
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(xlsx))) {
+            Map<String, NavigableMap<Integer, NavigableMap<Integer, Double>>> byEntry = new HashMap<>();
+            Map<String, String> sheets = sheetEntries(zip);
+            for (Map.Entry<String, NavigableMap<Integer, NavigableMap<Integer, Double>>> e : edits.entrySet()) {
+                String entryName = e.getKey() == null
+                        ? (sheets.isEmpty() ? null : sheets.values().iterator().next())
+                        : sheets.get(e.getKey());
+                if (entryName == null) {
+                    throw new IllegalArgumentException("嵌入工作簿中不存在工作表: " + e.getKey());
+                }
+                byEntry.put(entryName, e.getValue());
+            }
+
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(xlsx.length + 1024);
+            try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(buffer)) {
+                Enumeration<ZipArchiveEntry> entries = zip.getEntriesInPhysicalOrder();
+                while (entries.hasMoreElements()) {
+                    ZipArchiveEntry entry = entries.nextElement();
+                    NavigableMap<Integer, NavigableMap<Integer, Double>> rows = byEntry.get(entry.getName());
+                    if (rows == null) {
+                        out.addRawArchiveEntry(entry, zip.getRawInputStream(entry));
+                        continue;
+                    }
+                    ZipArchiveEntry patched = new ZipArchiveEntry(entry.getName());
+                    patched.setMethod(ZipEntry.DEFLATED);
+                    out.putArchiveEntry(patched);
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        patchSheet(in, out, rows);
+                    }
+                    out.closeArchiveEntry();
+                }
+            }
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * 工作表名称 -> 工作表在压缩包中的路径，按 workbook.xml 中的顺序
+     */
+    private static Map<String, String> sheetEntries(ZipFile zip) throws IOException {
+        Map<String, String> relIds = new LinkedHashMap<>();
+        for (StartElement sheet : startElements(zip, "xl/workbook.xml", "sheet")) {
+            relIds.put(attribute(sheet, "", "name"), attribute(sheet, RELATIONSHIP_NAMESPACE, "id"));
+        }
+        Map<String, String> targets = relationshipTargets(zip, "xl/_rels/workbook.xml.rels", "/xl/workbook.xml");
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : relIds.entrySet()) {
+            String target = targets.get(e.getValue());
+            if (target != null) {
+                result.put(e.getKey(), target);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 读取关系部件，返回关系ID -> 目标部件在压缩包中的路径（不含开头的 /）
+     *
+     * @param relsEntry  关系部件路径
+     * @param sourcePart 关系所属部件的名称，用于解析相对路径
+     */
+    static Map<String, String> relationshipTargets(ZipFile zip, String relsEntry, String sourcePart) throws IOException {
+        Map<String, String> targets = new HashMap<>();
+        URI base = URI.create(sourcePart);
+        for (StartElement rel : startElements(zip, relsEntry, "Relationship")) {
+            if ("External".equals(attribute(rel, "", "TargetMode"))) {
+                continue;
+            }
+            String path = base.resolve(attribute(rel, "", "Target")).getPath();
+            targets.put(attribute(rel, "", "Id"), path.startsWith("/") ? path.substring(1) : path);
+        }
+        return targets;
+    }
+
+    /**
+     * 读取关系部件，返回指定关系类型（按类型后缀匹配）的第一个目标部件路径，不存在时返回 null
+     */
+    static String relationshipTargetByType(ZipFile zip, String relsEntry, String sourcePart, String typeSuffix)
+            throws IOException {
+        URI base = URI.create(sourcePart);
+        for (StartElement rel : startElements(zip, relsEntry, "Relationship")) {
+            String type = attribute(rel, "", "Type");
+            if (type != null && type.endsWith(typeSuffix) && !"External".equals(attribute(rel, "", "TargetMode"))) {
+                String path = base.resolve(attribute(rel, "", "Target")).getPath();
+                return path.startsWith("/") ? path.substring(1) : path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 读取部件中指定本地名称的全部开始标签
+     */
+    private static List<StartElement> startElements(ZipFile zip, String entryName, String localName) throws IOException {
+        ZipArchiveEntry entry = zip.getEntry(entryName);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<StartElement> result = new ArrayList<>();
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLEventReader reader = INPUT_FACTORY.createXMLEventReader(in);
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement() && localName.equals(event.asStartElement().getName().getLocalPart())) {
+                    result.add(event.asStartElement());
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("部件解析失败: " + entryName, e);
+        }
+        return result;
+    }
+
+    private static String attribute(StartElement element, String namespace, String localName) {
+        Attribute attribute = element.getAttributeByName(new QName(namespace, localName));
+        return attribute == null ? null : attribute.getValue();
+    }
+
+    /**
+     * 流式复制工作表 XML，替换目标单元格的值；目标单元格或所在行不存在时按行列顺序插入
+     */
+    private static void patchSheet(InputStream in, OutputStream out,
+                                   NavigableMap<Integer, NavigableMap<Integer, Double>> edits) throws IOException {
+        NavigableMap<Integer, NavigableMap<Integer, Double>> pendingRows = new TreeMap<>();
+        for (Map.Entry<Integer, NavigableMap<Integer, Double>> e : edits.entrySet()) {
+            pendingRows.put(e.getKey(), new TreeMap<>(e.getValue()));
+        }
+        try {
+            XMLEventReader reader = INPUT_FACTORY.createXMLEventReader(in);
+            XMLEventWriter writer = OUTPUT_FACTORY.createXMLEventWriter(out, "UTF-8");
+            NavigableMap<Integer, Double> rowCells = null;
+            int rowIndex = -1;
+            int cellIndex = -1;
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    StartElement start = event.asStartElement();
+                    String name = start.getName().getLocalPart();
+                    if ("row".equals(name)) {
+                        String r = attribute(start, "", "r");
+                        rowIndex = r == null ? rowIndex + 1 : Integer.parseInt(r) - 1;
+                        cellIndex = -1;
+                        // 先补上位于本行之前、原表中不存在的行
+                        writeMissingRows(writer, pendingRows.headMap(rowIndex, false));
+                        rowCells = pendingRows.remove(rowIndex);
+                    } else if ("c".equals(name) && rowCells != null) {
+                        String r = attribute(start, "", "r");
+                        cellIndex = r == null ? cellIndex + 1 : new CellReference(r).getCol();
+                        writeCells(writer, rowIndex, rowCells.headMap(cellIndex, false));
+                        Double value = rowCells.remove(cellIndex);
+                        if (value != null) {
+                            writeCell(writer, rowIndex, cellIndex, value, attribute(start, "", "s"));
+                            skipElement(reader);
+                            continue;
+                        }
+                    }
+                } else if (event.isEndElement()) {
+                    String name = event.asEndElement().getName().getLocalPart();
+                    if ("row".equals(name) && rowCells != null) {
+                        writeCells(writer, rowIndex, rowCells);
+                        rowCells = null;
+                    } else if ("sheetData".equals(name)) {
+                        writeMissingRows(writer, pendingRows);
+                    }
+                }
+                writer.add(event);
+            }
+            writer.flush();
+            writer.close();
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("工作表解析失败", e);
+        }
+    }
+
+    private static void writeMissingRows(XMLEventWriter writer, NavigableMap<Integer, NavigableMap<Integer, Double>> rows)
+            throws XMLStreamException {
+        Iterator<Map.Entry<Integer, NavigableMap<Integer, Double>>> it = rows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, NavigableMap<Integer, Double>> row = it.next();
+            writer.add(EVENT_FACTORY.createStartElement("", SHEET_NAMESPACE, "row"));
+            writer.add(EVENT_FACTORY.createAttribute("r", Integer.toString(row.getKey() + 1)));
+            writeCells(writer, row.getKey(), row.getValue());
+            writer.add(EVENT_FACTORY.createEndElement("", SHEET_NAMESPACE, "row"));
+            it.remove();
+        }
+    }
+
+    private static void writeCells(XMLEventWriter writer, int row, NavigableMap<Integer, Double> cells)
+            throws XMLStreamException {
+        Iterator<Map.Entry<Integer, Double>> it = cells.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Double> cell = it.next();
+            writeCell(writer, row, cell.getKey(), cell.getValue(), null);
+            it.remove();
+        }
+    }
+
+    /**
+     * 写出数值单元格，保留原单元格样式，NaN 或无穷大写成空单元格
+     */
+    private static void writeCell(XMLEventWriter writer, int row, int column, double value, String style)
+            throws XMLStreamException {
+        writer.add(EVENT_FACTORY.createStartElement("", SHEET_NAMESPACE, "c"));
+        writer.add(EVENT_FACTORY.createAttribute("r", new CellReference(row, column).formatAsString()));
+        if (style != null) {
+            writer.add(EVENT_FACTORY.createAttribute("s", style));
+        }
+        if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+            writer.add(EVENT_FACTORY.createStartElement("", SHEET_NAMESPACE, "v"));
+            writer.add(EVENT_FACTORY.createCharacters(Double.toString(value)));
+            writer.add(EVENT_FACTORY.createEndElement("", SHEET_NAMESPACE, "v"));
+        }
+        writer.add(EVENT_FACTORY.createEndElement("", SHEET_NAMESPACE, "c"));
+    }
+
+    /**
+     * 跳过当前元素（开始标签已读取）直到对应的结束标签
+     */
+    private static void skipElement(XMLEventReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * 读取压缩包中的部件内容
+     */
+    static byte[] readEntry(ZipFile zip, String entryName) throws IOException {
+        ZipArchiveEntry entry = zip.getEntry(entryName);
+        if (entry == null) {
+            throw new IllegalArgumentException("部件不存在: /" + entryName);
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+}
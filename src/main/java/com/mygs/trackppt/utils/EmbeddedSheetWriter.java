@@ -0,0 +1,300 @@
+package com.mygs.trackppt.utils;
+
+import org.apache.poi.ooxml.POIXMLDocument;
+import org.apache.poi.openxml4j.opc.*;
+import org.apache.poi.xslf.usermodel.XSLFChart;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTChartSpace;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTExternalData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 图表嵌入工作簿批量写入工具类
+ * 直接以流的方式输出 xlsx 的各个 XML 部件，不创建 XSSFRow / XSSFCell 对象，
+ * 也不经过 XSSFWorkbook 的解析与序列化，写好的字节直接挂到图表的嵌入部件上。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class EmbeddedSheetWriter {
+
+    /** 图表 XML 命名空间 */
+    public static final String CHART_NAMESPACE = "http://schemas.openxmlformats.org/drawingml/2006/chart";
+
+    /** 工作表名称，图表数据引用公式均指向该表 */
+    public static final String SHEET_NAME = "Sheet1";
+
+    private static final String SHEET_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final String CONTENT_TYPES_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+            + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+            + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+            + "</Types>";
+
+    private static final String ROOT_RELS_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>";
+
+    private static final String WORKBOOK_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+            + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+            + "<sheets><sheet name=\"" + SHEET_NAME + "\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+            + "<calcPr fullCalcOnLoad=\"1\"/>"
+            + "</workbook>";
+
+    private static final String WORKBOOK_RELS_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+            + "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>"
+            + "</Relationships>";
+
+    private static final String STYLES_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+            + "</styleSheet>";
+
+    private EmbeddedSheetWriter() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 将列式数据写成 xlsx 字节
+     * 第一行为标题行；若指定 labels，则 A 列为文本标签、数值列从 B 列开始，否则数值列从 A 列开始。
+     * 数值列长度不足 rowCount 时以 0.0 补齐，与图表填充逻辑保持一致。
+     *
+     * @param headers  标题行，长度应等于总列数
+     * @param labels   文本标签列，可为 null
+     * @param columns  数值列
+     * @param rowCount 数据行数（不含标题行）
+     * @return xlsx 文件内容
+     * @throws IOException 写入失败
+     */
+    public static byte[] writeWorkbook(String[] headers, String[] labels, double[][] columns, int rowCount) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096 + rowCount * columns.length * 24);
+        try (ZipOutputStream zip = new ZipOutputStream(buffer)) {
+            putEntry(zip, "[Content_Types].xml", CONTENT_TYPES_XML);
+            putEntry(zip, "_rels/.rels", ROOT_RELS_XML);
+            putEntry(zip, "xl/workbook.xml", WORKBOOK_XML);
+            putEntry(zip, "xl/_rels/workbook.xml.rels", WORKBOOK_RELS_XML);
+            putEntry(zip, "xl/styles.xml", STYLES_XML);
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            Writer out = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            writeSheet(out, headers, labels, columns, rowCount);
+            out.flush();
+            zip.closeEntry();
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 将 xlsx 字节挂到图表的嵌入工作簿部件上，图表没有嵌入部件时新建一个
+     * 同时清除图表缓存的 XSSFWorkbook，防止保存时被旧工作簿覆盖
+     *
+     * @param chart 图表
+     * @param xlsx  xlsx 文件内容
+     * @throws Exception 部件创建或写入失败
+     */
+    public static void attachWorkbook(XSLFChart chart, byte[] xlsx) throws Exception {
+        PackagePart chartPart = chart.getPackagePart();
+        PackagePart worksheetPart;
+        PackageRelationshipCollection rels = chartPart.getRelationshipsByType(POIXMLDocument.PACK_OBJECT_REL_TYPE);
+        if (rels.size() > 0) {
+            worksheetPart = chartPart.getRelatedPart(rels.getRelationship(0));
+        } else {
+            OPCPackage pkg = chartPart.getPackage();
+            PackagePartName partName;
+            int index = 1;
+            do {
+                partName = PackagingURIHelper.createPartName("/ppt/embeddings/Microsoft_Excel_Worksheet" + index + ".xlsx");
+                index++;
+            } while (pkg.containPart(partName));
+            worksheetPart = pkg.createPart(partName, SHEET_CONTENT_TYPE);
+            PackageRelationship rel = chartPart.addRelationship(partName, TargetMode.INTERNAL,
+                    POIXMLDocument.PACK_OBJECT_REL_TYPE);
+            CTChartSpace chartSpace = chart.getCTChartSpace();
+            CTExternalData externalData = chartSpace.isSetExternalData()
+                    ? chartSpace.getExternalData() : chartSpace.addNewExternalData();
+            externalData.setId(rel.getId());
+            if (!externalData.isSetAutoUpdate()) {
+                externalData.addNewAutoUpdate().setVal(false);
+            }
+        }
+        try (OutputStream out = worksheetPart.getOutputStream()) {
+            out.write(xlsx);
+        }
+        chart.setWorkbook(null);
+    }
+
+    /**
+     * 生成单元格区域引用公式，例如 Sheet1!$B$2:$B$11
+     *
+     * @param column   列序号（从0开始）
+     * @param firstRow 首行序号（从0开始）
+     * @param lastRow  末行序号（从0开始）
+     */
+    public static String rangeFormula(int column, int firstRow, int lastRow) {
+        String col = columnName(column);
+        return SHEET_NAME + "!$" + col + "$" + (firstRow + 1) + ":$" + col + "$" + (lastRow + 1);
+    }
+
+    /**
+     * 生成单元格引用公式，例如 Sheet1!$B$1
+     */
+    public static String cellFormula(int column, int row) {
+        return SHEET_NAME + "!$" + columnName(column) + "$" + (row + 1);
+    }
+
+    /**
+     * 列序号转列名，0 -> A，26 -> AA
+     */
+    public static String columnName(int column) {
+        StringBuilder name = new StringBuilder();
+        int n = column + 1;
+        while (n > 0) {
+            int rem = (n - 1) % 26;
+            name.insert(0, (char) ('A' + rem));
+            n = (n - 1) / 26;
+        }
+        return name.toString();
+    }
+
+    /**
+     * 追加数值引用及缓存：&lt;c:numRef&gt;&lt;c:f/&gt;&lt;c:numCache/&gt;&lt;/c:numRef&gt;
+     * 数值长度不足 count 时以 0.0 补齐
+     */
+    static void appendNumRef(StringBuilder xml, String formula, double[] values, int count) {
+        xml.append("<c:numRef><c:f>").append(formula).append("</c:f><c:numCache>")
+                .append("<c:ptCount val=\"").append(count).append("\"/>");
+        for (int i = 0; i < count; i++) {
+            double value = i < values.length ? values[i] : 0.0;
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                continue;
+            }
+            xml.append("<c:pt idx=\"").append(i).append("\"><c:v>").append(value).append("</c:v></c:pt>");
+        }
+        xml.append("</c:numCache></c:numRef>");
+    }
+
+    /**
+     * 追加文本引用及缓存：&lt;c:strRef&gt;&lt;c:f/&gt;&lt;c:strCache/&gt;&lt;/c:strRef&gt;
+     */
+    static void appendStrRef(StringBuilder xml, String formula, String[] values, int count) {
+        xml.append("<c:strRef><c:f>").append(formula).append("</c:f><c:strCache>")
+                .append("<c:ptCount val=\"").append(count).append("\"/>");
+        for (int i = 0; i < count && i < values.length; i++) {
+            xml.append("<c:pt idx=\"").append(i).append("\"><c:v>").append(escapeXml(values[i])).append("</c:v></c:pt>");
+        }
+        xml.append("</c:strCache></c:strRef>");
+    }
+
+    /**
+     * XML 文本转义
+     */
+    public static String escapeXml(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement;
+            switch (c) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                case '\'': replacement = "&apos;"; break;
+                default: replacement = null;
+            }
+            if (replacement != null) {
+                if (sb == null) {
+                    sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+                }
+                sb.append(replacement);
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    private static void writeSheet(Writer out, String[] headers, String[] labels, double[][] columns,
+                                   int rowCount) throws IOException {
+        int firstNumberColumn = labels == null ? 0 : 1;
+        int columnCount = firstNumberColumn + columns.length;
+        String[] columnNames = new String[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            columnNames[c] = columnName(c);
+        }
+
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">");
+        out.write("<dimension ref=\"A1:" + columnNames[columnCount - 1] + (rowCount + 1) + "\"/>");
+        out.write("<sheetData>");
+
+        // 标题行
+        out.write("<row r=\"1\">");
+        for (int c = 0; c < columnCount; c++) {
+            writeStringCell(out, columnNames[c], 1, headers != null && c < headers.length ? headers[c] : "");
+        }
+        out.write("</row>");
+
+        // 数据行
+        for (int row = 0; row < rowCount; row++) {
+            int r = row + 2;
+            out.write("<row r=\"");
+            out.write(Integer.toString(r));
+            out.write("\">");
+            if (labels != null) {
+                writeStringCell(out, columnNames[0], r, row < labels.length ? labels[row] : "");
+            }
+            for (int c = 0; c < columns.length; c++) {
+                double[] column = columns[c];
+                double value = row < column.length ? column[row] : 0.0;
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    continue;
+                }
+                out.write("<c r=\"");
+                out.write(columnNames[firstNumberColumn + c]);
+                out.write(Integer.toString(r));
+                out.write("\"><v>");
+                out.write(Double.toString(value));
+                out.write("</v></c>");
+            }
+            out.write("</row>");
+        }
+        out.write("</sheetData></worksheet>");
+    }
+
+    private static void writeStringCell(Writer out, String columnName, int row, String text) throws IOException {
+        out.write("<c r=\"");
+        out.write(columnName);
+        out.write(Integer.toString(row));
+        out.write("\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        out.write(escapeXml(text));
+        out.write("</t></is></c>");
+    }
+
+    private static void putEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -1,18 +1,24 @@
 package com.mygs.trackppt.utils;
 
 import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.constant.ChartType;
+import com.mygs.trackppt.constant.GanttBarStyle;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
 import com.mygs.trackppt.pojo.GanttChartData;
 import com.mygs.trackppt.pojo.TrackingDevice;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.sl.usermodel.ShapeType;
 import org.apache.poi.sl.usermodel.TextParagraph;
 import org.apache.poi.xslf.usermodel.*;
-import org.springframework.util.ResourceUtils;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTGeomGuide;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTGeomGuideList;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTPresetGeometry2D;
+import org.openxmlformats.schemas.presentationml.x2006.main.CTShape;
 
 import java.awt.*;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
@@ -33,22 +39,129 @@ public class GanttChartPptUtil {
      * @param outputFilePath   输出文件路径
      */
     public static void generatePPTChart(String templateFilePath, String outputFilePath) {
+        List<TrackingDevice> trackingDevices = generateTrackingDevices(10);
+        GanttChartData ganttChartData = new GanttChartData("示例甘特图", trackingDevices);
+        generatePPTChart(templateFilePath, outputFilePath, ganttChartData);
+    }
+
+    /**
+     * 使用指定数据生成包含甘特图的 PPT 文件
+     *
+     * @param templateFilePath PPT 模板文件路径
+     * @param outputFilePath   输出文件路径
+     * @param ganttChartData   甘特图数据对象
+     */
+    public static void generatePPTChart(String templateFilePath, String outputFilePath, GanttChartData ganttChartData) {
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.GANTT, options);
+        boolean success = false;
         try {
-            InputStream fis = ResourceUtils.getURL(templateFilePath).openStream();
-            XMLSlideShow ppt = new XMLSlideShow(fis);
-            fis.close();
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options,
+                    deviceCount(ganttChartData), diagnostics);
+            try (XMLSlideShow ppt = opened.ppt) {
+                // 经临时文件保存，生成成功后才替换输出文件
+                OutputFiles.writeAtomically(Paths.get(outputFilePath),
+                        out -> writeGanttChart(ppt, out, opened.templateBytes, ganttChartData, options, diagnostics));
+            }
+            success = true;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
 
-            List<TrackingDevice> trackingDevices = generateTrackingDevices(10);
-            GanttChartData ganttChartData = new GanttChartData("示例甘特图", trackingDevices);
+    /**
+     * 生成甘特图 PPT 并写入输出流（如HTTP响应流、内存缓冲区），不产生临时文件
+     * 输出流由调用方负责关闭；需要写入 WritableByteChannel 时可使用 Channels.newOutputStream 包装
+     *
+     * @param templateFilePath PPT 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param ganttChartData   甘特图数据对象
+     */
+    public static void generatePPTChart(String templateFilePath, OutputStream outputStream, GanttChartData ganttChartData) {
+        generatePPTChart(templateFilePath, outputStream, ganttChartData, new ChartGenerateOptions());
+    }
+
+    /**
+     * 按生成选项生成甘特图 PPT 并写入输出流，输出流由调用方负责关闭
+     *
+     * @param templateFilePath PPT 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param ganttChartData   甘特图数据对象
+     * @param options          生成选项
+     */
+    public static void generatePPTChart(String templateFilePath, OutputStream outputStream, GanttChartData ganttChartData,
+                                        ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.GANTT, options);
+        boolean success = false;
+        try {
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options,
+                    deviceCount(ganttChartData), diagnostics);
+            XMLSlideShow ppt = opened.ppt;
+            writeGanttChart(ppt, outputStream, opened.templateBytes, ganttChartData, options, diagnostics);
+            success = true;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
 
-            generateGanttChart(ppt, ganttChartData, 1);
+    /**
+     * 使用模板字节生成甘特图 PPT 并写入输出流
+     *
+     * @param templateBytes  模板文件内容
+     * @param outputStream   输出流，由调用方负责关闭
+     * @param ganttChartData 甘特图数据对象
+     */
+    public static void generatePPTChart(byte[] templateBytes, OutputStream outputStream, GanttChartData ganttChartData) {
+        generatePPTChart(new ByteArrayInputStream(templateBytes), outputStream, ganttChartData);
+    }
 
-            try (FileOutputStream out = new FileOutputStream(outputFilePath)) {
-                ppt.write(out);
-                out.flush();
-            }
+    /**
+     * 使用模板输入流生成甘特图 PPT 并写入输出流
+     *
+     * @param templateInputStream 模板输入流，由调用方负责关闭
+     * @param outputStream        输出流，由调用方负责关闭
+     * @param ganttChartData      甘特图数据对象
+     */
+    public static void generatePPTChart(InputStream templateInputStream, OutputStream outputStream, GanttChartData ganttChartData) {
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.GANTT, options);
+        boolean success = false;
+        try {
+            diagnostics.beginStage();
+            XMLSlideShow ppt = new XMLSlideShow(templateInputStream);
+            diagnostics.endStage(ChartStage.TEMPLATE_LOAD);
+            writeGanttChart(ppt, outputStream, null, ganttChartData, options, diagnostics);
+            success = true;
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
+
+    /**
+     * 在第一页生成甘特图并将 PPT 写入输出流，完成后关闭 PPT 文档
+     *
+     * @param templateBytes 打开该PPT所用的模板字节，用于直通写出；非模板缓存或低内存模式打开的PPT传 null
+     */
+    private static void writeGanttChart(XMLSlideShow ppt, OutputStream out, byte[] templateBytes,
+                                        GanttChartData ganttChartData, ChartGenerateOptions options,
+                                        ChartDiagnostics diagnostics) throws Exception {
+        try {
+            generateGanttChart(ppt, ganttChartData, 1, options, diagnostics);
+            diagnostics.beginStage();
+            CountingOutputStream counting = new CountingOutputStream(out);
+            PassthroughDeckWriter.writeDeck(ppt, templateBytes, Collections.singletonList(ppt.getSlides().get(0)),
+                    options, counting);
+            counting.flush();
+            diagnostics.endStage(ChartStage.WRITE);
+            diagnostics.setOutputBytes(counting.getCount());
+        } finally {
+            ppt.close();
         }
     }
 
@@ -61,51 +174,68 @@ public class GanttChartPptUtil {
      * @throws Exception 异常处理
      */
     public static void generateGanttChart(XMLSlideShow ppt, GanttChartData ganttChartData, int page) throws Exception {
-        int slideTotalWidth = 1280;
-        int slideWidth = 1080;
-        int horizontalOffset = (slideTotalWidth - slideWidth) / 2;
-        int leftMargin = 80 + horizontalOffset;
-        int rightMargin = 40 + horizontalOffset;
-        int initialSlideHeight = 270;
-        int topMargin = 50;
-        int bottomMargin = 0;
-
-        int chartWidth = slideWidth - leftMargin - rightMargin;
-        int chartHeight = initialSlideHeight - topMargin - bottomMargin;
-
-        double maxEndTime = 0;
-        for (TrackingDevice d : ganttChartData.getDeviceList()) {
-            maxEndTime = Math.max(maxEndTime, d.getRelativeEndTime());
-        }
-        if (maxEndTime == 0) maxEndTime = 60;
-
-        double pixelsPerSecond = (double) chartWidth / maxEndTime;
-
-        Map<String, Integer> deviceYMap = new LinkedHashMap<>();
-        Map<String, Color> deviceColorMap = new HashMap<>();
-        int colorIndex = 0;
-        for (TrackingDevice d : ganttChartData.getDeviceList()) {
-            if (!deviceYMap.containsKey(d.getDeviceName())) {
-                deviceYMap.put(d.getDeviceName(), deviceYMap.size());
-                deviceColorMap.put(d.getDeviceName(), ChartData.DEVICE_COLORS[colorIndex % ChartData.DEVICE_COLORS.length]);
-                colorIndex++;
-            }
+        generateGanttChart(ppt, ganttChartData, page, new ChartGenerateOptions());
+    }
+
+    /**
+     * 在指定幻灯片上按生成选项生成甘特图
+     *
+     * @param ppt            PPT 文档对象
+     * @param ganttChartData 甘特图数据对象
+     * @param page           页码（从1开始）
+     * @param options        生成选项（任务条样式、按行组合等）
+     * @throws Exception 异常处理
+     */
+    public static void generateGanttChart(XMLSlideShow ppt, GanttChartData ganttChartData, int page,
+                                          ChartGenerateOptions options) throws Exception {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.GANTT, options);
+        boolean success = false;
+        try {
+            generateGanttChart(ppt, ganttChartData, page, options, diagnostics);
+            success = true;
+        } finally {
+            diagnostics.finish(success);
         }
+    }
 
-        int deviceCount = Math.max(deviceYMap.size(), 1);
-        int axisAreaHeight = 30;
-        int availableHeight = chartHeight - axisAreaHeight;
-        int rowHeight = availableHeight / deviceCount;
-        int barPadding = 4;
-        int barHeight = Math.min(4, rowHeight - barPadding);
+    /**
+     * 在指定幻灯片上按生成选项生成甘特图，布局计算与形状创建耗时、形状数量记录到诊断记录中
+     */
+    static void generateGanttChart(XMLSlideShow ppt, GanttChartData ganttChartData, int page,
+                                   ChartGenerateOptions options, ChartDiagnostics diagnostics) throws Exception {
+        diagnostics.beginStage();
+        GanttLayout layout = GanttLayoutEngine.layout(ganttChartData, options);
+        diagnostics.endStage(ChartStage.LAYOUT);
 
+        diagnostics.beginStage();
         XSLFSlide slide = ppt.getSlides().get(page - 1);
+        int shapesBefore = slide.getShapes().size();
+        drawGanttChart(slide, layout, options);
+        diagnostics.endStage(ChartStage.SHAPES);
+        diagnostics.setSeriesCount(layout.getRowCount());
+        diagnostics.setPointCount(deviceCount(ganttChartData));
+        diagnostics.setShapeCount(slide.getShapes().size() - shapesBefore);
+    }
+
+    /**
+     * 任务时间段数量，设备列表为 null 时为0（与 GanttLayoutEngine 一致，按空甘特图处理）
+     */
+    private static int deviceCount(GanttChartData ganttChartData) {
+        return ganttChartData.getDeviceList() == null ? 0 : ganttChartData.getDeviceList().size();
+    }
+
+    /**
+     * 按布局结果绘制甘特图的全部形状：标题、坐标轴、设备标签、刻度与任务条
+     */
+    static void drawGanttChart(XSLFSlide slide, GanttLayout layout, ChartGenerateOptions options) {
+        int leftMargin = layout.getLeftMargin();
+        int xAxisY = layout.getAxisBottom();
 
         // 添加标题
-        if (ganttChartData.getTitle() != null && !ganttChartData.getTitle().isEmpty()) {
+        if (layout.getTitle() != null && !layout.getTitle().isEmpty()) {
             XSLFTextShape title = slide.createTextBox();
-            title.setAnchor(new Rectangle(0, 20, slideWidth, 50));
-            title.setText(ganttChartData.getTitle());
+            title.setAnchor(new Rectangle(0, 20, layout.getTitleWidth(), 50));
+            title.setText(layout.getTitle());
             title.setFillColor(null);
             title.setLineColor(null);
             XSLFTextParagraph para = title.getTextParagraphs().get(0);
@@ -116,87 +246,109 @@ public class GanttChartPptUtil {
             run.setFontColor(Color.BLACK);
         }
 
-        // 绘制Y轴
-        int yAxisX = leftMargin;
-        int yAxisTop = topMargin;
-        int yAxisBottom = topMargin + chartHeight - axisAreaHeight;
+        // 坐标轴、设备标签与刻度按样式复制原型形状
+        GanttShapeFactory shapes = new GanttShapeFactory(slide);
 
-        XSLFAutoShape yAxis = slide.createAutoShape();
-        yAxis.setShapeType(ShapeType.LINE);
-        yAxis.setAnchor(new Rectangle(yAxisX, yAxisTop, 0, yAxisBottom - yAxisTop));
-        yAxis.setLineColor(Color.BLACK);
-        yAxis.setLineWidth(2.0);
+        // 绘制Y轴
+        shapes.line(new Rectangle(leftMargin, layout.getTopMargin(), 0, xAxisY - layout.getTopMargin()), 2.0);
 
         // 绘制X轴
-        int xAxisY = yAxisBottom;
-        int xAxisLeft = leftMargin;
-        int xAxisRight = leftMargin + chartWidth;
-
-        XSLFAutoShape xAxis = slide.createAutoShape();
-        xAxis.setShapeType(ShapeType.LINE);
-        xAxis.setAnchor(new Rectangle(xAxisLeft, xAxisY, xAxisRight - xAxisLeft, 0));
-        xAxis.setLineColor(Color.BLACK);
-        xAxis.setLineWidth(2.0);
+        shapes.line(new Rectangle(leftMargin, xAxisY, layout.getAxisRight() - leftMargin, 0), 2.0);
 
         // 绘制设备标签
-        for (Map.Entry<String, Integer> entry : deviceYMap.entrySet()) {
-            String device = entry.getKey();
-            int deviceIndex = entry.getValue();
-            int y = topMargin + deviceIndex * rowHeight + (rowHeight - 30) / 2;
-
-            XSLFTextShape deviceLabel = slide.createTextBox();
-            deviceLabel.setAnchor(new Rectangle(10, y, leftMargin - 20, 30));
-            deviceLabel.setText(device);
-            deviceLabel.setFillColor(null);
-            deviceLabel.setLineColor(null);
-            XSLFTextParagraph para = deviceLabel.getTextParagraphs().get(0);
-            para.setTextAlign(TextParagraph.TextAlign.RIGHT);
-            XSLFTextRun run = para.getTextRuns().get(0);
-            run.setFontSize(device.length() > 9 ? 14.0 - device.length() + 9 : 14.0);
-            run.setFontColor(Color.BLACK);
+        for (int row = 0; row < layout.getRowCount(); row++) {
+            String device = layout.getRowName(row);
+            shapes.label(new Rectangle(10, layout.getRowLabelY(row), leftMargin - 20, 30), device,
+                    TextParagraph.TextAlign.RIGHT, device.length() > 9 ? 14.0 - device.length() + 9 : 14.0);
         }
 
         // 绘制X轴刻度
-        int tickInterval = calculateTickInterval((int) maxEndTime);
-        for (int seconds = 0; seconds <= maxEndTime; seconds += tickInterval) {
-            int x = leftMargin + (int) (seconds * pixelsPerSecond);
-
-            XSLFAutoShape tick = slide.createAutoShape();
-            tick.setShapeType(ShapeType.LINE);
-            tick.setAnchor(new Rectangle(x, xAxisY, 0, 10));
-            tick.setLineColor(Color.BLACK);
-            tick.setLineWidth(1.0);
-
-            XSLFTextShape tickLabel = slide.createTextBox();
-            tickLabel.setAnchor(new Rectangle(x - 20, xAxisY + 15, 40, 25));
-            tickLabel.setText(String.valueOf(seconds));
-            tickLabel.setFillColor(null);
-            tickLabel.setLineColor(null);
-            XSLFTextParagraph para = tickLabel.getTextParagraphs().get(0);
-            para.setTextAlign(TextParagraph.TextAlign.CENTER);
-            XSLFTextRun run = para.getTextRuns().get(0);
-            run.setFontSize(12.0);
-            run.setFontColor(Color.BLACK);
+        int tickCount = layout.getTickCount();
+        boolean tabbed = options.isGanttTabbedTickLabels() && tickCount > 0;
+        for (int tick = 0; tick < tickCount; tick++) {
+            int x = layout.getTickX(tick);
+            shapes.line(new Rectangle(x, xAxisY, 0, 10), 1.0);
+            if (!tabbed) {
+                shapes.label(new Rectangle(x - 20, xAxisY + 15, 40, 25), String.valueOf(layout.getTickValue(tick)),
+                        TextParagraph.TextAlign.CENTER, 12.0);
+            }
+        }
+        if (tabbed) {
+            // 全部刻度标签放入一个文本框，以居中制表位定位
+            int[] tickX = new int[tickCount];
+            String[] values = new String[tickCount];
+            for (int tick = 0; tick < tickCount; tick++) {
+                tickX[tick] = layout.getTickX(tick);
+                values[tick] = String.valueOf(layout.getTickValue(tick));
+            }
+            shapes.tabbedLabels(tickX, values, xAxisY + 15, 25, 20, 12.0);
+        }
+
+        // 绘制任务条，颜色按设备行依次取用
+        int barHeight = layout.getBarHeight();
+        for (int row = 0; row < layout.getRowCount(); row++) {
+            int from = layout.getRowBarStart(row);
+            int to = layout.getRowBarStart(row + 1);
+            Color barColor = ChartData.DEVICE_COLORS[row % ChartData.DEVICE_COLORS.length];
+            XSLFShapeContainer container = slide;
+            if (options.isGanttGroupBarsByRow() && to - from > 1) {
+                // 每行放入一个组合形状
+                int left = Integer.MAX_VALUE;
+                int right = Integer.MIN_VALUE;
+                for (int bar = from; bar < to; bar++) {
+                    left = Math.min(left, layout.getBarX(bar));
+                    right = Math.max(right, layout.getBarX(bar) + layout.getBarWidth(bar));
+                }
+                Rectangle groupBounds = new Rectangle(left, layout.getBarY(from), right - left, barHeight);
+                XSLFGroupShape group = slide.createGroup();
+                // 外部锚点与内部坐标系一致，子形状直接使用幻灯片坐标
+                group.setAnchor(groupBounds);
+                group.setInteriorAnchor(groupBounds);
+                container = group;
+            }
+            for (int bar = from; bar < to; bar++) {
+                createBar(container, layout.getBarX(bar), layout.getBarY(bar), layout.getBarWidth(bar), barHeight,
+                        barColor, options.getGanttBarStyle());
+            }
         }
+    }
 
-        // 绘制任务条
-        for (TrackingDevice d : ganttChartData.getDeviceList()) {
-            int deviceIndex = deviceYMap.get(d.getDeviceName());
-            int y = topMargin + deviceIndex * rowHeight + (rowHeight - barHeight) / 2;
-            double duration = d.getRelativeEndTime() - d.getRelativeStartTime();
-            int x = leftMargin + (int) (d.getRelativeStartTime() * pixelsPerSecond);
-            int width = Math.max(10, (int) (duration * pixelsPerSecond));
-            Color barColor = deviceColorMap.get(d.getDeviceName());
-            createRoundedRectangle(slide, x, y, width, barHeight, barColor);
+    /**
+     * 按指定样式创建任务条
+     */
+    private static void createBar(XSLFShapeContainer container, int x, int y, int width, int height, Color color,
+                                  GanttBarStyle barStyle) {
+        if (barStyle == GanttBarStyle.ROUND_RECT && width >= height) {
+            createRoundRect(container, x, y, width, height, color);
+        } else {
+            createRoundedRectangle(container, x, y, width, height, color);
         }
     }
 
+    /**
+     * 创建单个圆角矩形任务条，圆角半径取高度的一半，外观与矩形 + 两端圆形拼接一致
+     */
+    private static void createRoundRect(XSLFShapeContainer container, int x, int y, int width, int height, Color color) {
+        XSLFAutoShape bar = container.createAutoShape();
+        bar.setShapeType(ShapeType.ROUND_RECT);
+        bar.setAnchor(new Rectangle(x, y, width, height));
+        bar.setFillColor(color);
+        bar.setLineColor(color);
+
+        // 调整值 adj 为圆角半径占短边的比例（单位 1/100000），50000 即半圆端
+        CTPresetGeometry2D prstGeom = ((CTShape) bar.getXmlObject()).getSpPr().getPrstGeom();
+        CTGeomGuideList avLst = prstGeom.isSetAvLst() ? prstGeom.getAvLst() : prstGeom.addNewAvLst();
+        CTGeomGuide adj = avLst.addNewGd();
+        adj.setName("adj");
+        adj.setFmla("val 50000");
+    }
+
     /**
      * 创建带有圆角的矩形任务条
      */
-    private static void createRoundedRectangle(XSLFSlide slide, int x, int y, int width, int height, Color color) {
+    private static void createRoundedRectangle(XSLFShapeContainer container, int x, int y, int width, int height, Color color) {
         if (width < height) {
-            XSLFAutoShape circle = slide.createAutoShape();
+            XSLFAutoShape circle = container.createAutoShape();
             circle.setShapeType(ShapeType.ELLIPSE);
             circle.setAnchor(new Rectangle(x, y, height, height));
             circle.setFillColor(color);
@@ -206,19 +358,19 @@ public class GanttChartPptUtil {
 
         int radius = height / 2;
 
-        XSLFAutoShape mainRect = slide.createAutoShape();
+        XSLFAutoShape mainRect = container.createAutoShape();
         mainRect.setShapeType(ShapeType.RECT);
         mainRect.setAnchor(new Rectangle(x + radius, y, width - 2 * radius, height));
         mainRect.setFillColor(color);
         mainRect.setLineColor(color);
 
-        XSLFAutoShape leftCircle = slide.createAutoShape();
+        XSLFAutoShape leftCircle = container.createAutoShape();
         leftCircle.setShapeType(ShapeType.ELLIPSE);
         leftCircle.setAnchor(new Rectangle(x, y, height, height));
         leftCircle.setFillColor(color);
         leftCircle.setLineColor(color);
 
-        XSLFAutoShape rightCircle = slide.createAutoShape();
+        XSLFAutoShape rightCircle = container.createAutoShape();
         rightCircle.setShapeType(ShapeType.ELLIPSE);
         rightCircle.setAnchor(new Rectangle(x + width - height, y, height, height));
         rightCircle.setFillColor(color);
@@ -226,44 +378,19 @@ public class GanttChartPptUtil {
     }
 
     /**
-     * 计算刻度间隔值
+     * 随机生成跟踪设备列表
      */
-    private static int calculateTickInterval(int maxTime) {
-        if (maxTime == 0) return 10;
-        int[] intervals = {1, 2, 5, 10, 15, 20, 30, 60, 120, 300, 600, 1200, 1800, 3600};
-        int targetTicks = 10;
-        for (int interval : intervals) {
-            if (maxTime / interval <= targetTicks) {
-                return interval;
-            }
-        }
-        int fallback = maxTime / targetTicks;
-        int magnitude = (int) Math.pow(10, Math.floor(Math.log10(fallback)));
-        return ((fallback / magnitude) + 1) * magnitude;
+    public static List<TrackingDevice> generateTrackingDevices(int count) {
+        return generateTrackingDevices(count, ThreadLocalRandom.current().nextLong());
     }
 
     /**
-     * 随机生成跟踪设备列表
+     * 按种子生成跟踪设备列表，相同种子总是生成相同的数据；设备数超过预设名称数时名称追加轮次后缀，不会重复
+     *
+     * @param count 设备数
+     * @param seed  随机种子
      */
-    public static List<TrackingDevice> generateTrackingDevices(int count) {
-        List<TrackingDevice> result = new ArrayList<>();
-        Set<String> used = new HashSet<>();
-        Random rand = new Random();
-
-        for (int i = 0; i < count; i++) {
-            String name;
-            do {
-                name = ChartData.AEROSPACE_TRACKING_TERMS[rand.nextInt(ChartData.AEROSPACE_TRACKING_TERMS.length)];
-            } while (used.contains(name));
-            used.add(name);
-
-            double start = ThreadLocalRandom.current().nextDouble(0, 60);
-            double duration = ThreadLocalRandom.current().nextDouble(5, 30);
-            double end = Math.min(start + duration, 100);
-
-            result.add(new TrackingDevice(name, start, end));
-        }
-
-        return result;
+    public static List<TrackingDevice> generateTrackingDevices(int count, long seed) {
+        return new SyntheticDataGenerator(seed).trackingDevices(count);
     }
 }
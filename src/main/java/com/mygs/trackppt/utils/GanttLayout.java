@@ -0,0 +1,170 @@
+package com.mygs.trackppt.utils;
+
+/**
+ * 甘特图布局结果（不可变）
+ * 由 GanttLayoutEngine 根据甘特图数据计算得出，只包含原始类型数组形式的坐标：
+ * 坐标轴、设备行标签、刻度位置与任务条的 x/y/宽度。任务条按设备行连续存放，
+ * 第 row 行的任务条下标为 [getRowBarStart(row), getRowBarStart(row + 1))。
+ * 实例创建后不再修改，可在线程间共享并缓存复用，渲染时只需按下标遍历。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public final class GanttLayout {
+
+    private final String title;
+
+    private final int titleWidth;
+
+    private final int leftMargin;
+
+    private final int topMargin;
+
+    private final int axisBottom;
+
+    private final int axisRight;
+
+    private final int rowHeight;
+
+    private final int barHeight;
+
+    private final String[] rowNames;
+
+    private final int[] rowLabelY;
+
+    private final int[] rowBarStart;
+
+    private final int[] tickX;
+
+    private final int[] tickValue;
+
+    private final int[] barX;
+
+    private final int[] barY;
+
+    private final int[] barWidth;
+
+    /**
+     * 由 GanttLayoutEngine 创建，数组由调用方移交，不再修改
+     */
+    GanttLayout(String title, int titleWidth, int leftMargin, int topMargin, int axisBottom, int axisRight,
+                int rowHeight, int barHeight, String[] rowNames, int[] rowLabelY, int[] rowBarStart,
+                int[] tickX, int[] tickValue, int[] barX, int[] barY, int[] barWidth) {
+        this.title = title;
+        this.titleWidth = titleWidth;
+        this.leftMargin = leftMargin;
+        this.topMargin = topMargin;
+        this.axisBottom = axisBottom;
+        this.axisRight = axisRight;
+        this.rowHeight = rowHeight;
+        this.barHeight = barHeight;
+        this.rowNames = rowNames;
+        this.rowLabelY = rowLabelY;
+        this.rowBarStart = rowBarStart;
+        this.tickX = tickX;
+        this.tickValue = tickValue;
+        this.barX = barX;
+        this.barY = barY;
+        this.barWidth = barWidth;
+    }
+
+    /**
+     * 图表标题，为空时不绘制
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    public int getTitleWidth() {
+        return titleWidth;
+    }
+
+    /**
+     * 绘图区左边界，即 Y 轴的 x 坐标
+     */
+    public int getLeftMargin() {
+        return leftMargin;
+    }
+
+    /**
+     * 绘图区上边界，即 Y 轴顶端的 y 坐标
+     */
+    public int getTopMargin() {
+        return topMargin;
+    }
+
+    /**
+     * Y 轴底端，即 X 轴的 y 坐标
+     */
+    public int getAxisBottom() {
+        return axisBottom;
+    }
+
+    /**
+     * X 轴右端的 x 坐标
+     */
+    public int getAxisRight() {
+        return axisRight;
+    }
+
+    public int getRowHeight() {
+        return rowHeight;
+    }
+
+    public int getBarHeight() {
+        return barHeight;
+    }
+
+    public int getRowCount() {
+        return rowNames.length;
+    }
+
+    public String getRowName(int row) {
+        return rowNames[row];
+    }
+
+    /**
+     * 设备标签文本框的 y 坐标
+     */
+    public int getRowLabelY(int row) {
+        return rowLabelY[row];
+    }
+
+    /**
+     * 第 row 行第一个任务条的下标，row 取 getRowCount() 时返回任务条总数
+     */
+    public int getRowBarStart(int row) {
+        return rowBarStart[row];
+    }
+
+    public int getTickCount() {
+        return tickX.length;
+    }
+
+    public int getTickX(int tick) {
+        return tickX[tick];
+    }
+
+    /**
+     * 刻度值（秒）
+     */
+    public int getTickValue(int tick) {
+        return tickValue[tick];
+    }
+
+    public int getBarCount() {
+        return barX.length;
+    }
+
+    public int getBarX(int bar) {
+        return barX[bar];
+    }
+
+    public int getBarY(int bar) {
+        return barY[bar];
+    }
+
+    public int getBarWidth(int bar) {
+        return barWidth[bar];
+    }
+}
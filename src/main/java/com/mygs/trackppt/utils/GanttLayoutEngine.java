@@ -0,0 +1,369 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.TrackingDevice;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 甘特图布局计算工具类
+ * 将甘特图数据转换为不可变的 GanttLayout（边距、像素比例、设备行、刻度与任务条坐标），不依赖 POI，
+ * 计算过程无副作用、线程安全。开启 ChartGenerateOptions.ganttLayoutCache 时，相同输入（标题、设备时间段、合并选项）
+ * 的布局结果按内容缓存（LRU），重复渲染同一份数据时直接复用；默认不缓存，一次性渲染不必复制输入、计算哈希，
+ * 也不会让大型时间线常驻内存。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class GanttLayoutEngine {
+
+    /** 默认最多缓存的布局数量 */
+    public static final int DEFAULT_MAX_ENTRIES = 128;
+
+    static final int SLIDE_TOTAL_WIDTH = 1280;
+    static final int SLIDE_WIDTH = 1080;
+    static final int HORIZONTAL_OFFSET = (SLIDE_TOTAL_WIDTH - SLIDE_WIDTH) / 2;
+    static final int LEFT_MARGIN = 80 + HORIZONTAL_OFFSET;
+    static final int RIGHT_MARGIN = 40 + HORIZONTAL_OFFSET;
+    static final int INITIAL_SLIDE_HEIGHT = 270;
+    static final int TOP_MARGIN = 50;
+    static final int BOTTOM_MARGIN = 0;
+    static final int AXIS_AREA_HEIGHT = 30;
+    static final int BAR_PADDING = 4;
+    static final int MIN_BAR_WIDTH = 10;
+    static final int LABEL_HEIGHT = 30;
+
+    /** 布局输入 -> 布局结果，按访问顺序排列，用于LRU淘汰 */
+    private static final Map<LayoutKey, GanttLayout> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final AtomicLong HIT_COUNT = new AtomicLong();
+    private static final AtomicLong MISS_COUNT = new AtomicLong();
+
+    private static int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private GanttLayoutEngine() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 获取甘特图布局，开启布局缓存时相同输入的布局结果从缓存中复用，否则直接计算
+     *
+     * @param ganttChartData 甘特图数据
+     * @param options        生成选项（任务条合并、布局缓存）
+     * @return 不可变的布局结果
+     */
+    public static GanttLayout layout(GanttChartData ganttChartData, ChartGenerateOptions options) {
+        if (!options.isGanttLayoutCache()) {
+            return compute(ganttChartData, options);
+        }
+        LayoutKey key = new LayoutKey(ganttChartData, options);
+        synchronized (CACHE) {
+            GanttLayout cached = CACHE.get(key);
+            if (cached != null) {
+                HIT_COUNT.incrementAndGet();
+                return cached;
+            }
+        }
+        MISS_COUNT.incrementAndGet();
+        // 在锁外计算，相同输入并发计算的结果等价，后写入者覆盖即可
+        GanttLayout layout = compute(key.title, key.names, key.starts, key.ends, key.mergeIntervals, key.mergeGapPx);
+        synchronized (CACHE) {
+            CACHE.put(key, layout);
+            evictIfNecessary();
+        }
+        return layout;
+    }
+
+    /**
+     * 计算甘特图布局（不使用缓存）
+     *
+     * @param ganttChartData 甘特图数据
+     * @param options        生成选项（任务条合并）
+     * @return 不可变的布局结果
+     */
+    public static GanttLayout compute(GanttChartData ganttChartData, ChartGenerateOptions options) {
+        LayoutKey key = new LayoutKey(ganttChartData, options);
+        return compute(key.title, key.names, key.starts, key.ends, key.mergeIntervals, key.mergeGapPx);
+    }
+
+    private static GanttLayout compute(String title, String[] names, double[] starts, double[] ends,
+                                       boolean mergeIntervals, int mergeGapPx) {
+        int chartWidth = SLIDE_WIDTH - LEFT_MARGIN - RIGHT_MARGIN;
+        int chartHeight = INITIAL_SLIDE_HEIGHT - TOP_MARGIN - BOTTOM_MARGIN;
+        int count = names.length;
+
+        double maxEndTime = 0;
+        for (double end : ends) {
+            maxEndTime = Math.max(maxEndTime, end);
+        }
+        if (maxEndTime == 0) maxEndTime = 60;
+        double pixelsPerSecond = (double) chartWidth / maxEndTime;
+
+        // 设备行：按首次出现顺序编号
+        Map<String, Integer> rowIndex = new LinkedHashMap<>();
+        int[] deviceRow = new int[count];
+        for (int i = 0; i < count; i++) {
+            Integer row = rowIndex.get(names[i]);
+            if (row == null) {
+                row = rowIndex.size();
+                rowIndex.put(names[i], row);
+            }
+            deviceRow[i] = row;
+        }
+        int rows = rowIndex.size();
+        String[] rowNames = rowIndex.keySet().toArray(new String[0]);
+
+        int availableHeight = chartHeight - AXIS_AREA_HEIGHT;
+        int rowHeight = availableHeight / Math.max(rows, 1);
+        int barHeight = Math.min(4, rowHeight - BAR_PADDING);
+        int axisBottom = TOP_MARGIN + chartHeight - AXIS_AREA_HEIGHT;
+
+        int[] rowLabelY = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            rowLabelY[row] = TOP_MARGIN + row * rowHeight + (rowHeight - LABEL_HEIGHT) / 2;
+        }
+
+        // 刻度
+        int tickInterval = calculateTickInterval((int) maxEndTime);
+        int ticks = (int) (maxEndTime / tickInterval) + 1;
+        int[] tickX = new int[ticks];
+        int[] tickValue = new int[ticks];
+        for (int tick = 0; tick < ticks; tick++) {
+            int seconds = tick * tickInterval;
+            tickValue[tick] = seconds;
+            tickX[tick] = LEFT_MARGIN + (int) (seconds * pixelsPerSecond);
+        }
+
+        // 任务条按行计数排序（稳定），同一行内保持数据顺序
+        int[] rowBarStart = new int[rows + 1];
+        for (int i = 0; i < count; i++) {
+            rowBarStart[deviceRow[i] + 1]++;
+        }
+        for (int row = 0; row < rows; row++) {
+            rowBarStart[row + 1] += rowBarStart[row];
+        }
+        int[] barX = new int[count];
+        int[] barWidth = new int[count];
+        int[] next = Arrays.copyOf(rowBarStart, rows);
+        for (int i = 0; i < count; i++) {
+            int slot = next[deviceRow[i]]++;
+            barX[slot] = LEFT_MARGIN + (int) (starts[i] * pixelsPerSecond);
+            barWidth[slot] = Math.max(MIN_BAR_WIDTH, (int) ((ends[i] - starts[i]) * pixelsPerSecond));
+        }
+
+        // 合并重叠或间距过小的任务条，剔除不可见的任务条，形状数量只与图表宽度相关
+        int bars = count;
+        if (mergeIntervals) {
+            bars = mergeRows(barX, barWidth, rowBarStart, mergeGapPx, 0, SLIDE_TOTAL_WIDTH);
+            barX = Arrays.copyOf(barX, bars);
+            barWidth = Arrays.copyOf(barWidth, bars);
+        }
+
+        int[] barY = new int[bars];
+        for (int row = 0; row < rows; row++) {
+            int y = TOP_MARGIN + row * rowHeight + (rowHeight - barHeight) / 2;
+            Arrays.fill(barY, rowBarStart[row], rowBarStart[row + 1], y);
+        }
+
+        return new GanttLayout(title, SLIDE_WIDTH, LEFT_MARGIN, TOP_MARGIN, axisBottom, LEFT_MARGIN + chartWidth,
+                rowHeight, barHeight, rowNames, rowLabelY, rowBarStart, tickX, tickValue, barX, barY, barWidth);
+    }
+
+    /**
+     * 逐行合并任务条：按起点排序后，将重叠或间距不超过 gapPx 像素的任务条合并为一个，
+     * 并剔除完全落在 [visibleLeft, visibleRight) 之外的任务条。结果原地压缩到数组前部，rowBarStart 同步更新
+     *
+     * @return 合并后的任务条总数
+     */
+    static int mergeRows(int[] barX, int[] barWidth, int[] rowBarStart, int gapPx, int visibleLeft, int visibleRight) {
+        int rows = rowBarStart.length - 1;
+        int write = 0;
+        long[] packed = new long[0];
+        for (int row = 0; row < rows; row++) {
+            int from = rowBarStart[row];
+            int to = rowBarStart[row + 1];
+            rowBarStart[row] = write;
+            int n = to - from;
+            if (packed.length < n) {
+                packed = new long[n];
+            }
+            // 高32位为起点、低32位为宽度，按起点排序且不装箱
+            for (int i = 0; i < n; i++) {
+                packed[i] = ((long) barX[from + i] << 32) | (barWidth[from + i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed, 0, n);
+
+            int currentX = 0;
+            int currentRight = 0;
+            boolean open = false;
+            for (int i = 0; i < n; i++) {
+                int x = (int) (packed[i] >> 32);
+                int right = x + (int) packed[i];
+                if (right <= visibleLeft || x >= visibleRight) {
+                    continue;
+                }
+                if (open && x <= currentRight + gapPx) {
+                    currentRight = Math.max(currentRight, right);
+                } else {
+                    if (open) {
+                        barX[write] = currentX;
+                        barWidth[write++] = currentRight - currentX;
+                    }
+                    currentX = x;
+                    currentRight = right;
+                    open = true;
+                }
+            }
+            if (open) {
+                barX[write] = currentX;
+                barWidth[write++] = currentRight - currentX;
+            }
+        }
+        rowBarStart[rows] = write;
+        return write;
+    }
+
+    /**
+     * 计算刻度间隔值
+     */
+    static int calculateTickInterval(int maxTime) {
+        if (maxTime == 0) return 10;
+        int[] intervals = {1, 2, 5, 10, 15, 20, 30, 60, 120, 300, 600, 1200, 1800, 3600};
+        int targetTicks = 10;
+        for (int interval : intervals) {
+            if (maxTime / interval <= targetTicks) {
+                return interval;
+            }
+        }
+        int fallback = maxTime / targetTicks;
+        int magnitude = (int) Math.pow(10, Math.floor(Math.log10(fallback)));
+        return ((fallback / magnitude) + 1) * magnitude;
+    }
+
+    /**
+     * 设置最多缓存的布局数量，超出时按最近最少使用顺序淘汰
+     */
+    public static void setMaxEntries(int newMaxEntries) {
+        if (newMaxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative: " + newMaxEntries);
+        }
+        synchronized (CACHE) {
+            maxEntries = newMaxEntries;
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * 清空缓存及计数器
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+        HIT_COUNT.set(0);
+        MISS_COUNT.set(0);
+    }
+
+    public static long getHitCount() {
+        return HIT_COUNT.get();
+    }
+
+    public static long getMissCount() {
+        return MISS_COUNT.get();
+    }
+
+    /**
+     * 当前缓存的布局数量
+     */
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    private static void evictIfNecessary() {
+        Iterator<GanttLayout> it = CACHE.values().iterator();
+        while (CACHE.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * 布局输入的快照：复制设备时间段为原始类型数组，数据对象之后被修改不影响已缓存的布局；
+     * 哈希值在首次放入缓存时计算，不使用缓存的直接计算不承担这部分开销
+     */
+    private static final class LayoutKey {
+
+        final String title;
+
+        final String[] names;
+
+        final double[] starts;
+
+        final double[] ends;
+
+        final boolean mergeIntervals;
+
+        final int mergeGapPx;
+
+        private int hash;
+
+        LayoutKey(GanttChartData ganttChartData, ChartGenerateOptions options) {
+            List<TrackingDevice> devices = ganttChartData.getDeviceList() == null
+                    ? Collections.<TrackingDevice>emptyList() : ganttChartData.getDeviceList();
+            int count = devices.size();
+            this.title = ganttChartData.getTitle();
+            this.names = new String[count];
+            this.starts = new double[count];
+            this.ends = new double[count];
+            for (int i = 0; i < count; i++) {
+                TrackingDevice d = devices.get(i);
+                names[i] = d.getDeviceName();
+                starts[i] = d.getRelativeStartTime();
+                ends[i] = d.getRelativeEndTime();
+            }
+            this.mergeIntervals = options.isGanttMergeIntervals();
+            this.mergeGapPx = mergeIntervals ? options.getGanttMergeGapPx() : 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LayoutKey)) {
+                return false;
+            }
+            LayoutKey other = (LayoutKey) o;
+            return hashCode() == other.hashCode()
+                    && mergeIntervals == other.mergeIntervals
+                    && mergeGapPx == other.mergeGapPx
+                    && Objects.equals(title, other.title)
+                    && Arrays.equals(starts, other.starts)
+                    && Arrays.equals(ends, other.ends)
+                    && Arrays.equals(names, other.names);
+        }
+
+        @Override
+        public int hashCode() {
+            if (hash == 0) {
+                int h = Objects.hashCode(title);
+                h = 31 * h + Arrays.hashCode(names);
+                h = 31 * h + Arrays.hashCode(starts);
+                h = 31 * h + Arrays.hashCode(ends);
+                h = 31 * h + (mergeIntervals ? 1 : 0);
+                hash = 31 * h + mergeGapPx;
+            }
+            return hash;
+        }
+    }
+}
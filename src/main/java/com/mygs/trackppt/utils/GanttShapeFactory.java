@@ -0,0 +1,180 @@
+package com.mygs.trackppt.utils;
+
+import org.apache.poi.sl.usermodel.ShapeType;
+import org.apache.poi.sl.usermodel.TabStop;
+import org.apache.poi.sl.usermodel.TextParagraph;
+import org.apache.poi.xslf.usermodel.*;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTRegularTextRun;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTShapeProperties;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTTextCharacterProperties;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTTextParagraph;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTTextParagraphProperties;
+import org.openxmlformats.schemas.presentationml.x2006.main.CTShape;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 甘特图样式形状工厂
+ * 每种样式的第一个形状通过 POI 的属性方法设置样式，随后保存其形状属性、段落属性与文本属性作为原型；
+ * 同样式的后续形状直接复制原型 XML，不再逐个调用属性方法（每次调用都会查找并修改 XML 节点）。
+ * 只替换 POI 形状对象不缓存的子节点（spPr、pPr、rPr），形状、段落与文本对象仍与 XML 保持一致。
+ * 实例只用于一张幻灯片的一次绘制，不是线程安全的。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+final class GanttShapeFactory {
+
+    private static final Color TEXT_COLOR = Color.BLACK;
+
+    private static final Color LINE_COLOR = Color.BLACK;
+
+    private final XSLFShapeContainer container;
+
+    /** 线宽 -> 直线形状属性原型 */
+    private final Map<Double, CTShapeProperties> linePrototypes = new HashMap<>();
+
+    /** 对齐方式 -> 文本框原型 */
+    private final Map<TextParagraph.TextAlign, TextPrototype> textPrototypes = new HashMap<>();
+
+    GanttShapeFactory(XSLFShapeContainer container) {
+        this.container = container;
+    }
+
+    /**
+     * 创建黑色直线（坐标轴、刻度线）
+     *
+     * @param anchor    位置，宽或高为 0
+     * @param lineWidth 线宽（磅）
+     */
+    XSLFAutoShape line(Rectangle anchor, double lineWidth) {
+        XSLFAutoShape line = container.createAutoShape();
+        CTShapeProperties prototype = linePrototypes.get(lineWidth);
+        if (prototype == null) {
+            line.setShapeType(ShapeType.LINE);
+            line.setLineColor(LINE_COLOR);
+            line.setLineWidth(lineWidth);
+            linePrototypes.put(lineWidth, (CTShapeProperties) spPr(line).copy());
+        } else {
+            spPr(line).set(prototype);
+        }
+        line.setAnchor(anchor);
+        return line;
+    }
+
+    /**
+     * 创建无填充、无边框的单行黑色文本框（设备标签、刻度标签）
+     *
+     * @param anchor   位置
+     * @param text     文本
+     * @param align    对齐方式
+     * @param fontSize 字号（磅）
+     */
+    XSLFTextBox label(Rectangle anchor, String text, TextParagraph.TextAlign align, double fontSize) {
+        XSLFTextBox label = container.createTextBox();
+        TextPrototype prototype = textPrototypes.get(align);
+        if (prototype == null) {
+            label.setText(text);
+            label.setFillColor(null);
+            label.setLineColor(null);
+            XSLFTextParagraph para = label.getTextParagraphs().get(0);
+            para.setTextAlign(align);
+            XSLFTextRun run = para.getTextRuns().get(0);
+            run.setFontSize(fontSize);
+            run.setFontColor(TEXT_COLOR);
+            textPrototypes.put(align, new TextPrototype(label));
+        } else {
+            prototype.applyTo(label, text, fontSize);
+        }
+        label.setAnchor(anchor);
+        return label;
+    }
+
+    /**
+     * 创建一个包含整行刻度标签的文本框：每个标签前放一个居中制表位，制表位位于对应刻度的 x 坐标，
+     * 一行刻度只需一个形状
+     *
+     * @param tickX    刻度 x 坐标（递增）
+     * @param values   刻度标签
+     * @param y        文本框 y 坐标
+     * @param height   文本框高度
+     * @param padding  文本框在首尾刻度外侧留出的宽度
+     * @param fontSize 字号（磅）
+     */
+    XSLFTextBox tabbedLabels(int[] tickX, String[] values, int y, int height, int padding, double fontSize) {
+        int left = tickX[0] - padding;
+        int right = tickX[tickX.length - 1] + padding;
+        XSLFTextBox labels = container.createTextBox();
+        labels.setFillColor(null);
+        labels.setLineColor(null);
+        labels.setLeftInset(0);
+        labels.setRightInset(0);
+        labels.setWordWrap(false);
+        labels.setAnchor(new Rectangle(left, y, right - left, height));
+
+        XSLFTextParagraph para = labels.getTextParagraphs().get(0);
+        StringBuilder text = new StringBuilder(values.length * 6);
+        for (int i = 0; i < tickX.length; i++) {
+            para.addTabStops(tickX[i] - left, TabStop.TabStopType.CENTER);
+            text.append('\t').append(values[i]);
+        }
+        XSLFTextRun run = para.getTextRuns().get(0);
+        run.setText(text.toString());
+        run.setFontSize(fontSize);
+        run.setFontColor(TEXT_COLOR);
+        return labels;
+    }
+
+    private static CTShapeProperties spPr(XSLFSimpleShape shape) {
+        return ((CTShape) shape.getXmlObject()).getSpPr();
+    }
+
+    /**
+     * 文本框原型：形状属性、段落属性、文本属性与段落结束属性
+     */
+    private static final class TextPrototype {
+
+        private final CTShapeProperties spPr;
+
+        private final CTTextParagraphProperties pPr;
+
+        private final CTTextCharacterProperties rPr;
+
+        private final CTTextCharacterProperties endParaRPr;
+
+        private final double fontSize;
+
+        private TextPrototype(XSLFTextBox label) {
+            XSLFTextParagraph para = label.getTextParagraphs().get(0);
+            CTTextParagraph p = para.getXmlObject();
+            spPr = (CTShapeProperties) spPr(label).copy();
+            pPr = (CTTextParagraphProperties) p.getPPr().copy();
+            XSLFTextRun run = para.getTextRuns().get(0);
+            rPr = (CTTextCharacterProperties) ((CTRegularTextRun) run.getXmlObject()).getRPr().copy();
+            endParaRPr = p.isSetEndParaRPr() ? (CTTextCharacterProperties) p.getEndParaRPr().copy() : null;
+            fontSize = run.getFontSize();
+        }
+
+        /**
+         * 新建的文本框自带一个段落与一个空文本，直接替换其属性节点并写入文本
+         */
+        private void applyTo(XSLFTextBox label, String text, double size) {
+            spPr(label).set(spPr);
+            CTTextParagraph p = label.getTextParagraphs().get(0).getXmlObject();
+            p.setPPr(pPr);
+            CTRegularTextRun r = p.getRArray(0);
+            r.setRPr(rPr);
+            if (size != fontSize) {
+                r.getRPr().setSz((int) Math.round(size * 100));
+            }
+            r.setT(text);
+            if (endParaRPr != null) {
+                p.setEndParaRPr(endParaRPr);
+            } else if (p.isSetEndParaRPr()) {
+                p.unsetEndParaRPr();
+            }
+        }
+    }
+}
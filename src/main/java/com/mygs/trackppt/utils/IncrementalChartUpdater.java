@@ -0,0 +1,389 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ChartUpdate;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.poi.ooxml.POIXMLTypeLoader;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.util.AreaReference;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.IOUtils;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.drawingml.x2006.chart.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.namespace.QName;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+
+/**
+ * 图表增量更新工具类
+ * 打开已生成的PPT，只修改发生变化的系列或分类：解析目标图表部件并更新图表缓存，
+ * 在嵌入工作簿中流式替换对应单元格，其余部件（幻灯片、图片、其他图表等）按原始压缩数据直接复制，
+ * 不经过 XMLSlideShow 的完整解析与重新序列化。
+ * <p>
+ * 适用于数据点数量不变、只有部分数值变化的重复生成场景；点数变化时请重新完整生成。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class IncrementalChartUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalChartUpdater.class);
+
+    /** 图表到嵌入工作簿的关系类型后缀 */
+    private static final String PACKAGE_REL_SUFFIX = "/package";
+
+    private static final QName SER = new QName(EmbeddedSheetWriter.CHART_NAMESPACE, "ser");
+
+    private IncrementalChartUpdater() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 增量更新PPT文件中的图表并写入输出流
+     *
+     * @param deck    已生成的PPT文件
+     * @param out     输出流，由调用方负责关闭
+     * @param updates 各图表的更新内容
+     * @throws IOException 读取、解析或写出失败
+     */
+    public static void update(File deck, OutputStream out, List<ChartUpdate> updates) throws IOException {
+        try (ZipFile zip = new ZipFile(deck)) {
+            update(zip, out, updates);
+        }
+    }
+
+    /**
+     * 增量更新PPT中的图表并写入输出流
+     *
+     * @param deck    已生成的PPT内容
+     * @param out     输出流，由调用方负责关闭
+     * @param updates 各图表的更新内容
+     * @throws IOException 读取、解析或写出失败
+     */
+    public static void update(byte[] deck, OutputStream out, List<ChartUpdate> updates) throws IOException {
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(deck))) {
+            update(zip, out, updates);
+        }
+    }
+
+    /**
+     * 增量更新PPT中的图表并写入输出流，输入流整体读入内存后处理
+     *
+     * @param deck    已生成的PPT输入流，由调用方负责关闭
+     * @param out     输出流，由调用方负责关闭
+     * @param updates 各图表的更新内容
+     * @throws IOException 读取、解析或写出失败
+     */
+    public static void update(InputStream deck, OutputStream out, List<ChartUpdate> updates) throws IOException {
+        update(IOUtils.toByteArray(deck), out, updates);
+    }
+
+    private static void update(ZipFile zip, OutputStream out, List<ChartUpdate> updates) throws IOException {
+        long startNanos = System.nanoTime();
+        Map<String, byte[]> replaced = new HashMap<>();
+        // 嵌入工作簿路径 -> 工作表名称 -> 行 -> 列 -> 新数值
+        Map<String, Map<String, NavigableMap<Integer, NavigableMap<Integer, Double>>>> workbookEdits = new LinkedHashMap<>();
+        int cellCount = 0;
+
+        for (ChartUpdate update : updates) {
+            String chartEntry = entryName(update.getChartPartName());
+            ChartSpaceDocument document = parseChart(zip, chartEntry);
+            Map<String, NavigableMap<Integer, NavigableMap<Integer, Double>>> edits = new HashMap<>();
+            cellCount += applyUpdate(document.getChartSpace(), update, edits);
+            replaced.put(chartEntry, serialize(document));
+            if (edits.isEmpty()) {
+                continue;
+            }
+            String embedding = EmbeddedSheetPatcher.relationshipTargetByType(zip, relsEntryName(chartEntry),
+                    "/" + chartEntry, PACKAGE_REL_SUFFIX);
+            if (embedding == null) {
+                logger.warn("图表{}没有嵌入工作簿，只更新图表缓存", update.getChartPartName());
+                continue;
+            }
+            Map<String, NavigableMap<Integer, NavigableMap<Integer, Double>>> sheets =
+                    workbookEdits.computeIfAbsent(embedding, k -> new HashMap<>());
+            for (Map.Entry<String, NavigableMap<Integer, NavigableMap<Integer, Double>>> sheet : edits.entrySet()) {
+                NavigableMap<Integer, NavigableMap<Integer, Double>> rows =
+                        sheets.computeIfAbsent(sheet.getKey(), k -> new TreeMap<>());
+                for (Map.Entry<Integer, NavigableMap<Integer, Double>> row : sheet.getValue().entrySet()) {
+                    rows.computeIfAbsent(row.getKey(), k -> new TreeMap<>()).putAll(row.getValue());
+                }
+            }
+        }
+        for (Map.Entry<String, Map<String, NavigableMap<Integer, NavigableMap<Integer, Double>>>> e : workbookEdits.entrySet()) {
+            replaced.put(e.getKey(), EmbeddedSheetPatcher.patch(EmbeddedSheetPatcher.readEntry(zip, e.getKey()), e.getValue()));
+        }
+
+        int copied = 0;
+        CountingOutputStream counting = new CountingOutputStream(out);
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(counting)) {
+            Enumeration<ZipArchiveEntry> entries = zip.getEntriesInPhysicalOrder();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry entry = entries.nextElement();
+                byte[] content = replaced.get(entry.getName());
+                if (content == null) {
+                    // 未修改的部件直接复制压缩数据，不解压也不重新压缩
+                    zos.addRawArchiveEntry(entry, zip.getRawInputStream(entry));
+                    copied++;
+                    continue;
+                }
+                ZipArchiveEntry modified = new ZipArchiveEntry(entry.getName());
+                modified.setMethod(ZipEntry.DEFLATED);
+                zos.putArchiveEntry(modified);
+                zos.write(content);
+                zos.closeArchiveEntry();
+            }
+        }
+        logger.info("图表增量更新完成 [图表={}, 单元格={}, 修改部件={}, 原样复制部件={}, 输出={}字节, 总耗时={}ms]",
+                updates.size(), cellCount, replaced.size(), copied, counting.getCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * 将更新内容写入图表缓存，并记录需要同步修改的工作簿单元格
+     *
+     * @return 修改的数据点数量
+     */
+    private static int applyUpdate(CTChartSpace chartSpace, ChartUpdate update,
+                                   Map<String, NavigableMap<Integer, NavigableMap<Integer, Double>>> edits) {
+        List<XmlObject> series = listSeries(chartSpace.getChart().getPlotArea());
+        int changed = 0;
+        if (update.getSeriesValues() != null) {
+            for (Map.Entry<Integer, double[]> e : update.getSeriesValues().entrySet()) {
+                int index = e.getKey();
+                if (index < 0 || index >= series.size()) {
+                    throw new IllegalArgumentException("系列序号超出范围: " + index + "，图表共有 " + series.size() + " 个系列");
+                }
+                CTNumDataSource values = valuesOf(series.get(index));
+                double[] newValues = e.getValue();
+                CTNumData cache = numberCache(values);
+                if (cache.isSetPtCount() && cache.getPtCount().getVal() != newValues.length) {
+                    throw new IllegalArgumentException("系列 " + index + " 的点数由 " + cache.getPtCount().getVal()
+                            + " 变为 " + newValues.length + "，请重新完整生成");
+                }
+                Map<Long, CTNumVal> points = pointsByIndex(cache);
+                CellReference[] cells = referencedCells(values);
+                for (int i = 0; i < newValues.length; i++) {
+                    setPoint(cache, points, cells, i, newValues[i], edits);
+                    changed++;
+                }
+            }
+        }
+        if (update.getCategoryValues() != null && !update.getCategoryValues().isEmpty()) {
+            if (series.isEmpty()) {
+                throw new IllegalArgumentException("图表没有系列: " + update.getChartPartName());
+            }
+            XmlObject first = series.get(0);
+            Map<String, Integer> categoryIndex = categoryIndex(categoriesOf(first));
+            CTNumDataSource values = valuesOf(first);
+            CTNumData cache = numberCache(values);
+            Map<Long, CTNumVal> points = pointsByIndex(cache);
+            CellReference[] cells = referencedCells(values);
+            for (Map.Entry<String, Double> e : update.getCategoryValues().entrySet()) {
+                Integer index = categoryIndex.get(e.getKey());
+                if (index == null) {
+                    throw new IllegalArgumentException("分类不存在: " + e.getKey());
+                }
+                setPoint(cache, points, cells, index, e.getValue() == null ? Double.NaN : e.getValue(), edits);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 按文档顺序列出绘图区中所有图表类型的系列
+     */
+    private static List<XmlObject> listSeries(CTPlotArea plotArea) {
+        List<XmlObject> series = new ArrayList<>();
+        XmlCursor cursor = plotArea.newCursor();
+        try {
+            for (boolean more = cursor.toFirstChild(); more; more = cursor.toNextSibling()) {
+                XmlCursor child = cursor.newCursor();
+                try {
+                    for (boolean found = child.toChild(SER); found; found = child.toNextSibling(SER)) {
+                        series.add(child.getObject());
+                    }
+                } finally {
+                    child.dispose();
+                }
+            }
+        } finally {
+            cursor.dispose();
+        }
+        return series;
+    }
+
+    private static CTNumDataSource valuesOf(XmlObject series) {
+        CTNumDataSource values = null;
+        if (series instanceof CTScatterSer) {
+            values = ((CTScatterSer) series).getYVal();
+        } else if (series instanceof CTLineSer) {
+            values = ((CTLineSer) series).getVal();
+        } else if (series instanceof CTBarSer) {
+            values = ((CTBarSer) series).getVal();
+        } else if (series instanceof CTAreaSer) {
+            values = ((CTAreaSer) series).getVal();
+        } else if (series instanceof CTPieSer) {
+            values = ((CTPieSer) series).getVal();
+        }
+        if (values == null) {
+            throw new IllegalArgumentException("不支持的系列类型: " + series.schemaType().getName());
+        }
+        return values;
+    }
+
+    private static CTAxDataSource categoriesOf(XmlObject series) {
+        if (series instanceof CTScatterSer) {
+            return ((CTScatterSer) series).getXVal();
+        } else if (series instanceof CTLineSer) {
+            return ((CTLineSer) series).getCat();
+        } else if (series instanceof CTBarSer) {
+            return ((CTBarSer) series).getCat();
+        } else if (series instanceof CTAreaSer) {
+            return ((CTAreaSer) series).getCat();
+        } else if (series instanceof CTPieSer) {
+            return ((CTPieSer) series).getCat();
+        }
+        return null;
+    }
+
+    /**
+     * 分类名称 -> 数据点序号
+     */
+    private static Map<String, Integer> categoryIndex(CTAxDataSource categories) {
+        Map<String, Integer> index = new HashMap<>();
+        if (categories == null) {
+            return index;
+        }
+        if (categories.isSetStrRef() && categories.getStrRef().isSetStrCache()) {
+            for (CTStrVal pt : categories.getStrRef().getStrCache().getPtList()) {
+                index.putIfAbsent(pt.getV(), (int) pt.getIdx());
+            }
+        } else if (categories.isSetStrLit()) {
+            for (CTStrVal pt : categories.getStrLit().getPtList()) {
+                index.putIfAbsent(pt.getV(), (int) pt.getIdx());
+            }
+        } else if (categories.isSetNumRef() && categories.getNumRef().isSetNumCache()) {
+            for (CTNumVal pt : categories.getNumRef().getNumCache().getPtList()) {
+                index.putIfAbsent(pt.getV(), (int) pt.getIdx());
+            }
+        }
+        return index;
+    }
+
+    private static CTNumData numberCache(CTNumDataSource values) {
+        if (values.isSetNumRef()) {
+            CTNumRef ref = values.getNumRef();
+            return ref.isSetNumCache() ? ref.getNumCache() : ref.addNewNumCache();
+        }
+        if (values.isSetNumLit()) {
+            return values.getNumLit();
+        }
+        throw new IllegalArgumentException("系列没有数值数据");
+    }
+
+    private static Map<Long, CTNumVal> pointsByIndex(CTNumData cache) {
+        Map<Long, CTNumVal> points = new HashMap<>();
+        for (CTNumVal pt : cache.getPtList()) {
+            points.put(pt.getIdx(), pt);
+        }
+        return points;
+    }
+
+    /**
+     * 数值引用公式中的单元格，按数据点顺序排列；没有引用公式时返回空数组
+     */
+    private static CellReference[] referencedCells(CTNumDataSource values) {
+        if (!values.isSetNumRef() || values.getNumRef().getF() == null || values.getNumRef().getF().isEmpty()) {
+            return new CellReference[0];
+        }
+        return new AreaReference(values.getNumRef().getF(), SpreadsheetVersion.EXCEL2007).getAllReferencedCells();
+    }
+
+    /**
+     * 更新一个数据点的缓存值并记录对应单元格；NaN 或无穷大时移除缓存点并清空单元格
+     */
+    private static void setPoint(CTNumData cache, Map<Long, CTNumVal> points, CellReference[] cells, int index,
+                                 double value, Map<String, NavigableMap<Integer, NavigableMap<Integer, Double>>> edits) {
+        long idx = index;
+        CTNumVal pt = points.get(idx);
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            if (pt != null) {
+                XmlCursor cursor = pt.newCursor();
+                cursor.removeXml();
+                cursor.dispose();
+                points.remove(idx);
+            }
+        } else {
+            if (pt == null) {
+                pt = cache.addNewPt();
+                pt.setIdx(idx);
+                points.put(idx, pt);
+            }
+            pt.setV(Double.toString(value));
+        }
+        if (index < cells.length) {
+            CellReference cell = cells[index];
+            edits.computeIfAbsent(cell.getSheetName(), k -> new TreeMap<>())
+                    .computeIfAbsent(cell.getRow(), k -> new TreeMap<>())
+                    .put((int) cell.getCol(), value);
+        }
+    }
+
+    private static ChartSpaceDocument parseChart(ZipFile zip, String chartEntry) throws IOException {
+        ZipArchiveEntry entry = zip.getEntry(chartEntry);
+        if (entry == null) {
+            throw new IllegalArgumentException("图表部件不存在: /" + chartEntry);
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            return ChartSpaceDocument.Factory.parse(in, POIXMLTypeLoader.DEFAULT_XML_OPTIONS);
+        } catch (XmlException e) {
+            throw new IOException("图表部件解析失败: /" + chartEntry, e);
+        }
+    }
+
+    private static byte[] serialize(ChartSpaceDocument document) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        document.save(buffer, POIXMLTypeLoader.DEFAULT_XML_OPTIONS);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 部件名称转换为压缩包条目名称（去掉开头的 /）
+     */
+    static String entryName(String partName) {
+        if (partName == null || partName.isEmpty()) {
+            throw new IllegalArgumentException("图表部件名称不能为空");
+        }
+        return partName.startsWith("/") ? partName.substring(1) : partName;
+    }
+
+    /**
+     * 部件对应的关系部件条目名称，如 ppt/charts/chart1.xml -> ppt/charts/_rels/chart1.xml.rels
+     */
+    static String relsEntryName(String entryName) {
+        int slash = entryName.lastIndexOf('/');
+        return entryName.substring(0, slash + 1) + "_rels/" + entryName.substring(slash + 1) + ".rels";
+    }
+}
@@ -1,6 +1,10 @@
 package com.mygs.trackppt.utils;
 
 import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.constant.ChartType;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ColumnarLineData;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xddf.usermodel.chart.XDDFChartData;
@@ -12,16 +16,21 @@ import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFRow;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTPlotArea;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTScatterChart;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTScatterSer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.ResourceUtils;
 
-import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.util.Arrays;
+import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * PPT散点图生成工具类
@@ -47,46 +56,319 @@ public class LineChartPptUtil {
      */
     public static boolean generatePPTChart(String templateFilePath, String outputFilePath,
                                            Integer pageNumber, String chartTitle,List<List<Double>> dataList) {
+        return generatePPTChart(templateFilePath, outputFilePath, pageNumber, toColumnarData(chartTitle, dataList, null));
+    }
+
+    /**
+     * 使用列式原始类型数据生成PPT图表文件
+     *
+     * @param templateFilePath 模板文件路径
+     * @param outputFilePath   输出文件路径
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param lineData         列式折线图数据
+     * @return 是否生成成功
+     */
+    public static boolean generatePPTChart(String templateFilePath, String outputFilePath,
+                                           Integer pageNumber, ColumnarLineData lineData) {
+        return generatePPTChart(templateFilePath, outputFilePath, pageNumber, lineData, new ChartGenerateOptions());
+    }
+
+    /**
+     * 使用列式原始类型数据按生成选项生成PPT图表文件
+     *
+     * @param templateFilePath 模板文件路径
+     * @param outputFilePath   输出文件路径
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param lineData         列式折线图数据
+     * @param options          生成选项（降采样等）
+     * @return 是否生成成功
+     */
+    public static boolean generatePPTChart(String templateFilePath, String outputFilePath,
+                                           Integer pageNumber, ColumnarLineData lineData, ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.LINE, options);
+        boolean success = false;
         try {
-            // 从资源路径加载PPT模板文件
-            InputStream fis = ResourceUtils.getURL(templateFilePath).openStream();
-            // 创建XMLSlideShow对象，表示一个PPT演示文稿
-            XMLSlideShow ppt = new XMLSlideShow(fis);
-            // 关闭输入流
-            fis.close();
+            // 从模板缓存创建XMLSlideShow对象，表示一个PPT演示文稿
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options, countPoints(lineData), diagnostics);
+            try (XMLSlideShow ppt = opened.ppt) {
+                // 修改完 ppt 后经临时文件保存，生成成功后才替换输出文件
+                OutputFiles.writeAtomically(Paths.get(outputFilePath), out -> writePPTChart(ppt, out, templateFilePath,
+                        opened.templateBytes, pageNumber, lineData, options, diagnostics));
+            }
 
-            // 调用makePPT方法生成PPT内容
-            makePPT(pageNumber, ppt, chartTitle,dataList);
-
-            // 修改完 ppt 后保存
-            try (FileOutputStream out = new FileOutputStream(outputFilePath)) {
-                // 将修改后的PPT写入输出流
-                ppt.write(out);
-                // 刷新输出流
-                out.flush();
+            logger.debug("PPT生成成功！文件路径：{}", outputFilePath);
+            success = true;
+            return true;
+
+        } catch (Exception e) {
+            logger.error("PPT生成失败", e);
+            return false;
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
+
+    /**
+     * 生成PPT图表并写入输出流（如HTTP响应流、内存缓冲区），不产生临时文件
+     * 输出流由调用方负责关闭；需要写入 WritableByteChannel 时可使用 Channels.newOutputStream 包装
+     *
+     * @param templateFilePath 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param chartTitle       图表标题
+     * @return 是否生成成功
+     */
+    public static boolean generatePPTChart(String templateFilePath, OutputStream outputStream,
+                                           Integer pageNumber, String chartTitle, List<List<Double>> dataList) {
+        return generatePPTChart(templateFilePath, outputStream, pageNumber, toColumnarData(chartTitle, dataList, null));
+    }
+
+    /**
+     * 使用列式原始类型数据生成PPT图表并写入输出流，输出流由调用方负责关闭
+     *
+     * @param templateFilePath 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param lineData         列式折线图数据
+     * @return 是否生成成功
+     */
+    public static boolean generatePPTChart(String templateFilePath, OutputStream outputStream,
+                                           Integer pageNumber, ColumnarLineData lineData) {
+        return generatePPTChart(templateFilePath, outputStream, pageNumber, lineData, new ChartGenerateOptions());
+    }
+
+    /**
+     * 使用列式原始类型数据按生成选项生成PPT图表并写入输出流，输出流由调用方负责关闭
+     *
+     * @param templateFilePath 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param lineData         列式折线图数据
+     * @param options          生成选项（降采样等）
+     * @return 是否生成成功
+     */
+    public static boolean generatePPTChart(String templateFilePath, OutputStream outputStream,
+                                           Integer pageNumber, ColumnarLineData lineData, ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.LINE, options);
+        boolean success = false;
+        try {
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options, countPoints(lineData), diagnostics);
+            XMLSlideShow ppt = opened.ppt;
+            writePPTChart(ppt, outputStream, templateFilePath, opened.templateBytes, pageNumber, lineData, options, diagnostics);
+            success = true;
+            return true;
+        } catch (Exception e) {
+            logger.error("PPT生成失败", e);
+            return false;
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
+
+    /**
+     * 按图表名称分别填充同一页上的多个图表并写入输出流，输出流由调用方负责关闭
+     * 图表由模板图表索引直接定位，只有指定的图表被修改和重新序列化
+     *
+     * @param templateFilePath 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param chartsByName     图形框架名称（如“图表 5”）或ID -> 该图表的列式折线图数据
+     * @param options          生成选项（降采样等）
+     * @return 是否生成成功，页码或图表名称不存在时返回 false
+     */
+    public static boolean generatePPTChart(String templateFilePath, OutputStream outputStream, Integer pageNumber,
+                                           Map<String, ColumnarLineData> chartsByName, ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.LINE, options);
+        boolean success = false;
+        try {
+            // 先按索引解析全部名称，名称错误时不加载模板
+            TemplateChartIndex index = PptTemplateCache.getChartIndex(templateFilePath);
+            Map<TemplateChartIndex.ChartRef, ColumnarLineData> targets = new LinkedHashMap<>();
+            int seriesCount = 0;
+            long pointCount = 0;
+            for (Map.Entry<String, ColumnarLineData> entry : chartsByName.entrySet()) {
+                ColumnarLineData lineData = entry.getValue();
+                targets.put(index.require(pageNumber, entry.getKey()), lineData);
+                seriesCount += lineData.getSeriesValues() == null ? 0 : lineData.getSeriesValues().length;
+                pointCount += countPoints(lineData);
+            }
+            diagnostics.setSeriesCount(seriesCount);
+            diagnostics.setPointCount(pointCount);
+
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options, pointCount, diagnostics);
+            XMLSlideShow ppt = opened.ppt;
+            try {
+                List<XSLFChart> charts = new ArrayList<>(targets.size());
+                for (Map.Entry<TemplateChartIndex.ChartRef, ColumnarLineData> target : targets.entrySet()) {
+                    XSLFChart chart = TemplateChartIndex.resolve(ppt, target.getKey());
+                    if (chart == null) {
+                        throw new IllegalStateException("PPT中不存在图表: " + target.getKey());
+                    }
+                    fillChart(chart, downsample(target.getValue(), options), options, diagnostics);
+                    charts.add(chart);
+                }
+                writeDeck(ppt, outputStream, opened.templateBytes, charts, options, diagnostics);
+            } finally {
+                ppt.close();
             }
+            success = true;
+            return true;
+        } catch (Exception e) {
+            logger.error("PPT生成失败", e);
+            return false;
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
 
-            logger.info("PPT生成成功！文件路径：{}", outputFilePath);
+    /**
+     * 从 CSV 样本文件流式读取数据生成PPT图表并写入输出流，输出流由调用方负责关闭
+     * 文件以内存映射方式逐块解析并按最小值/最大值分桶，不在内存中保存完整数据，适用于 GB 级样本文件；
+     * 二进制样本或其他数据通道可先用 LineSampleReader 读取，再调用列式数据的重载
+     *
+     * @param templateFilePath 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param csvFile          CSV 样本文件（第一列为X值，其后每列一个系列，可带表头）
+     * @param chartTitle       图表标题
+     * @param options          生成选项，lineDownsampleTarget 为分桶后的目标点数，未设置时使用 2000
+     * @return 是否生成成功
+     */
+    public static boolean generatePPTChartFromCsv(String templateFilePath, OutputStream outputStream, Integer pageNumber,
+                                                  Path csvFile, String chartTitle, ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.LINE, options);
+        boolean success = false;
+        try {
+            diagnostics.beginStage();
+            int targetPoints = options.getLineDownsampleTarget() > 0
+                    ? options.getLineDownsampleTarget() : LineSampleReader.DEFAULT_TARGET_POINTS;
+            ColumnarLineData lineData = LineSampleReader.readCsv(csvFile, chartTitle, targetPoints);
+            diagnostics.endStage(ChartStage.DATA_READ);
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options, countPoints(lineData), diagnostics);
+            XMLSlideShow ppt = opened.ppt;
+            writePPTChart(ppt, outputStream, templateFilePath, opened.templateBytes, pageNumber, lineData, options, diagnostics);
+            success = true;
             return true;
+        } catch (Exception e) {
+            logger.error("PPT生成失败", e);
+            return false;
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
+
+    /**
+     * 使用模板字节生成PPT图表并写入输出流
+     *
+     * @param templateBytes 模板文件内容
+     * @param outputStream  输出流，由调用方负责关闭
+     * @param pageNumber    要修改的幻灯片页码 (从1开始)
+     * @param chartTitle    图表标题
+     * @return 是否生成成功
+     */
+    public static boolean generatePPTChart(byte[] templateBytes, OutputStream outputStream,
+                                           Integer pageNumber, String chartTitle, List<List<Double>> dataList) {
+        return generatePPTChart(new ByteArrayInputStream(templateBytes), outputStream, pageNumber, chartTitle, dataList);
+    }
 
+    /**
+     * 使用模板输入流生成PPT图表并写入输出流
+     *
+     * @param templateInputStream 模板输入流，由调用方负责关闭
+     * @param outputStream        输出流，由调用方负责关闭
+     * @param pageNumber          要修改的幻灯片页码 (从1开始)
+     * @param chartTitle          图表标题
+     * @return 是否生成成功
+     */
+    public static boolean generatePPTChart(InputStream templateInputStream, OutputStream outputStream,
+                                           Integer pageNumber, String chartTitle, List<List<Double>> dataList) {
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.LINE, options);
+        boolean success = false;
+        try {
+            diagnostics.beginStage();
+            XMLSlideShow ppt = new XMLSlideShow(templateInputStream);
+            diagnostics.endStage(ChartStage.TEMPLATE_LOAD);
+            writePPTChart(ppt, outputStream, null, null, pageNumber, toColumnarData(chartTitle, dataList, null), options, diagnostics);
+            success = true;
+            return true;
         } catch (Exception e) {
             logger.error("PPT生成失败", e);
             return false;
+        } finally {
+            diagnostics.finish(success);
         }
     }
 
+    /**
+     * 填充图表并将PPT写入输出流，完成后关闭PPT文档
+     *
+     * @param templateFilePath 模板文件路径，用于按模板图表索引定位图表；非模板缓存打开的PPT传 null
+     * @param templateBytes    打开该PPT所用的模板字节，用于直通写出；非模板缓存或低内存模式打开的PPT传 null
+     */
+    private static void writePPTChart(XMLSlideShow ppt, OutputStream out, String templateFilePath, byte[] templateBytes,
+                                      Integer pageNumber, ColumnarLineData lineData, ChartGenerateOptions options,
+                                      ChartDiagnostics diagnostics) throws IOException {
+        try {
+            // 调用makePPT方法生成PPT内容
+            List<XSLFChart> charts = makePPT(pageNumber, ppt, templateFilePath, lineData, options, diagnostics);
+            // 将修改后的PPT写入输出流
+            writeDeck(ppt, out, templateBytes, charts, options, diagnostics);
+        } finally {
+            ppt.close();
+        }
+    }
+
+    /**
+     * 将PPT写入输出流，只有被修改的图表重新序列化
+     */
+    private static void writeDeck(XMLSlideShow ppt, OutputStream out, byte[] templateBytes, List<XSLFChart> charts,
+                                  ChartGenerateOptions options, ChartDiagnostics diagnostics) throws IOException {
+        diagnostics.beginStage();
+        CountingOutputStream counting = new CountingOutputStream(out);
+        PassthroughDeckWriter.writeDeck(ppt, templateBytes, charts, options, counting);
+        // 刷新输出流
+        counting.flush();
+        diagnostics.endStage(ChartStage.WRITE);
+        diagnostics.setOutputBytes(counting.getCount());
+    }
+
     /**
      * 生成PPT的主方法
+     * 由模板缓存打开的PPT按模板图表索引直接取得该页的图表，其余情况遍历幻灯片上的形状
      *
-     * @param page       要修改的幻灯片页码 (从1开始)
-     * @param ppt        XMLSlideShow对象
-     * @param chartTitle 图表标题
+     * @param page             要修改的幻灯片页码 (从1开始)
+     * @param ppt              XMLSlideShow对象
+     * @param templateFilePath 模板文件路径，非模板缓存打开的PPT传 null
+     * @return 该页上的图表（即被修改的部件）
      */
-    private static void makePPT(Integer page, XMLSlideShow ppt, String chartTitle,List<List<Double>> dataList) {
+    private static List<XSLFChart> makePPT(Integer page, XMLSlideShow ppt, String templateFilePath,
+                                           ColumnarLineData lineData, ChartGenerateOptions options,
+                                           ChartDiagnostics diagnostics) throws IOException {
+        if (templateFilePath != null) {
+            List<XSLFChart> charts = PptTemplateCache.getChartIndex(templateFilePath).resolveAll(ppt, page);
+            // 按需降采样后填充图表数据到PPT
+            fillChartsToPPT(charts, downsample(lineData, options), options, diagnostics);
+            return charts;
+        }
         // 获取指定页码的幻灯片
         XSLFSlide slide = ppt.getSlides().get(page - 1);
-        // 填充图表数据到PPT
-        fillChartToPPT(dataList, slide, chartTitle);
+        // 按需降采样后填充图表数据到PPT
+        fillChartToPPT(downsample(lineData, options), slide, options, diagnostics);
+        return PassthroughDeckWriter.chartsOf(slide);
+    }
+
+    /**
+     * 按生成选项对折线图数据降采样，未开启时原样返回
+     */
+    static ColumnarLineData downsample(ColumnarLineData lineData, ChartGenerateOptions options) {
+        if (options.getLineDownsampleTarget() <= 0) {
+            return lineData;
+        }
+        ColumnarLineData sampled = LineDownsampler.downsample(lineData, options.getLineDownsampleTarget(),
+                options.getLineDownsampleMethod());
+        logger.debug("降采样完成，目标点数: {}, 算法: {}", options.getLineDownsampleTarget(), options.getLineDownsampleMethod());
+        return sampled;
     }
 
     /**
@@ -100,13 +382,33 @@ public class LineChartPptUtil {
     private void makePPTWithData(Integer page, XMLSlideShow ppt, String chartTitle, double[][] customData) {
         // 获取指定页码的幻灯片
         XSLFSlide slide = ppt.getSlides().get(page - 1);
-        // 将二维数组转换为List<List<Double>>，以便于处理
-        List<List<Double>> dataList = Arrays.stream(customData)
-                .map(row -> Arrays.stream(row).boxed().collect(Collectors.toList()))
-                .collect(Collectors.toList());
+        // 二维数组直接作为列式数据，无需装箱
+        fillChartToPPT(new ColumnarLineData(chartTitle, null, null, customData), slide);
+    }
 
-        // 填充图表数据到PPT
-        fillChartToPPT(dataList, slide, chartTitle);
+    /**
+     * 将 List<List<Double>> 转换为列式原始类型数据（仅在兼容旧接口时拆箱一次）
+     *
+     * @param chartTitle  图表标题
+     * @param list        列表 - 每个内部列表代表一个数据系列
+     * @param seriesNames 系列名称，可为 null
+     * @return 列式折线图数据
+     */
+    static ColumnarLineData toColumnarData(String chartTitle, List<List<Double>> list, List<String> seriesNames) {
+        double[][] seriesValues = null;
+        if (list != null) {
+            seriesValues = new double[list.size()][];
+            for (int i = 0; i < list.size(); i++) {
+                List<Double> series = list.get(i);
+                double[] values = new double[series.size()];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = series.get(j);
+                }
+                seriesValues[i] = values;
+            }
+        }
+        String[] names = seriesNames == null ? null : seriesNames.toArray(new String[0]);
+        return new ColumnarLineData(chartTitle, null, names, seriesValues);
     }
 
     /**
@@ -115,26 +417,17 @@ public class LineChartPptUtil {
      * @return 随机生成的二维数组，每个内部数组代表一条折线的数据点
      */
     public static double[][] generateRandomLineData() {
-        Random rand = new Random();
-
-        // 固定生成5条折线 (实际值，未完全遵循MAX_LINE_COUNT)
-        int lineCount = rand.nextInt(ChartData.MAX_LINE_COUNT) + 1;
-        //int lineCount = 8;
-        double[][] result = new double[lineCount][];
-
-        // 遍历生成每条折线的数据
-        for (int i = 0; i < lineCount; i++) {
-            // 每条折线的长度随机，0到MAX_LINE_LENGTH之间
-            int length = rand.nextInt(ChartData.MAX_LINE_LENGTH + 1) + 2;
-            double[] line = new double[length];
-            // 填充折线数据点，取值范围在MIN_VALUE和MAX_VALUE之间
-            for (int j = 0; j < length; j++) {
-                line[j] = ChartData.MIN_VALUE + (ChartData.MAX_VALUE - ChartData.MIN_VALUE) * rand.nextDouble();
-            }
-            result[i] = line;
-        }
+        return generateRandomLineData(ThreadLocalRandom.current().nextLong());
+    }
 
-        return result;
+    /**
+     * 按种子生成折线图数据，相同种子总是生成相同的数据
+     *
+     * @param seed 随机种子
+     * @return 二维数组，每个内部数组代表一条折线的数据点
+     */
+    public static double[][] generateRandomLineData(long seed) {
+        return new SyntheticDataGenerator(seed).randomLineData();
     }
 
     /**
@@ -145,167 +438,425 @@ public class LineChartPptUtil {
      * @param slide      幻灯片
      * @param chartTitle 图表标题
      */
-    private static void fillChartToPPT(List<List<Double>> list, XSLFSlide slide, String chartTitle) {
-        logger.info("开始填充图表数据...");
+    static void fillChartToPPT(List<List<Double>> list, XSLFSlide slide, String chartTitle) {
+        fillChartToPPT(list, null, slide, chartTitle);
+    }
+
+    /**
+     * 填充图表数据（指定系列名称）
+     *
+     * @param list        列表 - 二维数组，每个内部列表代表一个数据系列
+     * @param seriesNames 系列名称，与 list 一一对应；为 null 时随机选取名称
+     * @param slide       幻灯片
+     * @param chartTitle  图表标题
+     */
+    static void fillChartToPPT(List<List<Double>> list, List<String> seriesNames, XSLFSlide slide, String chartTitle) {
+        fillChartToPPT(toColumnarData(chartTitle, list, seriesNames), slide);
+    }
+
+    /**
+     * 填充图表数据（列式原始类型数据）
+     * 从调用方到单元格写入全程使用 double，不产生装箱对象
+     *
+     * @param lineData 列式折线图数据
+     * @param slide    幻灯片
+     */
+    static void fillChartToPPT(ColumnarLineData lineData, XSLFSlide slide) {
+        fillChartToPPT(lineData, slide, new ChartGenerateOptions());
+    }
+
+    /**
+     * 按生成选项填充图表数据（列式原始类型数据）
+     *
+     * @param lineData 列式折线图数据
+     * @param slide    幻灯片
+     * @param options  生成选项（是否使用批量工作簿写入等）
+     */
+    static void fillChartToPPT(ColumnarLineData lineData, XSLFSlide slide, ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.LINE, options);
+        try {
+            fillChartToPPT(lineData, slide, options, diagnostics);
+        } finally {
+            diagnostics.finish(true);
+        }
+    }
+
+    /**
+     * 按生成选项填充图表数据，阶段耗时与数据规模记录到诊断记录中
+     *
+     * @param lineData    列式折线图数据
+     * @param slide       幻灯片
+     * @param options     生成选项
+     * @param diagnostics 诊断记录
+     */
+    static void fillChartToPPT(ColumnarLineData lineData, XSLFSlide slide, ChartGenerateOptions options,
+                               ChartDiagnostics diagnostics) {
+        boolean detailed = diagnostics.isDetailed(logger);
+        double[][] list = lineData.getSeriesValues();
+        if (list != null) {
+            diagnostics.setSeriesCount(list.length);
+            diagnostics.setPointCount(countPoints(lineData));
+        }
 
         // 遍历幻灯片上的所有形状
         for (XSLFShape shape : slide.getShapes()) {
-            logger.debug("遍历形状: {}", shape.getClass().getSimpleName());
+            if (detailed) {
+                logger.debug("遍历形状: {}", shape.getClass().getSimpleName());
+            }
 
             // 检查形状是否是图形框架 (图表通常嵌入在图形框架中)
             if (shape instanceof XSLFGraphicFrame) {
-                logger.info("找到图表框架");
                 XSLFGraphicFrame graphicFrame = (XSLFGraphicFrame) shape;
                 // 获取图形框架中的图表对象
                 XSLFChart chart = graphicFrame.getChart();
 
                 // 如果找到了图表对象
-                if (chart != null) {
-                    logger.info("获取到图表对象");
-                    try {
-                        // 获取图表中的Excel工作簿，图表数据存储在嵌入的Excel中
-                        XSSFWorkbook workbook = chart.getWorkbook();
-                        // 获取工作簿的第一个工作表
-                        XSSFSheet sheet = workbook.getSheetAt(0);
-
-                        logger.info("获取到工作簿和工作表");
-
-                        // 检查输入数据是否为空
-                        if (list == null || list.isEmpty()) {
-                            logger.warn("警告：输入数据为空");
-                            return;
-                        }
-
-                        // 找到所有数据系列中的最大行数，即最长的数据系列长度
-                        int maxRows = 0;
-                        for (List<Double> series : list) {
-                            if (series.size() > maxRows) {
-                                maxRows = series.size();
-                            }
-                        }
-
-                        logger.info("数据系列数量: {}, 最大行数: {}", list.size(), maxRows);
-
-                        // 清空现有数据并重新创建
-                        // 移除现有数据的标题行（假设第一行是标题行）
-                        sheet.removeRow(sheet.getRow(0));
-
-                        // 创建新的标题行
-                        XSSFRow headerRow = sheet.createRow(0);
-                        // 创建第一个单元格作为X轴标题
-                        XSSFCell xCell = headerRow.createCell(0);
-                        xCell.setCellValue("X 值");
-
-                        // 为每个数据系列创建列名 (从第二列开始)
-                        Random rand = new Random();
-                        for (int i = 0; i < list.size(); i++) {
-                            XSSFCell cell = headerRow.createCell(i + 1);
-                            cell.setCellValue(ChartData.AEROSPACE_TRACKING_TERMS[rand.nextInt(ChartData.AEROSPACE_TRACKING_TERMS.length)]);
-                        }
-
-                        logger.info("创建了标题行，包含{}列", list.size() + 1);
-
-                        // 填充数据行
-                        for (int row = 0; row < maxRows; row++) {
-                            // 创建数据行，从第二行开始 (因为第一行是标题)
-                            XSSFRow dataRow = sheet.createRow(row + 1);
-
-                            // 第一列：X值 (从0开始，例如0, 1, 2...)
-                            XSSFCell xValueCell = dataRow.createCell(0);
-                            xValueCell.setCellValue(row);
-
-                            // 从第二列开始填充每个数据系列的数据
-                            for (int col = 0; col < list.size(); col++) {
-                                XSSFCell cell = dataRow.createCell(col + 1);
-                                // 如果当前行索引小于当前数据系列的长度，则填充实际数据
-                                if (row < list.get(col).size()) {
-                                    cell.setCellValue(list.get(col).get(row));
-                                } else {
-                                    // 否则，填充0.0以补充缺失数据，确保图表正确绘制
-                                    cell.setCellValue(0.0);
-                                }
-                            }
-                        }
-
-                        logger.info("填充了{}行数据", maxRows);
-
-                        // 强制Excel工作簿重新计算公式，确保图表数据更新
-                        sheet.setForceFormulaRecalculation(true);
-                        workbook.setForceFormulaRecalculation(true);
-
-                        // 获取图表数据 (通常一个图表只有一个XDDFChartData对象)
-                        List<XDDFChartData> chartDataList = chart.getChartSeries();
-                        if (chartDataList.isEmpty()) {
-                            logger.warn("警告：图表中没有数据系列");
-                            return;
-                        }
-
-                        // 获取第一个图表数据对象
-                        XDDFChartData xddfChartData = chartDataList.get(0);
-                        logger.info("图表类型: {}", xddfChartData.getClass().getSimpleName());
-
-                        // 设置数据源范围
-                        // X值数据源：从Excel工作表的第2行到第maxRows+1行，第1列 (索引0)
-                        XDDFDataSource<Double> xValues = XDDFDataSourcesFactory.fromNumericCellRange(sheet,
-                                new CellRangeAddress(1, maxRows, 0, 0));
-
-                        logger.info("设置X值范围: 行({},{}), 列(0,0)", 1, maxRows);
-
-                        // 获取现有系列数量
-                        int existingSeriesCount = xddfChartData.getSeriesCount();
-                        logger.info("现有系列数量: {}", existingSeriesCount);
-                        logger.info("需要的系列数量: {}", list.size());
-
-                        // 清除所有现有系列，以便重新添加
-                        while (xddfChartData.getSeriesCount() > 0) {
-                            xddfChartData.removeSeries(0);
-                        }
-                        logger.info("清除了所有现有系列");
-
-                        // 重新添加所有数据系列
-                        for (int i = 0; i < list.size(); i++) {
-                            // 每个系列的Y值数据源：从Excel工作表的第2行到第maxRows+1行，第i+2列 (索引i+1)
-                            XDDFNumericalDataSource yValues = XDDFDataSourcesFactory.fromNumericCellRange(sheet,
-                                    new CellRangeAddress(1, maxRows, i + 1, i + 1));
-
-                            // 添加新系列
-                            XDDFChartData.Series newSeries = xddfChartData.addSeries(xValues, yValues);
-                            // 设置系列标题
-                            rand = new Random();
-
-                            newSeries.setTitle(ChartData.AEROSPACE_TRACKING_TERMS[rand.nextInt(ChartData.AEROSPACE_TRACKING_TERMS.length)], null);
-
-                            logger.info("添加系列{}, Y值范围: 行({},{}), 列({},{})",
-                                    i + 1, 1, maxRows, i + 1, i + 1);
-                        }
-
-                        // 设置图表标题
-                        if (chartTitle != null && !chartTitle.trim().isEmpty()) {
-                            try {
-                                chart.setTitleText(chartTitle);
-                                logger.info("设置图表标题: {}", chartTitle);
-                            } catch (Exception titleException) {
-                                logger.warn("设置图表标题时出错: {}", titleException.getMessage());
-                            }
-                        }
-
-                        // 设置坐标轴格式为°
-                        /*try {
-                            // 通过直接操作图表XML来设置坐标轴格式
-                            setAxisFormatAlternative(chart);
-                        } catch (Exception axisException) {
-                            logger.warn("设置坐标轴格式时出错: {}", axisException.getMessage());
-                        }*/
-
-                        // 重新绘图，使更改生效
-                        chart.plot(xddfChartData);
-                        logger.info("重新绘制图表");
-                    } catch (Exception e) {
-                        logger.error("填充图表数据时出错", e);
-                    }
+                if (chart != null && !fillChart(chart, lineData, options, diagnostics)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 按模板图表索引填充指定的图表，不遍历幻灯片上的形状
+     *
+     * @param charts      由模板图表索引取得的图表
+     * @param lineData    列式折线图数据
+     * @param options     生成选项
+     * @param diagnostics 诊断记录
+     */
+    static void fillChartsToPPT(List<XSLFChart> charts, ColumnarLineData lineData, ChartGenerateOptions options,
+                                ChartDiagnostics diagnostics) {
+        double[][] list = lineData.getSeriesValues();
+        if (list != null) {
+            diagnostics.setSeriesCount(list.length);
+            diagnostics.setPointCount(countPoints(lineData));
+        }
+        for (XSLFChart chart : charts) {
+            if (!fillChart(chart, lineData, options, diagnostics)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 填充单个图表：写入嵌入工作簿、设置标题并重建数据系列
+     *
+     * @param chart       图表
+     * @param lineData    列式折线图数据
+     * @param options     生成选项
+     * @param diagnostics 诊断记录
+     * @return 输入数据为空或图表中没有可用的数据系列时返回 false，不再填充后续图表
+     * @throws IllegalStateException 批量填充中途失败（图表已被部分修改）
+     */
+    static boolean fillChart(XSLFChart chart, ColumnarLineData lineData, ChartGenerateOptions options,
+                             ChartDiagnostics diagnostics) {
+        boolean detailed = diagnostics.isDetailed(logger);
+        String chartTitle = lineData.getTitle();
+        double[][] list = lineData.getSeriesValues();
+        if (detailed) {
+            logger.debug("获取到图表对象: {}", chart.getPackagePart().getPartName());
+        }
+        // 批量写入：直接生成嵌入工作簿与图表缓存，不经过 XSSFCell 对象模型
+        if ((options.isBulkSheetWriter() || diagnostics.isLowMemory()) && list != null && list.length > 0) {
+            try {
+                diagnostics.beginStage();
+                boolean filled = fillChartBulk(chart, lineData, detailed);
+                diagnostics.endStage(ChartStage.SHEET_FILL);
+                if (filled) {
+                    return true;
+                }
+            } catch (Exception e) {
+                // 此时嵌入工作簿可能已替换、原有系列已删除，不能回退到常规填充，也不能按成功处理
+                throw new IllegalStateException("批量填充图表数据失败", e);
+            }
+        }
+        try {
+            diagnostics.beginStage();
+            // 获取图表中的Excel工作簿，图表数据存储在嵌入的Excel中
+            XSSFWorkbook workbook = chart.getWorkbook();
+            // 获取工作簿的第一个工作表
+            XSSFSheet sheet = workbook.getSheetAt(0);
+
+            // 检查输入数据是否为空
+            if (list == null || list.length == 0) {
+                logger.warn("警告：输入数据为空");
+                return false;
+            }
+
+            // 填充工作表数据
+            String[] names = resolveSeriesNames(lineData);
+            int maxRows = fillSheet(sheet, lineData, names, detailed);
+
+            // 强制Excel工作簿重新计算公式，确保图表数据更新
+            workbook.setForceFormulaRecalculation(true);
+            diagnostics.endStage(ChartStage.SHEET_FILL);
+
+            // 设置图表标题
+            if (chartTitle != null && !chartTitle.trim().isEmpty()) {
+                try {
+                    chart.setTitleText(chartTitle);
+                } catch (Exception titleException) {
+                    logger.warn("设置图表标题时出错: {}", titleException.getMessage());
+                }
+            }
+
+            // 设置坐标轴格式为°
+            /*try {
+                // 通过直接操作图表XML来设置坐标轴格式
+                setAxisFormatAlternative(chart);
+            } catch (Exception axisException) {
+                logger.warn("设置坐标轴格式时出错: {}", axisException.getMessage());
+            }*/
+
+            // 重建数据系列并重新绘图
+            diagnostics.beginStage();
+            boolean plotted = plotSeries(chart, sheet, names, maxRows, detailed);
+            diagnostics.endStage(ChartStage.PLOT);
+            if (!plotted) {
+                return false;
+            }
+        } catch (Exception e) {
+            logger.error("填充图表数据时出错", e);
+        }
+        return true;
+    }
+
+    /**
+     * 将列式数据写入工作表：第一行为标题行，第一列为X值，其后每列一个数据系列，缺失数据以0.0补齐
+     *
+     * @param sheet    图表嵌入工作簿的工作表
+     * @param lineData 列式折线图数据
+     * @param names    系列名称
+     * @param detailed 是否输出明细日志
+     * @return 数据行数（最长的数据系列长度）
+     */
+    static int fillSheet(XSSFSheet sheet, ColumnarLineData lineData, String[] names, boolean detailed) {
+        double[][] list = lineData.getSeriesValues();
+        double[] xData = lineData.getXValues();
+
+        // 找到所有数据系列中的最大行数，即最长的数据系列长度
+        int maxRows = 0;
+        for (double[] series : list) {
+            if (series.length > maxRows) {
+                maxRows = series.length;
+            }
+        }
+
+        if (detailed) {
+            logger.debug("数据系列数量: {}, 最大行数: {}", list.length, maxRows);
+        }
+
+        // 清空现有数据并重新创建
+        // 移除现有数据的标题行（假设第一行是标题行）
+        XSSFRow oldHeader = sheet.getRow(0);
+        if (oldHeader != null) {
+            sheet.removeRow(oldHeader);
+        }
+
+        // 创建新的标题行
+        XSSFRow headerRow = sheet.createRow(0);
+        // 创建第一个单元格作为X轴标题
+        XSSFCell xCell = headerRow.createCell(0);
+        xCell.setCellValue("X 值");
+
+        // 为每个数据系列创建列名 (从第二列开始)
+        for (int i = 0; i < list.length; i++) {
+            XSSFCell cell = headerRow.createCell(i + 1);
+            cell.setCellValue(names[i]);
+        }
+
+        // 填充数据行
+        for (int row = 0; row < maxRows; row++) {
+            // 创建数据行，从第二行开始 (因为第一行是标题)
+            XSSFRow dataRow = sheet.createRow(row + 1);
+
+            // 第一列：X值 (未指定时从0开始，例如0, 1, 2...)
+            XSSFCell xValueCell = dataRow.createCell(0);
+            xValueCell.setCellValue(xData != null && row < xData.length ? xData[row] : row);
+
+            // 从第二列开始填充每个数据系列的数据
+            for (int col = 0; col < list.length; col++) {
+                XSSFCell cell = dataRow.createCell(col + 1);
+                // 如果当前行索引小于当前数据系列的长度，则填充实际数据
+                if (row < list[col].length) {
+                    cell.setCellValue(list[col][row]);
+                } else {
+                    // 否则，填充0.0以补充缺失数据，确保图表正确绘制
+                    cell.setCellValue(0.0);
                 }
             }
         }
+
+        if (detailed) {
+            logger.debug("填充了{}行数据", maxRows);
+        }
+        sheet.setForceFormulaRecalculation(true);
+        return maxRows;
+    }
+
+    /**
+     * 按工作表数据重建图表系列并重新绘图
+     *
+     * @param chart   图表
+     * @param sheet   已填充数据的工作表
+     * @param names   系列名称
+     * @param maxRows  数据行数
+     * @param detailed 是否输出明细日志
+     * @return 图表中没有数据系列时返回 false
+     */
+    static boolean plotSeries(XSLFChart chart, XSSFSheet sheet, String[] names, int maxRows, boolean detailed) {
+        // 获取图表数据 (通常一个图表只有一个XDDFChartData对象)
+        List<XDDFChartData> chartDataList = chart.getChartSeries();
+        if (chartDataList.isEmpty()) {
+            logger.warn("警告：图表中没有数据系列");
+            return false;
+        }
+
+        // 获取第一个图表数据对象
+        XDDFChartData xddfChartData = chartDataList.get(0);
+        if (detailed) {
+            logger.debug("图表类型: {}, 现有系列数量: {}", xddfChartData.getClass().getSimpleName(),
+                    xddfChartData.getSeriesCount());
+        }
+
+        // 设置数据源范围
+        // X值数据源：从Excel工作表的第2行到第maxRows+1行，第1列 (索引0)
+        XDDFDataSource<Double> xValues = XDDFDataSourcesFactory.fromNumericCellRange(sheet,
+                new CellRangeAddress(1, maxRows, 0, 0));
+
+        // 清除所有现有系列，以便重新添加
+        while (xddfChartData.getSeriesCount() > 0) {
+            xddfChartData.removeSeries(0);
+        }
+
+        // 重新添加所有数据系列
+        for (int i = 0; i < names.length; i++) {
+            // 每个系列的Y值数据源：从Excel工作表的第2行到第maxRows+1行，第i+2列 (索引i+1)
+            XDDFNumericalDataSource yValues = XDDFDataSourcesFactory.fromNumericCellRange(sheet,
+                    new CellRangeAddress(1, maxRows, i + 1, i + 1));
+
+            // 添加新系列
+            XDDFChartData.Series newSeries = xddfChartData.addSeries(xValues, yValues);
+            // 设置系列标题
+            newSeries.setTitle(names[i], null);
+
+            if (detailed) {
+                logger.debug("添加系列{}: {}, Y值范围: 行(1,{}), 列{}", i + 1, names[i], maxRows, i + 1);
+            }
+        }
+
+        // 重新绘图，使更改生效
+        chart.plot(xddfChartData);
+        return true;
+    }
+
+    /**
+     * 统计全部系列的数据点数量
+     */
+    static long countPoints(ColumnarLineData lineData) {
+        long points = 0;
+        if (lineData != null && lineData.getSeriesValues() != null) {
+            for (double[] series : lineData.getSeriesValues()) {
+                points += series == null ? 0 : series.length;
+            }
+        }
+        return points;
+    }
+
+    /**
+     * 解析系列名称，未指定的系列随机选取
+     */
+    static String[] resolveSeriesNames(ColumnarLineData lineData) {
+        double[][] list = lineData.getSeriesValues();
+        String[] names = new String[list.length];
+        Random rand = new Random();
+        for (int i = 0; i < list.length; i++) {
+            names[i] = seriesName(lineData.getSeriesNames(), i, rand);
+        }
+        return names;
+    }
+
+    /**
+     * 批量填充散点图：一次性写出嵌入工作簿字节，并直接生成每个系列的公式引用与数值缓存，
+     * 不创建 XSSFRow / XSSFCell，也不调用 chart.plot（plot 会加载工作簿并逐格回读数据）
+     *
+     * @param chart    图表
+     * @param lineData 列式折线图数据
+     * @param detailed 是否输出明细日志
+     * @return 图表不是散点图时返回 false，由调用方回退到常规填充
+     * @throws Exception 写入失败
+     */
+    private static boolean fillChartBulk(XSLFChart chart, ColumnarLineData lineData, boolean detailed) throws Exception {
+        CTPlotArea plotArea = chart.getCTChart().getPlotArea();
+        if (plotArea.sizeOfScatterChartArray() == 0) {
+            return false;
+        }
+        CTScatterChart scatterChart = plotArea.getScatterChartArray(0);
+
+        double[][] list = lineData.getSeriesValues();
+        double[] xData = lineData.getXValues();
+        int maxRows = 0;
+        for (double[] series : list) {
+            maxRows = Math.max(maxRows, series.length);
+        }
+
+        // X列：未指定时为行号
+        double[] xColumn = new double[maxRows];
+        for (int row = 0; row < maxRows; row++) {
+            xColumn[row] = xData != null && row < xData.length ? xData[row] : row;
+        }
+        String[] names = resolveSeriesNames(lineData);
+        String[] headers = new String[list.length + 1];
+        headers[0] = "X 值";
+        System.arraycopy(names, 0, headers, 1, names.length);
+        double[][] columns = new double[list.length + 1][];
+        columns[0] = xColumn;
+        System.arraycopy(list, 0, columns, 1, list.length);
+
+        // 嵌入工作簿
+        EmbeddedSheetWriter.attachWorkbook(chart, EmbeddedSheetWriter.writeWorkbook(headers, null, columns, maxRows));
+
+        // 图表系列：公式引用 + 数值缓存
+        while (scatterChart.sizeOfSerArray() > 0) {
+            scatterChart.removeSer(0);
+        }
+        String xFormula = EmbeddedSheetWriter.rangeFormula(0, 1, maxRows);
+        for (int i = 0; i < list.length; i++) {
+            StringBuilder xml = new StringBuilder(256 + maxRows * 80);
+            xml.append("<xml-fragment xmlns:c=\"").append(EmbeddedSheetWriter.CHART_NAMESPACE).append("\">")
+                    .append("<c:idx val=\"").append(i).append("\"/>")
+                    .append("<c:order val=\"").append(i).append("\"/>")
+                    .append("<c:tx><c:v>").append(EmbeddedSheetWriter.escapeXml(names[i])).append("</c:v></c:tx>")
+                    .append("<c:marker><c:symbol val=\"none\"/></c:marker>")
+                    .append("<c:xVal>");
+            EmbeddedSheetWriter.appendNumRef(xml, xFormula, xColumn, maxRows);
+            xml.append("</c:xVal><c:yVal>");
+            EmbeddedSheetWriter.appendNumRef(xml, EmbeddedSheetWriter.rangeFormula(i + 1, 1, maxRows), list[i], maxRows);
+            xml.append("</c:yVal></xml-fragment>");
+            scatterChart.addNewSer().set(CTScatterSer.Factory.parse(xml.toString()));
+        }
+        if (detailed) {
+            logger.debug("批量填充了{}个系列，{}行数据", list.length, maxRows);
+        }
+
+        // 设置图表标题
+        String chartTitle = lineData.getTitle();
+        if (chartTitle != null && !chartTitle.trim().isEmpty()) {
+            chart.setTitleText(chartTitle);
+        }
+        return true;
+    }
+
+    /**
+     * 获取系列名称，未指定时随机选取
+     */
+    private static String seriesName(String[] seriesNames, int index, Random rand) {
+        if (seriesNames != null && index < seriesNames.length && seriesNames[index] != null) {
+            return seriesNames[index];
+        }
+        return ChartData.AEROSPACE_TRACKING_TERMS[rand.nextInt(ChartData.AEROSPACE_TRACKING_TERMS.length)];
     }
 
     /**
@@ -0,0 +1,205 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.DownsampleMethod;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+
+/**
+ * 折线图降采样工具类
+ * 幻灯片上的图表只有约1000像素宽，百万级数据点写入工作表和图表缓存既慢又无意义，
+ * 在填充工作表前按目标点数对每个系列降采样，保留曲线的视觉形状。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class LineDownsampler {
+
+    private LineDownsampler() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 对列式折线图数据降采样
+     * 所有系列共用一列X值，因此先对每个系列分别选点，再取所有系列选中行的并集，
+     * 保证每个系列的关键点都被保留；输出的X值为原始X值（未指定时为原始行号）。
+     *
+     * @param lineData     列式折线图数据
+     * @param targetPoints 每个系列的目标点数，小于3或不小于数据长度时原样返回
+     * @param method       降采样算法
+     * @return 降采样后的数据
+     */
+    public static ColumnarLineData downsample(ColumnarLineData lineData, int targetPoints, DownsampleMethod method) {
+        double[][] seriesValues = lineData.getSeriesValues();
+        if (seriesValues == null || seriesValues.length == 0 || targetPoints < 3) {
+            return lineData;
+        }
+        int maxRows = 0;
+        for (double[] series : seriesValues) {
+            maxRows = Math.max(maxRows, series.length);
+        }
+        if (maxRows <= targetPoints) {
+            return lineData;
+        }
+
+        double[] xData = lineData.getXValues();
+        boolean[] selected = new boolean[maxRows];
+        for (double[] series : seriesValues) {
+            int[] indices = method == DownsampleMethod.MIN_MAX
+                    ? minMaxIndices(series, targetPoints)
+                    : lttbIndices(xData, series, targetPoints);
+            for (int index : indices) {
+                selected[index] = true;
+            }
+        }
+
+        int selectedCount = 0;
+        for (boolean s : selected) {
+            if (s) {
+                selectedCount++;
+            }
+        }
+        int[] rows = new int[selectedCount];
+        for (int i = 0, j = 0; i < maxRows; i++) {
+            if (selected[i]) {
+                rows[j++] = i;
+            }
+        }
+
+        double[] newX = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            newX[i] = xData != null && row < xData.length ? xData[row] : row;
+        }
+        double[][] newSeries = new double[seriesValues.length][];
+        for (int s = 0; s < seriesValues.length; s++) {
+            double[] series = seriesValues[s];
+            // 选中行升序排列，较短系列只取其长度范围内的行，行对齐关系不变
+            int count = 0;
+            while (count < rows.length && rows[count] < series.length) {
+                count++;
+            }
+            double[] values = new double[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = series[rows[i]];
+            }
+            newSeries[s] = values;
+        }
+        return new ColumnarLineData(lineData.getTitle(), newX, lineData.getSeriesNames(), newSeries);
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets 降采样
+     *
+     * @param x         X值，为 null 时使用下标
+     * @param y         Y值
+     * @param threshold 目标点数（至少为3）
+     * @return 选中点的下标，升序
+     */
+    public static int[] lttbIndices(double[] x, double[] y, int threshold) {
+        int n = y.length;
+        if (threshold >= n || threshold < 3) {
+            return allIndices(n);
+        }
+        int[] sampled = new int[threshold];
+        int sampledCount = 0;
+        // 首尾点总是保留，中间 n-2 个点分到 threshold-2 个桶
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        sampled[sampledCount++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // 下一个桶的平均点，作为三角形的第三个顶点
+            int avgStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            int avgCount = avgEnd - avgStart;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += xAt(x, j);
+                avgY += y[j];
+            }
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            // 当前桶内与上一个选中点、下一桶平均点构成最大三角形的点
+            int rangeStart = (int) Math.floor(i * bucketSize) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * bucketSize) + 1;
+            double pointAX = xAt(x, a);
+            double pointAY = y[a];
+            double maxArea = -1;
+            int maxIndex = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((pointAX - avgX) * (y[j] - pointAY)
+                        - (pointAX - xAt(x, j)) * (avgY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = j;
+                }
+            }
+            sampled[sampledCount++] = maxIndex;
+            a = maxIndex;
+        }
+
+        sampled[sampledCount] = n - 1;
+        return sampled;
+    }
+
+    /**
+     * 按桶保留最小值和最大值的降采样
+     *
+     * @param y         Y值
+     * @param threshold 目标点数（至少为3）
+     * @return 选中点的下标，升序
+     */
+    public static int[] minMaxIndices(double[] y, int threshold) {
+        int n = y.length;
+        if (threshold >= n || threshold < 3) {
+            return allIndices(n);
+        }
+        // 首尾点之外，每个桶贡献最小值、最大值两个点
+        int bucketCount = Math.max(1, (threshold - 2) / 2);
+        double bucketSize = (double) (n - 2) / bucketCount;
+        int[] sampled = new int[bucketCount * 2 + 2];
+        int sampledCount = 0;
+        sampled[sampledCount++] = 0;
+
+        for (int i = 0; i < bucketCount; i++) {
+            int start = (int) Math.floor(i * bucketSize) + 1;
+            int end = Math.min((int) Math.floor((i + 1) * bucketSize) + 1, n - 1);
+            if (start >= end) {
+                continue;
+            }
+            int minIndex = start;
+            int maxIndex = start;
+            for (int j = start + 1; j < end; j++) {
+                if (y[j] < y[minIndex]) {
+                    minIndex = j;
+                }
+                if (y[j] > y[maxIndex]) {
+                    maxIndex = j;
+                }
+            }
+            // 按出现顺序保存，保持下标升序
+            sampled[sampledCount++] = Math.min(minIndex, maxIndex);
+            if (minIndex != maxIndex) {
+                sampled[sampledCount++] = Math.max(minIndex, maxIndex);
+            }
+        }
+
+        sampled[sampledCount++] = n - 1;
+        int[] result = new int[sampledCount];
+        System.arraycopy(sampled, 0, result, 0, sampledCount);
+        return result;
+    }
+
+    private static double xAt(double[] x, int index) {
+        return x != null && index < x.length ? x[index] : index;
+    }
+
+    private static int[] allIndices(int n) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,383 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ColumnarLineData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 折线图样本文件流式读取工具类
+ * 从内存映射文件或 ReadableByteChannel 中逐块读取 CSV / 二进制样本，直接解析为 double 并送入 StreamingLineBucketer，
+ * 不构建 List&lt;List&lt;Double&gt;&gt;，也不保存完整数据，内存占用只与目标点数有关，与文件大小无关。
+ * <p>
+ * CSV：逗号分隔，第一列为X值，其后每列一个系列；第一行含非数值字段时作为表头（系列名称），
+ * 只有一列时该列为Y值、X值为行号；缺失字段按 0.0 补齐，多余字段忽略，空行忽略。
+ * 二进制：定长记录，每条记录依次为X值与各系列Y值，均为 8 字节 IEEE 754 double。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class LineSampleReader {
+
+    /** 未指定降采样目标点数时的默认值 */
+    public static final int DEFAULT_TARGET_POINTS = 2000;
+
+    /** 内存映射窗口大小 */
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+
+    /** 从通道读取时的缓冲区大小 */
+    private static final int CHANNEL_BUFFER_BYTES = 64 * 1024;
+
+    /** 可精确表示的 10 的幂（double 尾数 53 位，10^22 以内均为精确值） */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private LineSampleReader() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 以内存映射方式读取 CSV 样本文件并分桶
+     *
+     * @param file         CSV 文件
+     * @param title        图表标题
+     * @param targetPoints 输出的目标行数（至少为3）
+     * @return 分桶后的列式折线图数据
+     * @throws IOException 读取失败或数据格式错误
+     */
+    public static ColumnarLineData readCsv(Path file, String title, int targetPoints) throws IOException {
+        CsvParser parser = new CsvParser(targetPoints);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                parser.feed(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW_BYTES, size - position)));
+            }
+        }
+        return parser.finish(title);
+    }
+
+    /**
+     * 从通道流式读取 CSV 样本并分桶，通道由调用方负责关闭
+     *
+     * @param channel      数据通道（如网络连接、管道）
+     * @param title        图表标题
+     * @param targetPoints 输出的目标行数（至少为3）
+     * @return 分桶后的列式折线图数据
+     * @throws IOException 读取失败或数据格式错误
+     */
+    public static ColumnarLineData readCsv(ReadableByteChannel channel, String title, int targetPoints) throws IOException {
+        CsvParser parser = new CsvParser(targetPoints);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_BYTES);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            parser.feed(buffer);
+            buffer.clear();
+        }
+        return parser.finish(title);
+    }
+
+    /**
+     * 以内存映射方式读取二进制样本文件并分桶
+     *
+     * @param file         二进制文件
+     * @param title        图表标题
+     * @param seriesCount  系列数
+     * @param order        字节序
+     * @param targetPoints 输出的目标行数（至少为3）
+     * @return 分桶后的列式折线图数据
+     * @throws IOException 读取失败或文件长度不是记录长度的整数倍
+     */
+    public static ColumnarLineData readBinary(Path file, String title, int seriesCount, ByteOrder order,
+                                              int targetPoints) throws IOException {
+        StreamingLineBucketer bucketer = new StreamingLineBucketer(seriesCount, targetPoints);
+        int recordBytes = (seriesCount + 1) * Double.BYTES;
+        // 映射窗口取记录长度的整数倍，记录不会跨窗口
+        long window = MAP_WINDOW_BYTES / recordBytes * recordBytes;
+        double[] values = new double[seriesCount];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % recordBytes != 0) {
+                throw new IOException("二进制样本文件长度不是记录长度(" + recordBytes + "字节)的整数倍: " + file);
+            }
+            for (long position = 0; position < size; position += window) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position));
+                readRecords(buffer.order(order), bucketer, values);
+            }
+        }
+        return bucketer.toLineData(title, null);
+    }
+
+    /**
+     * 从通道流式读取二进制样本并分桶，通道由调用方负责关闭
+     *
+     * @param channel      数据通道
+     * @param title        图表标题
+     * @param seriesCount  系列数
+     * @param order        字节序
+     * @param targetPoints 输出的目标行数（至少为3）
+     * @return 分桶后的列式折线图数据
+     * @throws IOException 读取失败或数据不是完整的记录
+     */
+    public static ColumnarLineData readBinary(ReadableByteChannel channel, String title, int seriesCount, ByteOrder order,
+                                              int targetPoints) throws IOException {
+        StreamingLineBucketer bucketer = new StreamingLineBucketer(seriesCount, targetPoints);
+        int recordBytes = (seriesCount + 1) * Double.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(CHANNEL_BUFFER_BYTES / recordBytes, 1) * recordBytes)
+                .order(order);
+        double[] values = new double[seriesCount];
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            readRecords(buffer, bucketer, values);
+            // 不完整的记录留到下一次读取
+            buffer.compact();
+        }
+        if (buffer.position() > 0) {
+            throw new IOException("二进制样本数据末尾存在不完整的记录: " + buffer.position() + "字节");
+        }
+        return bucketer.toLineData(title, null);
+    }
+
+    private static void readRecords(ByteBuffer buffer, StreamingLineBucketer bucketer, double[] values) {
+        int recordBytes = (values.length + 1) * Double.BYTES;
+        while (buffer.remaining() >= recordBytes) {
+            double x = buffer.getDouble();
+            for (int s = 0; s < values.length; s++) {
+                values[s] = buffer.getDouble();
+            }
+            bucketer.add(x, values);
+        }
+    }
+
+    /**
+     * 直接从字节解析十进制数
+     * 有效数字不超过 15 位且指数在 ±22 以内时，整数尾数与 10 的幂都能精确表示，一次乘除即得到正确舍入的结果；
+     * 其余情况（更多位数、NaN、Infinity 等）交给 Double.parseDouble
+     *
+     * @throws NumberFormatException 不是合法的数值
+     */
+    static double parseDouble(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+            anyDigit = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+            }
+            i++;
+        }
+        if (i < end && bytes[i] == '.') {
+            i++;
+            while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+                anyDigit = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                }
+                i++;
+            }
+        }
+        if (anyDigit && i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            int explicit = 0;
+            int exponentStart = i;
+            while (i < end && bytes[i] >= '0' && bytes[i] <= '9' && explicit < 10000) {
+                explicit = explicit * 10 + (bytes[i] - '0');
+                i++;
+            }
+            if (i == exponentStart) {
+                anyDigit = false;
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        if (!anyDigit || i != end || digits > 15 || exponent < -22 || exponent > 22) {
+            return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+        }
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * CSV 增量解析器：按字节接收数据，字段与行可以跨越缓冲区边界
+     */
+    private static final class CsvParser {
+
+        private final int targetPoints;
+
+        private StreamingLineBucketer bucketer;
+
+        /** 当前字段的字节 */
+        private byte[] field = new byte[64];
+
+        private int fieldLength;
+
+        /** 当前行已解析的数值字段，第一行在确定列数前暂存为字符串 */
+        private double[] row = new double[16];
+
+        private final List<String> firstLine = new ArrayList<>();
+
+        private int columnCount;
+
+        private int column;
+
+        private long lineNumber = 1;
+
+        private String[] seriesNames;
+
+        private CsvParser(int targetPoints) {
+            this.targetPoints = targetPoints;
+        }
+
+        void feed(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == ',') {
+                    endField();
+                } else if (b == '\n') {
+                    endLine();
+                } else if (b != '\r') {
+                    if (fieldLength == field.length) {
+                        field = Arrays.copyOf(field, fieldLength * 2);
+                    }
+                    field[fieldLength++] = b;
+                }
+            }
+        }
+
+        ColumnarLineData finish(String title) throws IOException {
+            endLine();
+            if (bucketer == null) {
+                return new ColumnarLineData(title, new double[0], seriesNames, new double[0][]);
+            }
+            return bucketer.toLineData(title, seriesNames);
+        }
+
+        private void endField() throws IOException {
+            int start = 0;
+            int end = fieldLength;
+            while (start < end && (field[start] == ' ' || field[start] == '\t')) {
+                start++;
+            }
+            while (end > start && (field[end - 1] == ' ' || field[end - 1] == '\t')) {
+                end--;
+            }
+            if (bucketer == null) {
+                firstLine.add(new String(field, start, end - start, StandardCharsets.UTF_8));
+            } else if (column < columnCount) {
+                try {
+                    row[column] = start == end ? 0.0 : parseDouble(field, start, end);
+                } catch (NumberFormatException e) {
+                    throw new IOException("第" + lineNumber + "行第" + (column + 1) + "列不是数值: "
+                            + new String(field, start, end - start, StandardCharsets.UTF_8), e);
+                }
+            }
+            column++;
+            fieldLength = 0;
+        }
+
+        private void endLine() throws IOException {
+            if (column == 0 && isBlank()) {
+                // 空行
+                fieldLength = 0;
+                lineNumber++;
+                return;
+            }
+            endField();
+            if (bucketer == null) {
+                startData();
+            } else {
+                Arrays.fill(row, Math.min(column, columnCount), columnCount, 0.0);
+                addRow();
+            }
+            column = 0;
+            lineNumber++;
+        }
+
+        private boolean isBlank() {
+            for (int i = 0; i < fieldLength; i++) {
+                if (field[i] != ' ' && field[i] != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 按第一行确定列数，第一行含非数值字段时作为表头
+         */
+        private void startData() {
+            // 去掉 UTF-8 BOM
+            String first = firstLine.get(0);
+            if (first.startsWith("\uFEFF")) {
+                firstLine.set(0, first.substring(1));
+            }
+            columnCount = firstLine.size();
+            row = new double[columnCount];
+            boolean header = false;
+            for (int i = 0; i < columnCount; i++) {
+                String value = firstLine.get(i);
+                try {
+                    row[i] = value.isEmpty() ? 0.0 : Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    header = true;
+                }
+            }
+            int seriesCount = columnCount == 1 ? 1 : columnCount - 1;
+            bucketer = new StreamingLineBucketer(seriesCount, targetPoints);
+            if (header) {
+                seriesNames = columnCount == 1
+                        ? new String[]{stripQuotes(firstLine.get(0))}
+                        : firstLine.subList(1, columnCount).stream().map(CsvParser::stripQuotes).toArray(String[]::new);
+            } else {
+                addRow();
+            }
+        }
+
+        private void addRow() {
+            if (columnCount == 1) {
+                bucketer.add(bucketer.getRowCount(), row);
+            } else {
+                // X值移出后，row[1..] 即各系列的Y值
+                double x = row[0];
+                System.arraycopy(row, 1, row, 0, columnCount - 1);
+                bucketer.add(x, row);
+            }
+        }
+
+        private static String stripQuotes(String value) {
+            return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                    ? value.substring(1, value.length() - 1) : value;
+        }
+    }
+}
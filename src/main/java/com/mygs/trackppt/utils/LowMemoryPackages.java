@@ -0,0 +1,126 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 低内存生成模式工具类
+ * 预估的单任务内存占用超过 ChartGenerateOptions.memoryBudgetBytes 时，模板先写入临时文件，
+ * 再以基于 ZipFile 的 OPCPackage 打开：未修改的部件（图片、嵌入对象等）按需从文件读取而不常驻堆内存，
+ * 图表嵌入工作簿改用批量写入，不再构建 XSSFWorkbook 对象模型。
+ * <p>
+ * POI 4.1.2 的 ZipInputStreamZipEntrySource 没有“超过阈值写临时文件”的选项（5.x 才提供），
+ * 因此这里直接落盘后按文件打开，效果等同于阈值为 0 的临时文件模式。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class LowMemoryPackages {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowMemoryPackages.class);
+
+    /** 模板解析为 XML 对象模型后的内存膨胀系数（经验值） */
+    static final long TEMPLATE_EXPANSION = 8;
+
+    /** 使用 XSSFCell 填充时每个数据点的内存开销（经验值，含行/单元格对象与图表缓存，字节） */
+    static final long BYTES_PER_POINT = 160;
+
+    private LowMemoryPackages() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 预估单次生成的堆内存占用
+     *
+     * @param templateBytes 模板文件大小
+     * @param dataPoints    数据点数量
+     */
+    public static long estimateFootprint(long templateBytes, long dataPoints) {
+        return templateBytes * TEMPLATE_EXPANSION + dataPoints * BYTES_PER_POINT;
+    }
+
+    /**
+     * 是否应使用低内存模式：设置了内存预算且预估占用超过预算
+     */
+    public static boolean exceedsBudget(ChartGenerateOptions options, long templateBytes, long dataPoints) {
+        long budget = options == null ? 0 : options.getMemoryBudgetBytes();
+        return budget > 0 && estimateFootprint(templateBytes, dataPoints) > budget;
+    }
+
+    /**
+     * 将模板写入临时文件并以文件方式打开
+     * 返回的 PPT 关闭时丢弃对临时文件的修改并删除临时文件，写出请使用 ppt.write(OutputStream)
+     *
+     * @param templateBytes 模板文件内容
+     * @return 基于临时文件的PPT文档对象，调用方负责关闭
+     * @throws IOException 临时文件写入或模板解析失败
+     */
+    public static XMLSlideShow openSpilled(byte[] templateBytes) throws IOException {
+        File file = TempFile.createTempFile("ppt-template", ".pptx");
+        try {
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(templateBytes);
+            }
+            // READ_WRITE 才允许 write(OutputStream)；关闭时调用 revert，不会回写临时文件
+            OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ_WRITE);
+            try {
+                return new SpilledSlideShow(pkg, file);
+            } catch (RuntimeException e) {
+                pkg.revert();
+                throw e;
+            }
+        } catch (InvalidFormatException e) {
+            deleteQuietly(file);
+            throw new IOException("模板格式错误", e);
+        } catch (RuntimeException | IOException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file.exists() && !file.delete()) {
+            logger.warn("临时文件删除失败: {}", file);
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * 基于临时文件的PPT：关闭时丢弃修改并删除临时文件
+     */
+    private static class SpilledSlideShow extends XMLSlideShow {
+
+        private final File file;
+
+        private boolean closed;
+
+        SpilledSlideShow(OPCPackage pkg, File file) {
+            super(pkg);
+            this.file = file;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                getPackage().revert();
+            } finally {
+                deleteQuietly(file);
+            }
+        }
+    }
+}
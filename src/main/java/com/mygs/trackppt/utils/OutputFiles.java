@@ -0,0 +1,50 @@
+package com.mygs.trackppt.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 输出文件写出工具类
+ * 先写入同目录的 .part 临时文件，全部写出成功后再改名为目标文件：
+ * 生成失败时不会留下空的或写了一半的文档，已有的同名文件保持不变，读取方也不会看到写了一半的文档
+ *
+ * @author z
+ * @since 1.0.0
+ */
+class OutputFiles {
+
+    private OutputFiles() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 经 .part 临时文件写出目标文件，失败时删除临时文件
+     *
+     * @param output  目标文件，所在目录必须已存在
+     * @param content 写出文件内容，输出流由本方法关闭
+     * @throws Exception 生成或写出失败，目标文件未被修改
+     */
+    static void writeAtomically(Path output, Content content) throws Exception {
+        Path part = output.resolveSibling(output.getFileName() + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                content.writeTo(out);
+            }
+            Files.move(part, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * 文件内容
+     */
+    @FunctionalInterface
+    interface Content {
+
+        void writeTo(OutputStream out) throws Exception;
+    }
+}
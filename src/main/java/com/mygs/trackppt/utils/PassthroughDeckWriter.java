@@ -0,0 +1,320 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.poi.ooxml.POIXMLDocument;
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.internal.MemoryPackagePart;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFChart;
+import org.apache.poi.xslf.usermodel.XSLFGraphicFrame;
+import org.apache.poi.xslf.usermodel.XSLFShape;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.xmlbeans.XmlOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.namespace.QName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+
+/**
+ * 直通写出工具类
+ * 只重新序列化生成过程中修改过的部件（幻灯片 XML、图表 XML、嵌入工作簿），
+ * 母版、版式、主题、图片等未修改的部件直接从模板压缩包复制原始压缩数据，不解压也不重新压缩。
+ * <p>
+ * 部件集合与模板不一致（新增或删除了部件）、或修改的部件类型不受支持时，回退为 ppt.write 完整写出。
+ * 文档属性（docProps）按模板原样输出。
+ * <p>
+ * 写出时可分别为 XML 等文本部件与已压缩媒体（图片、音视频、嵌入工作簿）指定 deflate 级别或 STORE，
+ * 见 ChartGenerateOptions.xmlCompressionLevel / mediaCompressionLevel；压缩方式与源条目一致的部件仍直接复制。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class PassthroughDeckWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassthroughDeckWriter.class);
+
+    private static final String CONTENT_TYPES_ENTRY = "[Content_Types].xml";
+
+    private static final String PRESENTATION_NAMESPACE = "http://schemas.openxmlformats.org/presentationml/2006/main";
+
+    /** 压缩级别：使用默认设置（直通写出时沿用模板条目的压缩方式） */
+    public static final int DEFAULT_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+    /** 压缩级别：不压缩，以 STORE 方式存储 */
+    public static final int STORE_LEVEL = Deflater.NO_COMPRESSION;
+
+    /** 本身已压缩的媒体扩展名 */
+    private static final Set<String> COMPRESSED_MEDIA_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "jpeg", "jpg", "png", "gif", "tif", "tiff", "mp3", "m4a", "mp4", "m4v", "mov", "wmv", "wma",
+            "xlsx", "xlsm", "docx", "pptx", "zip"));
+
+    private PassthroughDeckWriter() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 写出PPT，未修改的部件从模板直接复制
+     *
+     * @param ppt           基于 templateBytes 打开并修改过的PPT
+     * @param templateBytes 模板文件内容，为 null 时使用 ppt.write 完整写出
+     * @param modifiedParts 修改过的文档部件（幻灯片、图表）
+     * @param out           输出流，由调用方负责关闭
+     * @return 是否使用了直通写出，false 表示已回退为完整写出
+     * @throws IOException 写出失败
+     */
+    public static boolean write(XMLSlideShow ppt, byte[] templateBytes,
+                                Collection<? extends POIXMLDocumentPart> modifiedParts, OutputStream out) throws IOException {
+        return write(ppt, templateBytes, modifiedParts, null, out);
+    }
+
+    /**
+     * 按压缩设置写出PPT，未修改且压缩方式不变的部件从模板直接复制
+     *
+     * @param ppt           基于 templateBytes 打开并修改过的PPT
+     * @param templateBytes 模板文件内容，为 null 时完整写出
+     * @param modifiedParts 修改过的文档部件（幻灯片、图表）
+     * @param options       生成选项（XML 部件与已压缩媒体的压缩级别），可为 null
+     * @param out           输出流，由调用方负责关闭
+     * @return 是否使用了直通写出，false 表示已回退为完整写出
+     * @throws IOException 写出失败
+     */
+    public static boolean write(XMLSlideShow ppt, byte[] templateBytes, Collection<? extends POIXMLDocumentPart> modifiedParts,
+                                ChartGenerateOptions options, OutputStream out) throws IOException {
+        int xmlLevel = options == null ? DEFAULT_LEVEL : checkLevel(options.getXmlCompressionLevel());
+        int mediaLevel = options == null ? DEFAULT_LEVEL : checkLevel(options.getMediaCompressionLevel());
+        if (templateBytes != null) {
+            try (ZipFile template = new ZipFile(new SeekableInMemoryByteChannel(templateBytes))) {
+                Map<String, byte[]> modified = serializeModified(ppt, template, modifiedParts);
+                if (modified != null) {
+                    writeEntries(template, modified, xmlLevel, mediaLevel, out);
+                    return true;
+                }
+            }
+        }
+        writeFull(ppt, xmlLevel, mediaLevel, out);
+        return false;
+    }
+
+    /**
+     * 按生成选项写出：开启直通写出且给出了模板字节时只写出修改过的部件，否则完整写出；两种方式均应用压缩设置
+     *
+     * @param templateBytes 打开该PPT所用的模板字节（PptTemplateCache.OpenedTemplate），
+     *                      非模板缓存或低内存模式打开的PPT传 null
+     */
+    static void writeDeck(XMLSlideShow ppt, byte[] templateBytes, Collection<? extends POIXMLDocumentPart> modifiedParts,
+                          ChartGenerateOptions options, OutputStream out) throws IOException {
+        write(ppt, options.isPassthroughWrite() ? templateBytes : null, modifiedParts, options, out);
+    }
+
+    /**
+     * 是否为本身已压缩的媒体（图片、音视频、嵌入的 Office 文档），再次 deflate 基本没有收益
+     */
+    static boolean isCompressedMedia(String entryName) {
+        int dot = entryName.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_MEDIA_EXTENSIONS.contains(entryName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 完整写出；设置了压缩级别时，POI 固定以默认级别写出，需要再按设置重新压缩一次
+     */
+    private static void writeFull(XMLSlideShow ppt, int xmlLevel, int mediaLevel, OutputStream out) throws IOException {
+        if (xmlLevel == DEFAULT_LEVEL && mediaLevel == DEFAULT_LEVEL) {
+            ppt.write(out);
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ppt.write(buffer);
+        try (ZipFile written = new ZipFile(new SeekableInMemoryByteChannel(buffer.toByteArray()))) {
+            writeEntries(written, Collections.emptyMap(), xmlLevel, mediaLevel, out);
+        }
+    }
+
+    /**
+     * 按源压缩包的条目顺序写出：替换内容的条目重新压缩，其余条目压缩方式不变时复制原始压缩数据
+     */
+    private static void writeEntries(ZipFile source, Map<String, byte[]> replaced, int xmlLevel, int mediaLevel,
+                                     OutputStream out) throws IOException {
+        // 关闭 zip 输出流时不关闭调用方的输出流
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(new CountingOutputStream(out))) {
+            Enumeration<ZipArchiveEntry> entries = source.getEntriesInPhysicalOrder();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry entry = entries.nextElement();
+                int level = isCompressedMedia(entry.getName()) ? mediaLevel : xmlLevel;
+                byte[] content = replaced.get(entry.getName());
+                if (content == null) {
+                    if (level == DEFAULT_LEVEL || (level == STORE_LEVEL && entry.getMethod() == ZipEntry.STORED)) {
+                        zos.addRawArchiveEntry(entry, source.getRawInputStream(entry));
+                        continue;
+                    }
+                    try (InputStream in = source.getInputStream(entry)) {
+                        content = IOUtils.toByteArray(in);
+                    }
+                }
+                putEntry(zos, entry.getName(), entry.getMethod(), level, content);
+            }
+        }
+    }
+
+    private static int checkLevel(int level) {
+        if (level < DEFAULT_LEVEL || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("压缩级别应为 -1~9: " + level);
+        }
+        return level;
+    }
+
+    /**
+     * 按形状顺序获取幻灯片上的全部图表
+     */
+    public static List<XSLFChart> chartsOf(XSLFSlide slide) {
+        List<XSLFChart> charts = new ArrayList<>();
+        for (XSLFShape shape : slide.getShapes()) {
+            if (shape instanceof XSLFGraphicFrame) {
+                XSLFChart chart = ((XSLFGraphicFrame) shape).getChart();
+                if (chart != null) {
+                    charts.add(chart);
+                }
+            }
+        }
+        return charts;
+    }
+
+    /**
+     * 序列化修改过的部件，返回压缩包条目名称 -> 新内容；无法直通写出时返回 null
+     */
+    private static Map<String, byte[]> serializeModified(XMLSlideShow ppt, ZipFile template,
+                                                         Collection<? extends POIXMLDocumentPart> modifiedParts)
+            throws IOException {
+        // 部件集合必须与模板一致，否则 [Content_Types].xml 与关系部件都需要重新生成
+        Set<String> templateEntries = new HashSet<>();
+        for (ZipArchiveEntry entry : Collections.list(template.getEntries())) {
+            templateEntries.add(entry.getName());
+        }
+        templateEntries.remove(CONTENT_TYPES_ENTRY);
+        List<PackagePart> parts;
+        try {
+            parts = ppt.getPackage().getParts();
+        } catch (InvalidFormatException e) {
+            throw new IOException(e);
+        }
+        if (parts.size() != templateEntries.size()) {
+            logger.debug("部件数量与模板不一致，回退为完整写出");
+            return null;
+        }
+
+        Map<String, byte[]> modified = new HashMap<>();
+        for (PackagePart part : parts) {
+            String entryName = IncrementalChartUpdater.entryName(part.getPartName().getName());
+            if (!templateEntries.contains(entryName)) {
+                logger.debug("模板中不存在部件{}，回退为完整写出", part.getPartName());
+                return null;
+            }
+            // 内容被直接写入过的部件（如批量写入的嵌入工作簿）
+            if (part instanceof MemoryPackagePart) {
+                try (InputStream in = part.getInputStream()) {
+                    modified.put(entryName, IOUtils.toByteArray(in));
+                }
+            }
+        }
+
+        for (POIXMLDocumentPart documentPart : modifiedParts) {
+            String entryName = IncrementalChartUpdater.entryName(documentPart.getPackagePart().getPartName().getName());
+            XmlOptions xmlOptions = new XmlOptions(DEFAULT_XML_OPTIONS);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            if (documentPart instanceof XSLFSlide) {
+                xmlOptions.setSaveSyntheticDocumentElement(new QName(PRESENTATION_NAMESPACE, "sld"));
+                ((XSLFSlide) documentPart).getXmlObject().save(buffer, xmlOptions);
+            } else if (documentPart instanceof XSLFChart) {
+                XSLFChart chart = (XSLFChart) documentPart;
+                xmlOptions.setSaveSyntheticDocumentElement(
+                        new QName(EmbeddedSheetWriter.CHART_NAMESPACE, "chartSpace", "c"));
+                chart.getCTChartSpace().save(buffer, xmlOptions);
+                serializeWorkbook(chart, modified);
+            } else {
+                logger.debug("不支持直通写出的部件类型{}，回退为完整写出", documentPart.getClass().getSimpleName());
+                return null;
+            }
+            modified.put(entryName, buffer.toByteArray());
+        }
+        return modified;
+    }
+
+    /**
+     * 序列化图表的嵌入工作簿：已被批量写入的部件直接使用部件内容，否则保存图表持有的 XSSFWorkbook
+     */
+    private static void serializeWorkbook(XSLFChart chart, Map<String, byte[]> modified) throws IOException {
+        PackagePart chartPart = chart.getPackagePart();
+        PackagePart worksheetPart;
+        try {
+            PackageRelationshipCollection rels = chartPart.getRelationshipsByType(POIXMLDocument.PACK_OBJECT_REL_TYPE);
+            if (rels.size() == 0) {
+                return;
+            }
+            worksheetPart = chartPart.getRelatedPart(rels.getRelationship(0));
+        } catch (InvalidFormatException e) {
+            throw new IOException(e);
+        }
+        String entryName = IncrementalChartUpdater.entryName(worksheetPart.getPartName().getName());
+        if (worksheetPart instanceof MemoryPackagePart) {
+            return;
+        }
+        XSSFWorkbook workbook;
+        try {
+            workbook = chart.getWorkbook();
+        } catch (InvalidFormatException e) {
+            throw new IOException(e);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        workbook.write(buffer);
+        modified.put(entryName, buffer.toByteArray());
+    }
+
+    /**
+     * 写入一个条目：级别为 0 时直接存储，为 -1 时沿用源条目的压缩方式并使用默认级别，否则按指定级别 deflate
+     */
+    private static void putEntry(ZipArchiveOutputStream zos, String name, int sourceMethod, int level, byte[] content)
+            throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        if (level == STORE_LEVEL || (level == DEFAULT_LEVEL && sourceMethod == ZipEntry.STORED)) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCrc(crc.getValue());
+        } else {
+            entry.setMethod(ZipEntry.DEFLATED);
+            zos.setLevel(level);
+        }
+        zos.putArchiveEntry(entry);
+        zos.write(content);
+        zos.closeArchiveEntry();
+    }
+}
@@ -0,0 +1,132 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 饼图数据聚合工具类
+ * 按生成选项保留数值最大的 N 个类别，其余类别合并为“其他”扇区。
+ * 只遍历一次输入数据，用容量为 N 的小顶堆选出前 N 项，复杂度 O(n log N)，不对全部类别排序；
+ * 是否按数值降序排列可选，不排序时保留输入中的原始顺序。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class PieChartAggregator {
+
+    /** 默认的其他扇区名称 */
+    public static final String DEFAULT_OTHER_LABEL = "其他";
+
+    private PieChartAggregator() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 按生成选项聚合饼图数据，未设置前 N 项且不排序时原样返回
+     *
+     * @param pieData 饼图数据，键为类别名称，值为数值
+     * @param options 生成选项（pieTopN、pieSortByValue、pieOtherLabel）
+     * @return 聚合后的饼图数据
+     */
+    public static Map<String, Double> aggregate(Map<String, Double> pieData, ChartGenerateOptions options) {
+        if (options == null) {
+            return pieData;
+        }
+        return topN(pieData, options.getPieTopN(), options.isPieSortByValue(), options.getPieOtherLabel());
+    }
+
+    /**
+     * 保留数值最大的 topN 个类别，其余合并为其他扇区
+     *
+     * @param pieData      饼图数据，键为类别名称，值为数值
+     * @param topN         保留的类别数，小于等于 0 表示不限制
+     * @param sortByValue  是否按数值降序排列，否则保留输入顺序（其他扇区始终在最后）
+     * @param otherLabel   其他扇区名称，为空时使用“其他”
+     * @return 聚合后的饼图数据
+     */
+    public static Map<String, Double> topN(Map<String, Double> pieData, int topN, boolean sortByValue, String otherLabel) {
+        if (pieData == null || pieData.isEmpty()) {
+            return pieData;
+        }
+        boolean limited = topN > 0 && topN < pieData.size();
+        if (!limited && !sortByValue) {
+            return pieData;
+        }
+        int capacity = limited ? topN : pieData.size();
+
+        // 小顶堆：堆顶为当前保留项中数值最小的一项，数值相同时先淘汰输入中靠后的一项
+        PriorityQueue<Slice> heap = new PriorityQueue<>(capacity, Comparator
+                .comparingDouble((Slice slice) -> slice.value)
+                .thenComparing(Comparator.comparingInt((Slice slice) -> slice.index).reversed()));
+        double otherSum = 0;
+        int otherCount = 0;
+        int index = 0;
+        for (Map.Entry<String, Double> entry : pieData.entrySet()) {
+            double value = entry.getValue();
+            if (heap.size() < capacity) {
+                heap.add(new Slice(entry.getKey(), value, index));
+            } else if (value > heap.peek().value) {
+                Slice evicted = heap.poll();
+                otherSum += evicted.value;
+                otherCount++;
+                heap.add(new Slice(entry.getKey(), value, index));
+            } else {
+                otherSum += value;
+                otherCount++;
+            }
+            index++;
+        }
+
+        Slice[] kept = heap.toArray(new Slice[0]);
+        if (sortByValue) {
+            Arrays.sort(kept, Comparator.comparingDouble((Slice slice) -> slice.value).reversed()
+                    .thenComparingInt(slice -> slice.index));
+        } else {
+            Arrays.sort(kept, Comparator.comparingInt(slice -> slice.index));
+        }
+        Map<String, Double> result = new LinkedHashMap<>(kept.length * 4 / 3 + 2);
+        for (Slice slice : kept) {
+            result.put(slice.name, slice.value);
+        }
+        if (otherCount > 0) {
+            String label = otherLabel == null || otherLabel.isEmpty() ? DEFAULT_OTHER_LABEL : otherLabel;
+            // 其他扇区与保留的类别重名时合并到该类别
+            result.merge(label, otherSum, Double::sum);
+        }
+        return result;
+    }
+
+    /**
+     * 聚合后的扇区数，用于在加载模板前估算数据规模
+     */
+    static int sliceCount(Map<String, Double> pieData, ChartGenerateOptions options) {
+        if (pieData == null) {
+            return 0;
+        }
+        int topN = options == null ? 0 : options.getPieTopN();
+        return topN > 0 && topN < pieData.size() ? topN + 1 : pieData.size();
+    }
+
+    /**
+     * 堆中的一个类别及其在输入中的位置
+     */
+    private static final class Slice {
+
+        private final String name;
+
+        private final double value;
+
+        private final int index;
+
+        private Slice(String name, double value, int index) {
+            this.name = name;
+            this.value = value;
+            this.index = index;
+        }
+    }
+}
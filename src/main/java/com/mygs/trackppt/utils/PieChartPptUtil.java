@@ -1,6 +1,9 @@
 package com.mygs.trackppt.utils;
 
 import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.constant.ChartType;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
 import com.mygs.trackppt.pojo.PieChartData;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xddf.usermodel.chart.XDDFChartData;
@@ -12,16 +15,19 @@ import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFRow;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTPieChart;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTPieSer;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTPlotArea;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.ResourceUtils;
 
-import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * PPT饼图生成工具类
@@ -40,34 +46,213 @@ public class PieChartPptUtil {
      * @return 是否生成成功
      */
     public static boolean generatePieChartPPT(String templateFilePath, String outputFilePath, PieChartData pieChartData, int pageNumber) {
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.PIE, options);
+        boolean success = false;
         try {
-            // 从资源路径加载PPT模板文件
-            InputStream fis = ResourceUtils.getURL(templateFilePath).openStream();
-            // 创建XMLSlideShow对象，表示一个PPT演示文稿
-            XMLSlideShow ppt = new XMLSlideShow(fis);
-            // 关闭输入流
-            fis.close();
-            // 调用makePPT方法生成PPT内容
-            makePPT(pageNumber, pieChartData, ppt);
-
-            // 修改完 ppt 后保存
-            try (FileOutputStream out = new FileOutputStream(outputFilePath)) {
-                // 将修改后的PPT写入输出流
-                ppt.write(out);
-                // 刷新输出流
-                out.flush();
+            // 从模板缓存创建XMLSlideShow对象，表示一个PPT演示文稿
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options, pointCount(pieChartData, options), diagnostics);
+            try (XMLSlideShow ppt = opened.ppt) {
+                // 修改完 ppt 后经临时文件保存，生成成功后才替换输出文件
+                OutputFiles.writeAtomically(Paths.get(outputFilePath), out -> writePieChartPPT(ppt, out, templateFilePath,
+                        opened.templateBytes, pieChartData, pageNumber, options, diagnostics));
+            }
+
+            success = true;
+            return true;
+
+        } catch (Exception e) {
+            logger.error("饼图PPT生成失败", e);
+            return false;
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
+
+    /**
+     * 生成PPT饼图并写入输出流（如HTTP响应流、内存缓冲区），不产生临时文件
+     * 输出流由调用方负责关闭；需要写入 WritableByteChannel 时可使用 Channels.newOutputStream 包装
+     *
+     * @param templateFilePath 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param pieChartData     饼图数据
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @return 是否生成成功
+     */
+    public static boolean generatePieChartPPT(String templateFilePath, OutputStream outputStream, PieChartData pieChartData, int pageNumber) {
+        return generatePieChartPPT(templateFilePath, outputStream, pieChartData, pageNumber, new ChartGenerateOptions());
+    }
+
+    /**
+     * 按生成选项生成PPT饼图并写入输出流
+     *
+     * @param templateFilePath 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流，由调用方负责关闭
+     * @param pieChartData     饼图数据
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param options          生成选项
+     * @return 是否生成成功
+     */
+    public static boolean generatePieChartPPT(String templateFilePath, OutputStream outputStream, PieChartData pieChartData,
+                                              int pageNumber, ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.PIE, options);
+        boolean success = false;
+        try {
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options, pointCount(pieChartData, options), diagnostics);
+            XMLSlideShow ppt = opened.ppt;
+            writePieChartPPT(ppt, outputStream, templateFilePath, opened.templateBytes, pieChartData, pageNumber, options, diagnostics);
+            success = true;
+            return true;
+        } catch (Exception e) {
+            logger.error("饼图PPT生成失败", e);
+            return false;
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
+
+    /**
+     * 按图表名称分别填充同一页上的多个饼图并写入输出流，输出流由调用方负责关闭
+     * 图表由模板图表索引直接定位，只有指定的图表被修改和重新序列化
+     *
+     * @param templateFilePath 模板文件路径（经模板缓存加载）
+     * @param outputStream     输出流
+     * @param pageNumber       要修改的幻灯片页码 (从1开始)
+     * @param chartsByName     图形框架名称（如“图表 5”）或ID -> 该图表的饼图数据
+     * @param options          生成选项
+     * @return 是否生成成功，页码或图表名称不存在时返回 false
+     */
+    public static boolean generatePieChartPPT(String templateFilePath, OutputStream outputStream, int pageNumber,
+                                              Map<String, PieChartData> chartsByName, ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.PIE, options);
+        boolean success = false;
+        try {
+            // 先按索引解析全部名称，名称错误时不加载模板
+            TemplateChartIndex index = PptTemplateCache.getChartIndex(templateFilePath);
+            Map<TemplateChartIndex.ChartRef, PieChartData> targets = new LinkedHashMap<>();
+            long pointCount = 0;
+            for (Map.Entry<String, PieChartData> entry : chartsByName.entrySet()) {
+                targets.put(index.require(pageNumber, entry.getKey()), entry.getValue());
+                pointCount += pointCount(entry.getValue(), options);
+            }
+            diagnostics.setSeriesCount(targets.size());
+            diagnostics.setPointCount(pointCount);
+
+            PptTemplateCache.OpenedTemplate opened = PptTemplateCache.openTemplate(templateFilePath, options, pointCount, diagnostics);
+            XMLSlideShow ppt = opened.ppt;
+            try {
+                List<XSLFChart> charts = new ArrayList<>(targets.size());
+                for (Map.Entry<TemplateChartIndex.ChartRef, PieChartData> target : targets.entrySet()) {
+                    XSLFChart chart = TemplateChartIndex.resolve(ppt, target.getKey());
+                    if (chart == null) {
+                        throw new IllegalStateException("PPT中不存在图表: " + target.getKey());
+                    }
+                    PieChartData pieChartData = target.getValue();
+                    fillPieChart(chart, PieChartAggregator.aggregate(pieChartData.getAmountList(), options),
+                            pieChartData.getTitle(), options, diagnostics);
+                    charts.add(chart);
+                }
+                writeDeck(ppt, outputStream, opened.templateBytes, charts, options, diagnostics);
             } finally {
                 ppt.close();
             }
-
+            success = true;
             return true;
+        } catch (Exception e) {
+            logger.error("饼图PPT生成失败", e);
+            return false;
+        } finally {
+            diagnostics.finish(success);
+        }
+    }
 
+    /**
+     * 使用模板字节生成PPT饼图并写入输出流
+     *
+     * @param templateBytes 模板文件内容
+     * @param outputStream  输出流，由调用方负责关闭
+     * @param pieChartData  饼图数据
+     * @param pageNumber    要修改的幻灯片页码 (从1开始)
+     * @return 是否生成成功
+     */
+    public static boolean generatePieChartPPT(byte[] templateBytes, OutputStream outputStream, PieChartData pieChartData, int pageNumber) {
+        return generatePieChartPPT(new ByteArrayInputStream(templateBytes), outputStream, pieChartData, pageNumber);
+    }
+
+    /**
+     * 使用模板输入流生成PPT饼图并写入输出流
+     *
+     * @param templateInputStream 模板输入流，由调用方负责关闭
+     * @param outputStream        输出流，由调用方负责关闭
+     * @param pieChartData        饼图数据
+     * @param pageNumber          要修改的幻灯片页码 (从1开始)
+     * @return 是否生成成功
+     */
+    public static boolean generatePieChartPPT(InputStream templateInputStream, OutputStream outputStream, PieChartData pieChartData, int pageNumber) {
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.PIE, options);
+        boolean success = false;
+        try {
+            diagnostics.beginStage();
+            XMLSlideShow ppt = new XMLSlideShow(templateInputStream);
+            diagnostics.endStage(ChartStage.TEMPLATE_LOAD);
+            writePieChartPPT(ppt, outputStream, null, null, pieChartData, pageNumber, options, diagnostics);
+            success = true;
+            return true;
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("饼图PPT生成失败", e);
             return false;
+        } finally {
+            diagnostics.finish(success);
         }
     }
 
+    private static long pointCount(PieChartData pieChartData, ChartGenerateOptions options) {
+        return pieChartData == null ? 0 : PieChartAggregator.sliceCount(pieChartData.getAmountList(), options);
+    }
+
+    /**
+     * 填充饼图并将PPT写入输出流，完成后关闭PPT文档
+     *
+     * @param templateFilePath 模板文件路径，用于按模板图表索引定位图表；非模板缓存打开的PPT传 null
+     * @param templateBytes    打开该PPT所用的模板字节，用于直通写出；非模板缓存或低内存模式打开的PPT传 null
+     */
+    private static void writePieChartPPT(XMLSlideShow ppt, OutputStream out, String templateFilePath, byte[] templateBytes,
+                                         PieChartData pieChartData, int pageNumber, ChartGenerateOptions options,
+                                         ChartDiagnostics diagnostics) throws IOException {
+        try {
+            List<XSLFChart> charts;
+            if (templateFilePath != null) {
+                // 由模板缓存打开：按模板图表索引直接取得该页的饼图
+                charts = PptTemplateCache.getChartIndex(templateFilePath).resolveAll(ppt, pageNumber);
+                fillPieChartsToPPT(charts, pieChartData.getAmountList(), pieChartData.getTitle(), options, diagnostics);
+            } else {
+                // 获取指定页码的幻灯片并填充饼图数据
+                XSLFSlide slide = ppt.getSlides().get(pageNumber - 1);
+                fillPieChartToPPT(pieChartData.getAmountList(), slide, pieChartData.getTitle(), options, diagnostics);
+                charts = PassthroughDeckWriter.chartsOf(slide);
+            }
+            // 将修改后的PPT写入输出流
+            writeDeck(ppt, out, templateBytes, charts, options, diagnostics);
+        } finally {
+            ppt.close();
+        }
+    }
+
+    /**
+     * 将PPT写入输出流，只有被修改的图表重新序列化
+     */
+    private static void writeDeck(XMLSlideShow ppt, OutputStream out, byte[] templateBytes, List<XSLFChart> charts,
+                                  ChartGenerateOptions options, ChartDiagnostics diagnostics) throws IOException {
+        diagnostics.beginStage();
+        CountingOutputStream counting = new CountingOutputStream(out);
+        PassthroughDeckWriter.writeDeck(ppt, templateBytes, charts, options, counting);
+        // 刷新输出流
+        counting.flush();
+        diagnostics.endStage(ChartStage.WRITE);
+        diagnostics.setOutputBytes(counting.getCount());
+    }
+
     /**
      * 生成PPT的主方法
      *
@@ -76,11 +261,23 @@ public class PieChartPptUtil {
      * @param ppt          XMLSlideShow对象
      */
     public static void makePPT(Integer page, PieChartData pieChartData, XMLSlideShow ppt) {
+        makePPT(page, pieChartData, ppt, new ChartGenerateOptions());
+    }
+
+    /**
+     * 按生成选项生成PPT
+     *
+     * @param page         要修改的幻灯片页码 (从1开始)
+     * @param pieChartData 饼图数据
+     * @param ppt          XMLSlideShow对象
+     * @param options      生成选项
+     */
+    public static void makePPT(Integer page, PieChartData pieChartData, XMLSlideShow ppt, ChartGenerateOptions options) {
         // 获取指定页码的幻灯片
         XSLFSlide slide = ppt.getSlides().get(page - 1);
 
         // 填充图表数据到PPT
-        fillPieChartToPPT(pieChartData.getAmountList(), slide, pieChartData.getTitle());
+        fillPieChartToPPT(pieChartData.getAmountList(), slide, pieChartData.getTitle(), options);
     }
 
     /**
@@ -89,17 +286,17 @@ public class PieChartPptUtil {
      * @return 随机生成的饼图数据，键为类别名称，值为数值
      */
     public static Map<String, Double> generateRandomPieData() {
-        Random rand = new Random();
-        Map<String, Double> pieData = new LinkedHashMap<>();
-        int itemCount = ChartData.PIE_MIN_PIE_ITEMS + rand.nextInt(ChartData.PIE_MAX_PIE_ITEMS - ChartData.PIE_MIN_PIE_ITEMS + 1);
-        // 生成数据项
-        for (int i = 0; i < itemCount; i++) {
-            String category = ChartData.AEROSPACE_TRACKING_TERMS[rand.nextInt(ChartData.AEROSPACE_TRACKING_TERMS.length)];
-            double value = ChartData.PIE_MIN_VALUE + (ChartData.PIE_MAX_VALUE - ChartData.PIE_MIN_VALUE) * rand.nextDouble();
-            pieData.put(category, value);
-        }
+        return generateRandomPieData(ThreadLocalRandom.current().nextLong());
+    }
 
-        return pieData;
+    /**
+     * 按种子生成饼图数据，相同种子总是生成相同的数据
+     *
+     * @param seed 随机种子
+     * @return 饼图数据，键为类别名称（不重复），值为数值
+     */
+    public static Map<String, Double> generateRandomPieData(long seed) {
+        return new SyntheticDataGenerator(seed).randomPieData();
     }
 
     /**
@@ -109,140 +306,287 @@ public class PieChartPptUtil {
      * @param slide      幻灯片
      * @param chartTitle 图表标题
      */
-    private static void fillPieChartToPPT(Map<String, Double> pieData, XSLFSlide slide, String chartTitle) {
-        logger.info("开始填充饼图数据...");
+    static void fillPieChartToPPT(Map<String, Double> pieData, XSLFSlide slide, String chartTitle) {
+        fillPieChartToPPT(pieData, slide, chartTitle, new ChartGenerateOptions());
+    }
+
+    /**
+     * 按生成选项填充饼图数据到PPT
+     *
+     * @param pieData    饼图数据
+     * @param slide      幻灯片
+     * @param chartTitle 图表标题
+     * @param options    生成选项（是否使用批量工作簿写入等）
+     */
+    static void fillPieChartToPPT(Map<String, Double> pieData, XSLFSlide slide, String chartTitle, ChartGenerateOptions options) {
+        ChartDiagnostics diagnostics = ChartDiagnostics.start(ChartType.PIE, options);
+        try {
+            fillPieChartToPPT(pieData, slide, chartTitle, options, diagnostics);
+        } finally {
+            diagnostics.finish(true);
+        }
+    }
+
+    /**
+     * 按生成选项填充饼图数据，阶段耗时与数据规模记录到诊断记录中
+     * 设置了 pieTopN / pieSortByValue 时先聚合数据，只写入保留的类别与其他扇区
+     *
+     * @param pieData     饼图数据
+     * @param slide       幻灯片
+     * @param chartTitle  图表标题
+     * @param options     生成选项
+     * @param diagnostics 诊断记录
+     */
+    static void fillPieChartToPPT(Map<String, Double> pieData, XSLFSlide slide, String chartTitle,
+                                  ChartGenerateOptions options, ChartDiagnostics diagnostics) {
+        boolean detailed = diagnostics.isDetailed(logger);
+        pieData = PieChartAggregator.aggregate(pieData, options);
+        if (pieData != null) {
+            diagnostics.setSeriesCount(1);
+            diagnostics.setPointCount(pieData.size());
+        }
 
         // 遍历幻灯片上的所有形状
         for (XSLFShape shape : slide.getShapes()) {
-            logger.info("遍历形状: " + shape.getClass().getSimpleName());
+            if (detailed) {
+                logger.debug("遍历形状: {}", shape.getClass().getSimpleName());
+            }
 
             // 检查形状是否是图形框架 (图表通常嵌入在图形框架中)
             if (shape instanceof XSLFGraphicFrame) {
-                logger.info("找到图表框架");
                 XSLFGraphicFrame graphicFrame = (XSLFGraphicFrame) shape;
                 // 获取图形框架中的图表对象
                 XSLFChart chart = graphicFrame.getChart();
 
                 // 如果找到了图表对象
-                if (chart != null) {
-                    logger.info("获取到图表对象");
-                    try {
-                        // 获取图表中的Excel工作簿，图表数据存储在嵌入的Excel中
-                        XSSFWorkbook workbook = chart.getWorkbook();
-                        // 获取工作簿的第一个工作表
-                        XSSFSheet sheet = workbook.getSheetAt(0);
-
-                        logger.info("获取到工作簿和工作表");
-
-                        // 检查输入数据是否为空
-                        if (pieData == null || pieData.isEmpty()) {
-                            logger.warn("警告：输入数据为空");
-                            return;
-                        }
-
-                        // 清空现有数据 - 避免直接删除表格对象（可能导致死循环）
-                        // 先清空所有行
-                        int lastRowNum = sheet.getLastRowNum();
-                        for (int i = lastRowNum; i >= 0; i--) {
-                            XSSFRow row = sheet.getRow(i);
-                            if (row != null) {
-                                sheet.removeRow(row);
-                            }
-                        }
-
-                        logger.info("清空了现有数据");
-
-                        // 创建标题行（第一行）
-                        // 根据Excel表格要求和修复信息，第一列名称不能为空
-                        XSSFRow headerRow = sheet.createRow(0);
-
-                        // A1单元格：设置为" "（符合Excel表格列名要求）
-                        XSSFCell a1Cell = headerRow.createCell(0);
-                        a1Cell.setCellValue(" ");
-
-                        // B1单元格设置饼图名称
-                        XSSFCell b1Cell = headerRow.createCell(1);
-                        b1Cell.setCellValue(chartTitle);
-
-                        logger.info("创建了标题行: A1= , B1=" + chartTitle);
-
-                        // 填充数据行：从第二行开始
-                        int rowIndex = 1;
-                        for (Map.Entry<String, Double> entry : pieData.entrySet()) {
-                            XSSFRow dataRow = sheet.createRow(rowIndex);
-
-                            // A列：类别名称
-                            XSSFCell categoryCell = dataRow.createCell(0);
-                            categoryCell.setCellValue(entry.getKey());
-
-                            // B列：数值
-                            XSSFCell valueCell = dataRow.createCell(1);
-                            valueCell.setCellValue(entry.getValue());
-
-                            logger.info("填充数据行 " + rowIndex + ": " + entry.getKey() + " = " + entry.getValue());
-                            rowIndex++;
-                        }
-
-                        logger.info("填充了" + pieData.size() + "行数据");
-
-                        // 强制Excel工作簿重新计算公式，确保图表数据更新
-                        sheet.setForceFormulaRecalculation(true);
-                        workbook.setForceFormulaRecalculation(true);
-
-                        // 获取图表数据
-                        List<XDDFChartData> chartDataList = chart.getChartSeries();
-                        if (chartDataList.isEmpty()) {
-                            logger.warn("警告：图表中没有数据系列");
-                            return;
-                        }
-
-                        // 获取第一个图表数据对象
-                        XDDFChartData xddfChartData = chartDataList.get(0);
-                        logger.info("图表类型: " + xddfChartData.getClass().getSimpleName());
-
-                        // 设置饼图数据源
-                        // 类别数据源：A列（从第2行开始，即rowIndex=1）
-                        XDDFDataSource<String> categories = XDDFDataSourcesFactory.fromStringCellRange(sheet,
-                                new CellRangeAddress(1, pieData.size(), 0, 0));
-
-                        // 数值数据源：B列（从第2行开始，即rowIndex=1）
-                        XDDFNumericalDataSource values = XDDFDataSourcesFactory.fromNumericCellRange(sheet,
-                                new CellRangeAddress(1, pieData.size(), 1, 1));
-
-                        logger.info("设置数据源范围: 类别(1," + pieData.size() + ",0,0), 数值(1," + pieData.size() + ",1,1)");
-
-                        // 清除所有现有系列
-                        while (xddfChartData.getSeriesCount() > 0) {
-                            xddfChartData.removeSeries(0);
-                        }
-                        logger.info("清除了所有现有系列");
-
-                        // 添加饼图数据系列
-                        XDDFChartData.Series pieSeries = xddfChartData.addSeries(categories, values);
-                        pieSeries.setTitle(chartTitle, null);
-
-                        logger.info("添加了饼图数据系列");
-
-                        // 设置图表标题
-                        if (chartTitle != null && !chartTitle.trim().isEmpty()) {
-                            try {
-                                chart.setTitleText(chartTitle);
-                                logger.info("设置图表标题: " + chartTitle);
-                            } catch (Exception titleException) {
-                                logger.error("设置图表标题时出错: " + titleException.getMessage());
-                            }
-                        }
-
-                        // 重新绘图，使更改生效
-                        chart.plot(xddfChartData);
-                        logger.info("重新绘制图表");
-
-                    } catch (Exception e) {
-                        logger.error("填充饼图数据时出错: " + e.getMessage());
-                        e.printStackTrace();
-                    }
+                if (chart != null && !fillPieChart(chart, pieData, chartTitle, options, diagnostics)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 按模板图表索引填充指定的饼图，不遍历幻灯片上的形状
+     *
+     * @param charts      由模板图表索引取得的图表
+     * @param pieData     饼图数据
+     * @param chartTitle  图表标题
+     * @param options     生成选项
+     * @param diagnostics 诊断记录
+     */
+    static void fillPieChartsToPPT(List<XSLFChart> charts, Map<String, Double> pieData, String chartTitle,
+                                   ChartGenerateOptions options, ChartDiagnostics diagnostics) {
+        pieData = PieChartAggregator.aggregate(pieData, options);
+        if (pieData != null) {
+            diagnostics.setSeriesCount(1);
+            diagnostics.setPointCount(pieData.size());
+        }
+        for (XSLFChart chart : charts) {
+            if (!fillPieChart(chart, pieData, chartTitle, options, diagnostics)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 填充单个饼图：写入嵌入工作簿、重建数据系列并设置标题
+     *
+     * @param chart       图表
+     * @param pieData     饼图数据（已按生成选项聚合）
+     * @param chartTitle  图表标题
+     * @param options     生成选项
+     * @param diagnostics 诊断记录
+     * @return 输入数据为空或图表中没有数据系列时返回 false，不再填充后续图表
+     * @throws IllegalStateException 批量填充中途失败（图表已被部分修改）
+     */
+    static boolean fillPieChart(XSLFChart chart, Map<String, Double> pieData, String chartTitle,
+                                ChartGenerateOptions options, ChartDiagnostics diagnostics) {
+        boolean detailed = diagnostics.isDetailed(logger);
+        if (detailed) {
+            logger.debug("获取到图表对象: {}", chart.getPackagePart().getPartName());
+        }
+        // 批量写入：直接生成嵌入工作簿与图表缓存，不经过 XSSFCell 对象模型
+        if ((options.isBulkSheetWriter() || diagnostics.isLowMemory()) && pieData != null && !pieData.isEmpty()) {
+            try {
+                diagnostics.beginStage();
+                boolean filled = fillPieChartBulk(chart, pieData, chartTitle, detailed);
+                diagnostics.endStage(ChartStage.SHEET_FILL);
+                if (filled) {
+                    return true;
+                }
+            } catch (Exception e) {
+                // 此时嵌入工作簿可能已替换、原有系列已删除，不能回退到常规填充，也不能按成功处理
+                throw new IllegalStateException("批量填充饼图数据失败", e);
+            }
+        }
+        try {
+            diagnostics.beginStage();
+            // 获取图表中的Excel工作簿，图表数据存储在嵌入的Excel中
+            XSSFWorkbook workbook = chart.getWorkbook();
+            // 获取工作簿的第一个工作表
+            XSSFSheet sheet = workbook.getSheetAt(0);
+
+            // 检查输入数据是否为空
+            if (pieData == null || pieData.isEmpty()) {
+                logger.warn("警告：输入数据为空");
+                return false;
+            }
+
+            // 清空现有数据 - 避免直接删除表格对象（可能导致死循环）
+            // 先清空所有行
+            int lastRowNum = sheet.getLastRowNum();
+            for (int i = lastRowNum; i >= 0; i--) {
+                XSSFRow row = sheet.getRow(i);
+                if (row != null) {
+                    sheet.removeRow(row);
+                }
+            }
+
+            // 创建标题行（第一行）
+            // 根据Excel表格要求和修复信息，第一列名称不能为空
+            XSSFRow headerRow = sheet.createRow(0);
+
+            // A1单元格：设置为" "（符合Excel表格列名要求）
+            XSSFCell a1Cell = headerRow.createCell(0);
+            a1Cell.setCellValue(" ");
+
+            // B1单元格设置饼图名称
+            XSSFCell b1Cell = headerRow.createCell(1);
+            b1Cell.setCellValue(chartTitle);
+
+            // 填充数据行：从第二行开始
+            int rowIndex = 1;
+            for (Map.Entry<String, Double> entry : pieData.entrySet()) {
+                XSSFRow dataRow = sheet.createRow(rowIndex);
+
+                // A列：类别名称
+                XSSFCell categoryCell = dataRow.createCell(0);
+                categoryCell.setCellValue(entry.getKey());
+
+                // B列：数值
+                XSSFCell valueCell = dataRow.createCell(1);
+                valueCell.setCellValue(entry.getValue());
+
+                if (detailed) {
+                    logger.debug("填充数据行 {}: {} = {}", rowIndex, entry.getKey(), entry.getValue());
                 }
+                rowIndex++;
             }
+
+            // 强制Excel工作簿重新计算公式，确保图表数据更新
+            sheet.setForceFormulaRecalculation(true);
+            workbook.setForceFormulaRecalculation(true);
+            diagnostics.endStage(ChartStage.SHEET_FILL);
+
+            diagnostics.beginStage();
+
+            // 获取图表数据
+            List<XDDFChartData> chartDataList = chart.getChartSeries();
+            if (chartDataList.isEmpty()) {
+                logger.warn("警告：图表中没有数据系列");
+                return false;
+            }
+
+            // 获取第一个图表数据对象
+            XDDFChartData xddfChartData = chartDataList.get(0);
+            if (detailed) {
+                logger.debug("图表类型: {}", xddfChartData.getClass().getSimpleName());
+            }
+
+            // 设置饼图数据源
+            // 类别数据源：A列（从第2行开始，即rowIndex=1）
+            XDDFDataSource<String> categories = XDDFDataSourcesFactory.fromStringCellRange(sheet,
+                    new CellRangeAddress(1, pieData.size(), 0, 0));
+
+            // 数值数据源：B列（从第2行开始，即rowIndex=1）
+            XDDFNumericalDataSource values = XDDFDataSourcesFactory.fromNumericCellRange(sheet,
+                    new CellRangeAddress(1, pieData.size(), 1, 1));
+
+            // 清除所有现有系列
+            while (xddfChartData.getSeriesCount() > 0) {
+                xddfChartData.removeSeries(0);
+            }
+
+            // 添加饼图数据系列
+            XDDFChartData.Series pieSeries = xddfChartData.addSeries(categories, values);
+            pieSeries.setTitle(chartTitle, null);
+
+            // 设置图表标题
+            if (chartTitle != null && !chartTitle.trim().isEmpty()) {
+                try {
+                    chart.setTitleText(chartTitle);
+                } catch (Exception titleException) {
+                    logger.warn("设置图表标题时出错: {}", titleException.getMessage());
+                }
+            }
+
+            // 重新绘图，使更改生效
+            chart.plot(xddfChartData);
+            diagnostics.endStage(ChartStage.PLOT);
+
+        } catch (Exception e) {
+            logger.error("填充饼图数据时出错", e);
+        }
+        return true;
+    }
+
+    /**
+     * 批量填充饼图：一次性写出嵌入工作簿字节，并直接生成系列的公式引用与缓存，
+     * 不创建 XSSFRow / XSSFCell，也不调用 chart.plot
+     *
+     * @param chart      图表
+     * @param pieData    饼图数据
+     * @param chartTitle 图表标题
+     * @param detailed   是否输出明细日志
+     * @return 图表不是饼图时返回 false，由调用方回退到常规填充
+     * @throws Exception 写入失败
+     */
+    private static boolean fillPieChartBulk(XSLFChart chart, Map<String, Double> pieData, String chartTitle,
+                                            boolean detailed) throws Exception {
+        CTPlotArea plotArea = chart.getCTChart().getPlotArea();
+        if (plotArea.sizeOfPieChartArray() == 0) {
+            return false;
+        }
+        CTPieChart pieChart = plotArea.getPieChartArray(0);
+
+        int count = pieData.size();
+        String[] categories = new String[count];
+        double[] values = new double[count];
+        int index = 0;
+        for (Map.Entry<String, Double> entry : pieData.entrySet()) {
+            categories[index] = entry.getKey();
+            values[index] = entry.getValue() == null ? 0.0 : entry.getValue();
+            index++;
+        }
+
+        // 嵌入工作簿：A列类别，B列数值
+        String[] headers = {" ", chartTitle};
+        EmbeddedSheetWriter.attachWorkbook(chart,
+                EmbeddedSheetWriter.writeWorkbook(headers, categories, new double[][]{values}, count));
+
+        // 图表系列：公式引用 + 缓存
+        while (pieChart.sizeOfSerArray() > 0) {
+            pieChart.removeSer(0);
+        }
+        StringBuilder xml = new StringBuilder(256 + count * 96);
+        xml.append("<xml-fragment xmlns:c=\"").append(EmbeddedSheetWriter.CHART_NAMESPACE).append("\">")
+                .append("<c:idx val=\"0\"/><c:order val=\"0\"/>")
+                .append("<c:tx><c:v>").append(EmbeddedSheetWriter.escapeXml(chartTitle)).append("</c:v></c:tx>")
+                .append("<c:cat>");
+        EmbeddedSheetWriter.appendStrRef(xml, EmbeddedSheetWriter.rangeFormula(0, 1, count), categories, count);
+        xml.append("</c:cat><c:val>");
+        EmbeddedSheetWriter.appendNumRef(xml, EmbeddedSheetWriter.rangeFormula(1, 1, count), values, count);
+        xml.append("</c:val></xml-fragment>");
+        pieChart.addNewSer().set(CTPieSer.Factory.parse(xml.toString()));
+        if (detailed) {
+            logger.debug("批量填充了{}行饼图数据", count);
+        }
+
+        // 设置图表标题
+        if (chartTitle != null && !chartTitle.trim().isEmpty()) {
+            chart.setTitleText(chartTitle);
         }
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.PieChartData;
+import org.apache.poi.xddf.usermodel.chart.AxisPosition;
+import org.apache.poi.xddf.usermodel.chart.ChartTypes;
+import org.apache.poi.xddf.usermodel.chart.XDDFChartData;
+import org.apache.poi.xddf.usermodel.chart.XDDFDataSource;
+import org.apache.poi.xddf.usermodel.chart.XDDFDataSourcesFactory;
+import org.apache.poi.xddf.usermodel.chart.XDDFNumericalDataSource;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFChart;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.xmlbeans.SchemaType;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTChartSpace;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTPieChart;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTScatterChart;
+import org.openxmlformats.schemas.presentationml.x2006.main.CTPresentation;
+import org.openxmlformats.schemas.presentationml.x2006.main.CTSlide;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorksheet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * POI 预热工具类
+ * 新 JVM 中的第一次生成要加载 poi-ooxml-schemas 的大量类并初始化 XMLBeans 类型系统，耗时是后续生成的数倍。
+ * 短生命周期的命令行 / 批处理可在启动时调用 warmUpInBackground，在解析参数、读取数据的同时于后台完成这部分工作；
+ * 常驻进程（ReportDaemon）在启动时同步调用 warmUp。
+ * main 方法执行一次完整预热并输出从 JVM 启动到首个文档生成完成的耗时，同时作为 appcds profile 生成类数据共享归档的训练入口。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class PoiWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoiWarmUp.class);
+
+    /** 后台预热任务，只启动一次 */
+    private static CompletableFuture<Void> background;
+
+    private PoiWarmUp() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 初始化 XMLSlideShow、XSSFWorkbook 与 XDDF 图表数据的类型系统：
+     * 访问 schema 类型触发类型系统初始化，再在空文档中创建并写出折线（散点）图与饼图，不读取模板
+     */
+    public static void touchSchemaTypes() {
+        SchemaType[] types = {CTPresentation.type, CTSlide.type, CTChartSpace.type, CTScatterChart.type,
+                CTPieChart.type, CTWorkbook.type, CTWorksheet.type};
+        logger.debug("已初始化 {} 个 schema 类型", types.length);
+        try (XMLSlideShow ppt = new XMLSlideShow(); XSSFWorkbook workbook = new XSSFWorkbook()) {
+            XSLFSlide slide = ppt.createSlide();
+            Double[] values = {1.0, 2.0, 3.0};
+            XDDFDataSource<Double> xValues = XDDFDataSourcesFactory.fromArray(values);
+            XDDFNumericalDataSource<Double> yValues = XDDFDataSourcesFactory.fromArray(values);
+
+            XSLFChart scatter = ppt.createChart(slide);
+            XDDFChartData scatterData = scatter.createData(ChartTypes.SCATTER,
+                    scatter.createValueAxis(AxisPosition.BOTTOM), scatter.createValueAxis(AxisPosition.LEFT));
+            scatterData.addSeries(xValues, yValues);
+            scatter.plot(scatterData);
+
+            XSLFChart pie = ppt.createChart(slide);
+            XDDFChartData pieData = pie.createData(ChartTypes.PIE, null, null);
+            pieData.addSeries(xValues, yValues);
+            pie.plot(pieData);
+
+            workbook.createSheet().createRow(0).createCell(0).setCellValue(1.0);
+            ppt.write(new DiscardOutputStream());
+            workbook.write(new DiscardOutputStream());
+        } catch (IOException e) {
+            // 写入内存中的空文档不会失败，预热失败也不影响后续生成
+            logger.warn("POI预热失败", e);
+        }
+    }
+
+    /**
+     * 完整预热：初始化类型系统后，用三个内置模板（经模板缓存加载）各生成一次小图表并丢弃结果，
+     * 覆盖模板加载、工作表填充、重新绘图与写出路径上的类
+     */
+    public static void warmUp() {
+        long start = System.nanoTime();
+        touchSchemaTypes();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(0);
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        LineChartPptUtil.generatePPTChart(ChartData.LINE_TEMPLATE_PATH, new DiscardOutputStream(), 1,
+                generator.lineData(2, 16), options);
+        PieChartPptUtil.generatePieChartPPT(ChartData.PIE_TEMPLATE_PATH, new DiscardOutputStream(),
+                new PieChartData("预热", generator.pieData(4)), 1, options);
+        GanttChartPptUtil.generatePPTChart(ChartData.GANTT_TEMPLATE_PATH, new DiscardOutputStream(),
+                new GanttChartData("预热", generator.trackingDevices(4)), options);
+        logger.info("POI预热完成，耗时 {}ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 在后台守护线程中执行完整预热，重复调用返回同一个任务；调用方不必等待，
+     * 预热期间开始的生成会与预热线程共享已完成的类初始化
+     *
+     * @return 预热任务，失败时异常完成
+     */
+    public static synchronized CompletableFuture<Void> warmUpInBackground() {
+        if (background == null) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    warmUp();
+                    future.complete(null);
+                } catch (Throwable e) {
+                    logger.warn("POI后台预热失败", e);
+                    future.completeExceptionally(e);
+                }
+            }, "poi-warm-up");
+            thread.setDaemon(true);
+            thread.start();
+            background = future;
+        }
+        return background;
+    }
+
+    /**
+     * 执行一次完整预热并输出从 JVM 启动到首个文档生成完成的耗时
+     * appcds profile 以 -XX:ArchiveClassesAtExit 运行该方法，归档期间加载的类
+     */
+    public static void main(String[] args) {
+        warmUp();
+        logger.info("JVM启动至首个文档生成完成耗时 {}ms", ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    /**
+     * 丢弃写入内容的输出流
+     */
+    private static final class DiscardOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.PieChartData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PPT并发生成服务
+ * 使用固定数量的工作线程执行图表生成任务，提交队列有界：队列满时提交方阻塞等待（背压），
+ * 避免突发请求同时创建大量 XMLSlideShow / XSSFWorkbook 导致堆内存耗尽。
+ * 每个任务返回 CompletableFuture，支持单任务超时与取消（取消/超时会中断正在执行的工作线程）。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class PptGenerationService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PptGenerationService.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService timeoutScheduler;
+
+    /** 许可数 = 工作线程数 + 队列容量，拿不到许可说明已满，提交方需等待 */
+    private final Semaphore permits;
+
+    /**
+     * 创建生成服务
+     *
+     * @param workerCount   工作线程数
+     * @param queueCapacity 等待队列容量
+     */
+    public PptGenerationService(int workerCount, int queueCapacity) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("workerCount must be positive: " + workerCount);
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity must not be negative: " + queueCapacity);
+        }
+        this.permits = new Semaphore(workerCount + queueCapacity);
+        this.executor = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), namedThreadFactory("ppt-gen-worker"));
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("ppt-gen-timeout"));
+    }
+
+    /**
+     * 提交折线图生成任务，队列已满时阻塞等待
+     *
+     * @param timeoutMillis 任务超时时间（毫秒），小于等于0表示不限制
+     */
+    public CompletableFuture<Boolean> submitLineChart(String templateFilePath, String outputFilePath, int pageNumber,
+                                                      String chartTitle, List<List<Double>> dataList,
+                                                      long timeoutMillis) throws InterruptedException {
+        return submit(() -> LineChartPptUtil.generatePPTChart(templateFilePath, outputFilePath, pageNumber,
+                chartTitle, dataList), timeoutMillis);
+    }
+
+    /**
+     * 提交列式原始类型数据的折线图生成任务，队列已满时阻塞等待
+     *
+     * @param timeoutMillis 任务超时时间（毫秒），小于等于0表示不限制
+     */
+    public CompletableFuture<Boolean> submitLineChart(String templateFilePath, String outputFilePath, int pageNumber,
+                                                      ColumnarLineData lineData,
+                                                      long timeoutMillis) throws InterruptedException {
+        return submit(() -> LineChartPptUtil.generatePPTChart(templateFilePath, outputFilePath, pageNumber, lineData),
+                timeoutMillis);
+    }
+
+    /**
+     * 提交饼图生成任务，队列已满时阻塞等待
+     *
+     * @param timeoutMillis 任务超时时间（毫秒），小于等于0表示不限制
+     */
+    public CompletableFuture<Boolean> submitPieChart(String templateFilePath, String outputFilePath,
+                                                     PieChartData pieChartData, int pageNumber,
+                                                     long timeoutMillis) throws InterruptedException {
+        return submit(() -> PieChartPptUtil.generatePieChartPPT(templateFilePath, outputFilePath, pieChartData,
+                pageNumber), timeoutMillis);
+    }
+
+    /**
+     * 提交甘特图生成任务，队列已满时阻塞等待
+     *
+     * @param timeoutMillis 任务超时时间（毫秒），小于等于0表示不限制
+     */
+    public CompletableFuture<Boolean> submitGanttChart(String templateFilePath, String outputFilePath,
+                                                       GanttChartData ganttChartData,
+                                                       long timeoutMillis) throws InterruptedException {
+        return submit(() -> {
+            GanttChartPptUtil.generatePPTChart(templateFilePath, outputFilePath, ganttChartData);
+            return true;
+        }, timeoutMillis);
+    }
+
+    /**
+     * 提交任意生成任务，队列已满时阻塞直到有空位
+     *
+     * @param job           生成任务
+     * @param timeoutMillis 任务超时时间（毫秒），从提交成功开始计时，小于等于0表示不限制
+     * @return 任务结果
+     * @throws InterruptedException 等待队列空位时被中断
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> job, long timeoutMillis) throws InterruptedException {
+        checkRunning();
+        permits.acquire();
+        return dispatch(job, timeoutMillis);
+    }
+
+    /**
+     * 尝试提交生成任务，在指定时间内等不到队列空位则拒绝
+     *
+     * @param job           生成任务
+     * @param timeoutMillis 任务超时时间（毫秒），小于等于0表示不限制
+     * @param waitMillis    等待队列空位的最长时间（毫秒）
+     * @return 任务结果
+     * @throws RejectedExecutionException 队列已满
+     * @throws InterruptedException       等待队列空位时被中断
+     */
+    public <T> CompletableFuture<T> trySubmit(Callable<T> job, long timeoutMillis, long waitMillis)
+            throws InterruptedException {
+        checkRunning();
+        if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+            throw new RejectedExecutionException("PPT生成队列已满");
+        }
+        return dispatch(job, timeoutMillis);
+    }
+
+    /**
+     * 当前正在执行和排队的任务数
+     */
+    public int getPendingCount() {
+        return executor.getActiveCount() + executor.getQueue().size();
+    }
+
+    /**
+     * 停止接收新任务，等待已提交任务执行完毕
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("PPT生成任务未在1分钟内结束，强制停止");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            timeoutScheduler.shutdownNow();
+        }
+    }
+
+    private <T> CompletableFuture<T> dispatch(Callable<T> job, long timeoutMillis) {
+        Job<T> task = new Job<>(job);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+        if (timeoutMillis > 0) {
+            ScheduledFuture<?> timeout = timeoutScheduler.schedule(() -> {
+                if (task.result.completeExceptionally(
+                        new TimeoutException("PPT生成超时: " + timeoutMillis + "ms"))) {
+                    logger.warn("PPT生成任务超时（{}ms），中断执行", timeoutMillis);
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+            task.result.whenComplete((r, e) -> timeout.cancel(false));
+        }
+        return task.result;
+    }
+
+    private void checkRunning() {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("PPT生成服务已关闭");
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 单个生成任务：结果被提前完成（超时/取消）时中断执行线程；无论是否执行都会归还许可
+     */
+    private class Job<T> implements Runnable {
+
+        private final Callable<T> callable;
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        /** 正在执行该任务的线程，未执行或已结束时为 null */
+        private Thread runner;
+
+        Job(Callable<T> callable) {
+            this.callable = callable;
+            result.whenComplete((r, e) -> interruptRunner());
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (result.isDone()) {
+                    // 排队期间已被取消或超时
+                    return;
+                }
+                synchronized (this) {
+                    runner = Thread.currentThread();
+                }
+                try {
+                    result.complete(callable.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    synchronized (this) {
+                        runner = null;
+                    }
+                    // 清除可能由超时/取消留下的中断标记，避免影响下一个任务
+                    Thread.interrupted();
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        private synchronized void interruptRunner() {
+            if (runner != null && runner != Thread.currentThread()) {
+                runner.interrupt();
+            }
+        }
+    }
+}
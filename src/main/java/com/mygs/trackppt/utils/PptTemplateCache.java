@@ -0,0 +1,289 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ResourceUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PPT模板缓存工具类
+ * 每个模板只从磁盘/类路径读取一次，原始字节常驻内存（按总字节数做LRU淘汰），
+ * 每次生成时基于缓存字节创建独立的 XMLSlideShow 副本，互不影响。
+ * 模板的图表部件索引（TemplateChartIndex）按需构建后与模板字节一同缓存、一同淘汰。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class PptTemplateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PptTemplateCache.class);
+
+    /** 默认缓存上限：64MB */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /** 模板路径 -> 模板原始字节，按访问顺序排列，用于LRU淘汰 */
+    private static final Map<String, byte[]> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 模板路径 -> 图表部件索引，与 CACHE 同步淘汰，由 CACHE 锁保护 */
+    private static final Map<String, TemplateChartIndex> CHART_INDEXES = new HashMap<>();
+
+    private static final AtomicLong HIT_COUNT = new AtomicLong();
+    private static final AtomicLong MISS_COUNT = new AtomicLong();
+    private static final AtomicLong EVICTION_COUNT = new AtomicLong();
+
+    private static long maxBytes = DEFAULT_MAX_BYTES;
+    private static long currentBytes = 0;
+
+    private PptTemplateCache() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * 基于缓存的模板创建一个新的 XMLSlideShow
+     *
+     * @param templateFilePath 模板文件路径（支持 classpath: 前缀）
+     * @return 独立的PPT文档对象，调用方负责关闭
+     * @throws IOException 模板读取失败
+     */
+    public static XMLSlideShow openSlideShow(String templateFilePath) throws IOException {
+        return new XMLSlideShow(new ByteArrayInputStream(getTemplateBytes(templateFilePath)));
+    }
+
+    /**
+     * 基于缓存的模板创建 XMLSlideShow，并将加载耗时与缓存命中情况记录到诊断记录中
+     */
+    static XMLSlideShow openSlideShow(String templateFilePath, ChartDiagnostics diagnostics) throws IOException {
+        return openTemplate(templateFilePath, null, 0, diagnostics).ppt;
+    }
+
+    /**
+     * 基于缓存的模板创建 XMLSlideShow，预估内存占用超过生成选项中的内存预算时改用临时文件打开（低内存模式）
+     *
+     * @param templateFilePath 模板文件路径
+     * @param options          生成选项（内存预算），可为 null
+     * @param dataPoints       本次生成的数据点数量，用于预估内存占用
+     * @param diagnostics      诊断记录
+     * @return 打开的PPT及其来源模板字节
+     */
+    static OpenedTemplate openTemplate(String templateFilePath, ChartGenerateOptions options, long dataPoints,
+                                       ChartDiagnostics diagnostics) throws IOException {
+        diagnostics.beginStage();
+        byte[] bytes = getTemplateBytes(templateFilePath, diagnostics);
+        OpenedTemplate opened;
+        if (LowMemoryPackages.exceedsBudget(options, bytes.length, dataPoints)) {
+            diagnostics.setLowMemory(true);
+            // 基于临时文件打开，不做直通写出
+            opened = new OpenedTemplate(LowMemoryPackages.openSpilled(bytes), null);
+        } else {
+            opened = new OpenedTemplate(new XMLSlideShow(new ByteArrayInputStream(bytes)), bytes);
+        }
+        diagnostics.endStage(ChartStage.TEMPLATE_LOAD);
+        return opened;
+    }
+
+    /**
+     * 获取模板原始字节，未命中时从磁盘/类路径加载并放入缓存
+     * 返回的数组为缓存内部对象，调用方不得修改
+     *
+     * @param templateFilePath 模板文件路径（支持 classpath: 前缀）
+     * @return 模板字节
+     * @throws IOException 模板读取失败
+     */
+    public static byte[] getTemplateBytes(String templateFilePath) throws IOException {
+        return getTemplateBytes(templateFilePath, null);
+    }
+
+    /**
+     * 获取已缓存的模板字节，不计入命中统计；模板未缓存时返回 null
+     */
+    static byte[] peekTemplateBytes(String templateFilePath) {
+        synchronized (CACHE) {
+            return CACHE.get(templateFilePath);
+        }
+    }
+
+    /**
+     * 获取模板的图表部件索引，首次调用时构建并随模板一起缓存；模板未能缓存（超出容量）时每次重新构建
+     *
+     * @param templateFilePath 模板文件路径
+     * @return 图表部件索引
+     * @throws IOException 模板读取或解析失败
+     */
+    public static TemplateChartIndex getChartIndex(String templateFilePath) throws IOException {
+        byte[] bytes;
+        synchronized (CACHE) {
+            TemplateChartIndex index = CHART_INDEXES.get(templateFilePath);
+            if (index != null) {
+                return index;
+            }
+            bytes = CACHE.get(templateFilePath);
+        }
+        if (bytes == null) {
+            bytes = getTemplateBytes(templateFilePath, null);
+        }
+        // 在锁外解析模板
+        TemplateChartIndex index = TemplateChartIndex.build(bytes);
+        synchronized (CACHE) {
+            if (CACHE.get(templateFilePath) == bytes) {
+                TemplateChartIndex existing = CHART_INDEXES.putIfAbsent(templateFilePath, index);
+                return existing == null ? index : existing;
+            }
+        }
+        return index;
+    }
+
+    private static byte[] getTemplateBytes(String templateFilePath, ChartDiagnostics diagnostics) throws IOException {
+        synchronized (CACHE) {
+            byte[] cached = CACHE.get(templateFilePath);
+            if (cached != null) {
+                HIT_COUNT.incrementAndGet();
+                if (diagnostics != null) {
+                    diagnostics.setTemplateCacheHit(Boolean.TRUE);
+                }
+                return cached;
+            }
+        }
+
+        MISS_COUNT.incrementAndGet();
+        if (diagnostics != null) {
+            diagnostics.setTemplateCacheHit(Boolean.FALSE);
+        }
+        // 在锁外读取文件，避免慢IO阻塞其他模板的命中
+        byte[] bytes;
+        try (InputStream in = ResourceUtils.getURL(templateFilePath).openStream()) {
+            bytes = IOUtils.toByteArray(in);
+        }
+        logger.debug("加载模板: {}, 大小: {} 字节", templateFilePath, bytes.length);
+
+        synchronized (CACHE) {
+            byte[] existing = CACHE.get(templateFilePath);
+            if (existing != null) {
+                // 其他线程已并发加载同一模板
+                return existing;
+            }
+            if (bytes.length <= maxBytes) {
+                CACHE.put(templateFilePath, bytes);
+                currentBytes += bytes.length;
+                evictIfNecessary();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 设置缓存总字节上限，超出时按最近最少使用顺序淘汰
+     *
+     * @param newMaxBytes 缓存上限（字节）
+     */
+    public static void setMaxBytes(long newMaxBytes) {
+        if (newMaxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative: " + newMaxBytes);
+        }
+        synchronized (CACHE) {
+            maxBytes = newMaxBytes;
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * 从缓存中移除指定模板，模板文件更新后调用
+     */
+    public static void invalidate(String templateFilePath) {
+        synchronized (CACHE) {
+            byte[] removed = CACHE.remove(templateFilePath);
+            CHART_INDEXES.remove(templateFilePath);
+            if (removed != null) {
+                currentBytes -= removed.length;
+            }
+        }
+    }
+
+    /**
+     * 清空缓存及计数器
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            CHART_INDEXES.clear();
+            currentBytes = 0;
+        }
+        HIT_COUNT.set(0);
+        MISS_COUNT.set(0);
+        EVICTION_COUNT.set(0);
+    }
+
+    public static long getHitCount() {
+        return HIT_COUNT.get();
+    }
+
+    public static long getMissCount() {
+        return MISS_COUNT.get();
+    }
+
+    public static long getEvictionCount() {
+        return EVICTION_COUNT.get();
+    }
+
+    /**
+     * 当前缓存占用的字节数
+     */
+    public static long getCachedBytes() {
+        synchronized (CACHE) {
+            return currentBytes;
+        }
+    }
+
+    /**
+     * 当前缓存的模板数量
+     */
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    /**
+     * 淘汰最久未使用的模板直到满足容量限制，调用方需持有 CACHE 锁
+     */
+    private static void evictIfNecessary() {
+        Iterator<Map.Entry<String, byte[]>> it = CACHE.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            currentBytes -= eldest.getValue().length;
+            it.remove();
+            CHART_INDEXES.remove(eldest.getKey());
+            EVICTION_COUNT.incrementAndGet();
+            logger.debug("淘汰模板缓存: {}", eldest.getKey());
+        }
+    }
+
+    /**
+     * 由模板缓存打开的PPT及打开它所用的模板字节
+     * 直通写出必须使用这份字节：写出时再按路径取缓存，模板可能已被 invalidate 并重新加载为另一份内容
+     */
+    static final class OpenedTemplate {
+
+        /** 打开的PPT，调用方负责关闭 */
+        final XMLSlideShow ppt;
+
+        /** 打开该PPT所用的模板字节，低内存模式（基于临时文件打开）时为 null */
+        final byte[] templateBytes;
+
+        OpenedTemplate(XMLSlideShow ppt, byte[] templateBytes) {
+            this.ppt = ppt;
+            this.templateBytes = templateBytes;
+        }
+    }
+}
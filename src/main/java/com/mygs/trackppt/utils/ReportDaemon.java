@@ -0,0 +1,604 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.constant.ChartType;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.PieChartData;
+import com.mygs.trackppt.pojo.ReportDaemonOptions;
+import com.mygs.trackppt.pojo.TrackingDevice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 常驻报表生成进程
+ * 启动时预加载模板（字节与图表索引进入 PptTemplateCache），并通过 PoiWarmUp 用内置模板各生成一次小图表，
+ * 提前完成 POI / XMLBeans 及 schema 类型的类加载与初始化；此后每个任务只承担自身的生成耗时。
+ * 任务是一组 properties 键值，可通过两种方式提交，均在 PptGenerationService 上执行（有界队列、单任务超时）：
+ * <ul>
+ *     <li>假脱机目录：放入 *.properties 文件（建议先写临时文件再重命名），领取时改名为 .working，
+ *     完成后改名为 .done，失败时改名为 .failed 并写出同名 .error 文件；结果默认写到同目录的 同名.pptx</li>
+ *     <li>本地端口（仅监听回环地址）：每个连接发送一个任务后关闭输出方向，进程回复一行 "OK ..." 或 "ERROR 消息"；
+ *     任务未指定 output 时在 "OK 字节数" 之后直接返回生成的文档</li>
+ * </ul>
+ * 任务键：type（line / pie / gantt）、template（默认为对应的内置模板）、page（默认1）、title、output，
+ * 数据来自 csv（折线图为样本文件；饼图每行“类别,数值”；甘特图每行“设备,开始,结束”）
+ * 或 seed（合成数据，配合 seriesCount / pointCount、categoryCount、deviceCount），
+ * 以 option. 开头的键按名称设置 ChartGenerateOptions 的属性（如 option.passthroughWrite=true）。
+ * csv、template、output 只能是相对路径，在假脱机任务中相对假脱机目录，在端口任务中相对 socketDir
+ * （未配置时端口任务不能引用文件）；绝对路径、经 .. 指向目录之外的路径以及不以 .pptx 结尾的 output 均被拒绝。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public class ReportDaemon implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportDaemon.class);
+
+    private static final String JOB_SUFFIX = ".properties";
+
+    private static final String WORKING_SUFFIX = ".working";
+
+    private static final String OPTION_PREFIX = "option.";
+
+    /** 读取端口任务的超时时间，避免未关闭输出方向的客户端长期占用工作线程 */
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+
+    private final ReportDaemonOptions options;
+
+    private final PptGenerationService service;
+
+    private final AtomicLong completedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private volatile boolean running;
+
+    private ServerSocket serverSocket;
+
+    private Thread acceptThread;
+
+    private Thread spoolThread;
+
+    /**
+     * @param options 进程配置
+     */
+    public ReportDaemon(ReportDaemonOptions options) {
+        if (options.getSpoolDir() == null && options.getPort() < 0) {
+            throw new IllegalArgumentException("假脱机目录与端口至少启用一个");
+        }
+        this.options = options;
+        this.service = new PptGenerationService(options.getWorkerCount(), options.getQueueCapacity());
+    }
+
+    /**
+     * 预加载模板、预热后开始接收任务
+     *
+     * @return 当前实例
+     * @throws IOException 模板加载失败、假脱机目录不可用或端口监听失败
+     */
+    public synchronized ReportDaemon start() throws IOException {
+        if (running) {
+            return this;
+        }
+        long start = System.nanoTime();
+        for (String templatePath : options.getTemplatePaths()) {
+            PptTemplateCache.getTemplateBytes(templatePath);
+            PptTemplateCache.getChartIndex(templatePath);
+        }
+        if (options.isWarmUp()) {
+            PoiWarmUp.warmUp();
+        }
+        logger.info("报表进程预热完成 [模板={}, 耗时={}ms]", options.getTemplatePaths().size(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        running = true;
+        if (options.getSpoolDir() != null) {
+            Files.createDirectories(options.getSpoolDir());
+            recoverSpool();
+            spoolThread = newThread(this::pollSpool, "report-daemon-spool");
+            spoolThread.start();
+            logger.info("报表进程监视假脱机目录: {}", options.getSpoolDir().toAbsolutePath());
+        }
+        if (options.getPort() >= 0) {
+            serverSocket = new ServerSocket(options.getPort(), 50, InetAddress.getLoopbackAddress());
+            acceptThread = newThread(this::acceptConnections, "report-daemon-accept");
+            acceptThread.start();
+            logger.info("报表进程监听端口: {}", serverSocket.getLocalPort());
+        }
+        return this;
+    }
+
+    /**
+     * 实际监听的端口（配置为0时由系统分配），未启用端口时返回 -1
+     */
+    public int getPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    /**
+     * 已成功完成的任务数
+     */
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * 失败的任务数
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 阻塞直到进程关闭
+     */
+    public void awaitClose() throws InterruptedException {
+        closed.await();
+    }
+
+    /**
+     * 停止接收新任务，等待已领取的任务执行完毕
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                logger.warn("关闭监听端口失败", e);
+            }
+        }
+        if (acceptThread != null) {
+            acceptThread.interrupt();
+        }
+        joinQuietly(acceptThread);
+        if (spoolThread != null) {
+            spoolThread.interrupt();
+        }
+        joinQuietly(spoolThread);
+        service.close();
+        closed.countDown();
+    }
+
+    /**
+     * 执行一个任务并将生成的文档写入输出流
+     *
+     * @param job     任务键值
+     * @param baseDir 解析 csv、template 的目录，null 表示任务不能引用文件
+     * @param out     输出流，由调用方负责关闭
+     * @throws Exception 任务参数错误或生成失败
+     */
+    public static void generate(Properties job, Path baseDir, OutputStream out) throws Exception {
+        String type = job.getProperty("type");
+        if (type == null) {
+            throw new IllegalArgumentException("任务缺少 type");
+        }
+        ChartType chartType = ChartType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        ChartGenerateOptions chartOptions = toChartOptions(job);
+        int page = Integer.parseInt(job.getProperty("page", "1").trim());
+        String title = job.getProperty("title", chartType.getLabel());
+        String csv = job.getProperty("csv");
+        String seed = job.getProperty("seed");
+        if (csv == null && seed == null) {
+            throw new IllegalArgumentException("任务缺少数据：需要 csv 或 seed");
+        }
+        Path csvFile = csv == null ? null : resolveJobPath(baseDir, "csv", csv);
+        SyntheticDataGenerator generator = seed == null ? null : new SyntheticDataGenerator(Long.parseLong(seed.trim()));
+
+        boolean success;
+        switch (chartType) {
+            case LINE: {
+                String template = templatePath(job, baseDir, ChartData.LINE_TEMPLATE_PATH);
+                if (csvFile != null) {
+                    success = LineChartPptUtil.generatePPTChartFromCsv(template, out, page, csvFile, title, chartOptions);
+                } else {
+                    ColumnarLineData lineData = generator.lineData(intProperty(job, "seriesCount", 3),
+                            intProperty(job, "pointCount", 1000));
+                    lineData.setTitle(title);
+                    success = LineChartPptUtil.generatePPTChart(template, out, page, lineData, chartOptions);
+                }
+                break;
+            }
+            case PIE: {
+                String template = templatePath(job, baseDir, ChartData.PIE_TEMPLATE_PATH);
+                Map<String, Double> amounts = csvFile != null
+                        ? readPieCsv(csvFile) : generator.pieData(intProperty(job, "categoryCount", 8));
+                success = PieChartPptUtil.generatePieChartPPT(template, out, new PieChartData(title, amounts), page,
+                        chartOptions);
+                break;
+            }
+            case GANTT: {
+                String template = templatePath(job, baseDir, ChartData.GANTT_TEMPLATE_PATH);
+                List<TrackingDevice> devices = csvFile != null
+                        ? readGanttCsv(csvFile) : generator.trackingDevices(intProperty(job, "deviceCount", 20));
+                GanttChartPptUtil.generatePPTChart(template, out, new GanttChartData(title, devices), chartOptions);
+                success = true;
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("不支持的图表类型: " + type);
+        }
+        if (!success) {
+            throw new IOException(chartType.getLabel() + "生成失败，详见日志");
+        }
+    }
+
+    /**
+     * 启动常驻进程，参数：--spool 目录、--port 端口、--socket-dir 端口任务目录、--workers 线程数、--no-warm-up
+     */
+    public static void main(String[] args) throws Exception {
+        ReportDaemonOptions daemonOptions = new ReportDaemonOptions();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--spool":
+                    daemonOptions.setSpoolDir(Paths.get(args[++i]));
+                    break;
+                case "--port":
+                    daemonOptions.setPort(Integer.parseInt(args[++i]));
+                    break;
+                case "--socket-dir":
+                    daemonOptions.setSocketDir(Paths.get(args[++i]));
+                    break;
+                case "--workers":
+                    daemonOptions.setWorkerCount(Integer.parseInt(args[++i]));
+                    break;
+                case "--no-warm-up":
+                    daemonOptions.setWarmUp(false);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: " + args[i]
+                            + "，用法: ReportDaemon [--spool 目录] [--port 端口] [--socket-dir 目录] [--workers 线程数] [--no-warm-up]");
+            }
+        }
+        ReportDaemon daemon = new ReportDaemon(daemonOptions).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::close, "report-daemon-shutdown"));
+        daemon.awaitClose();
+    }
+
+    /**
+     * 上次退出时未完成的任务（.working）恢复为待处理
+     */
+    private void recoverSpool() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(options.getSpoolDir(), "*" + JOB_SUFFIX + WORKING_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Files.move(file, file.resolveSibling(name.substring(0, name.length() - WORKING_SUFFIX.length())),
+                        StandardCopyOption.REPLACE_EXISTING);
+                logger.warn("恢复未完成的任务: {}", name);
+            }
+        }
+    }
+
+    private void pollSpool() {
+        while (running) {
+            try {
+                List<Path> jobs = new ArrayList<>();
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(options.getSpoolDir(), "*" + JOB_SUFFIX)) {
+                    for (Path file : files) {
+                        jobs.add(file);
+                    }
+                }
+                // 按文件名顺序处理
+                Collections.sort(jobs);
+                for (Path file : jobs) {
+                    if (!running) {
+                        return;
+                    }
+                    submitSpoolJob(file);
+                }
+                Thread.sleep(options.getSpoolPollMillis());
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                logger.error("扫描假脱机目录失败", e);
+                try {
+                    Thread.sleep(options.getSpoolPollMillis());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 改名领取任务文件（改名失败说明已被其他进程领取），提交执行；队列已满时阻塞，暂停领取后续任务
+     */
+    private void submitSpoolJob(Path file) throws InterruptedException {
+        String name = file.getFileName().toString();
+        Path working = file.resolveSibling(name + WORKING_SUFFIX);
+        try {
+            Files.move(file, working, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.debug("任务已被领取: {}", name);
+            return;
+        }
+        Path spoolDir = options.getSpoolDir();
+        String baseName = name.substring(0, name.length() - JOB_SUFFIX.length());
+        try {
+            service.submit(() -> {
+                Properties job = loadProperties(working);
+                Path output = resolveOutput(spoolDir, job.getProperty("output", baseName + ".pptx"));
+                writeAtomically(job, spoolDir, output);
+                return output;
+            }, options.getJobTimeoutMillis()).whenComplete((output, error) -> {
+                try {
+                    if (error == null) {
+                        Files.move(working, working.resolveSibling(name + ".done"), StandardCopyOption.REPLACE_EXISTING);
+                        completedCount.incrementAndGet();
+                        logger.info("任务完成: {} -> {}", name, output);
+                    } else {
+                        failedCount.incrementAndGet();
+                        logger.error("任务失败: {}", name, error);
+                        Files.write(working.resolveSibling(baseName + ".error"),
+                                String.valueOf(error).getBytes(StandardCharsets.UTF_8));
+                        Files.move(working, working.resolveSibling(name + ".failed"), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } catch (IOException e) {
+                    logger.error("更新任务文件状态失败: {}", name, e);
+                }
+            });
+        } catch (RejectedExecutionException | InterruptedException e) {
+            // 进程正在关闭，任务留待下次启动时处理
+            try {
+                Files.move(working, file);
+            } catch (IOException ioe) {
+                logger.warn("归还任务文件失败: {}", name, ioe);
+            }
+            if (e instanceof InterruptedException) {
+                throw (InterruptedException) e;
+            }
+        }
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                // 监听端口已关闭
+                return;
+            } catch (IOException e) {
+                logger.error("接收连接失败", e);
+                continue;
+            }
+            try {
+                service.submit(() -> {
+                    handleConnection(socket);
+                    return null;
+                }, options.getJobTimeoutMillis()).whenComplete((r, error) -> closeQuietly(socket));
+            } catch (InterruptedException | RejectedExecutionException e) {
+                // 进程正在关闭
+                closeQuietly(socket);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 读取一个任务（到客户端关闭输出方向为止），生成后回复结果
+     */
+    private void handleConnection(Socket socket) throws IOException {
+        socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+        OutputStream reply = new BufferedOutputStream(socket.getOutputStream());
+        try {
+            // 读到客户端关闭输出方向为止；不关闭读取器，否则会连同套接字一起关闭
+            Properties job = new Properties();
+            job.load(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Path baseDir = options.getSocketDir();
+            String output = job.getProperty("output");
+            if (output != null) {
+                Path target = resolveOutput(baseDir, output);
+                writeAtomically(job, baseDir, target);
+                reply.write(("OK " + target + "\n").getBytes(StandardCharsets.UTF_8));
+            } else {
+                ByteArrayOutputStream deck = new ByteArrayOutputStream();
+                generate(job, baseDir, deck);
+                reply.write(("OK " + deck.size() + "\n").getBytes(StandardCharsets.UTF_8));
+                deck.writeTo(reply);
+            }
+            completedCount.incrementAndGet();
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            logger.error("端口任务失败", e);
+            String message = String.valueOf(e.getMessage()).replace('\n', ' ').replace('\r', ' ');
+            reply.write(("ERROR " + message + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        reply.flush();
+    }
+
+    /**
+     * 经同目录的 .part 临时文件写出（OutputFiles），读取方不会看到写了一半的文档
+     */
+    private static void writeAtomically(Properties job, Path baseDir, Path output) throws Exception {
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        OutputFiles.writeAtomically(output, out -> generate(job, baseDir, out));
+    }
+
+    private static ChartGenerateOptions toChartOptions(Properties job) {
+        ChartGenerateOptions chartOptions = new ChartGenerateOptions();
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(chartOptions);
+        for (String key : job.stringPropertyNames()) {
+            if (key.startsWith(OPTION_PREFIX)) {
+                wrapper.setPropertyValue(key.substring(OPTION_PREFIX.length()), job.getProperty(key).trim());
+            }
+        }
+        return chartOptions;
+    }
+
+    /**
+     * 任务未指定 template 时使用内置模板，否则与 csv 一样相对 baseDir 解析
+     */
+    private static String templatePath(Properties job, Path baseDir, String defaultTemplate) {
+        String template = job.getProperty("template");
+        return template == null ? defaultTemplate : resolveJobPath(baseDir, "template", template).toString();
+    }
+
+    /**
+     * 解析输出文件，只允许写出 .pptx，避免覆盖任务文件及其状态文件
+     */
+    private static Path resolveOutput(Path baseDir, String output) {
+        Path target = resolveJobPath(baseDir, "output", output);
+        if (!target.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pptx")) {
+            throw new IllegalArgumentException("output 必须是 .pptx 文件: " + output);
+        }
+        return target;
+    }
+
+    /**
+     * 将任务中的相对路径解析到 baseDir 之内：拒绝绝对路径以及规范化后位于 baseDir 之外的路径（如 ../x）
+     *
+     * @param baseDir 任务目录，null 表示任务不能引用文件
+     * @param key     任务键，用于错误信息
+     * @param value   任务中的路径
+     */
+    private static Path resolveJobPath(Path baseDir, String key, String value) {
+        if (baseDir == null) {
+            throw new IllegalArgumentException("未配置任务目录，不能使用 " + key);
+        }
+        Path path = Paths.get(value.trim());
+        Path base = baseDir.toAbsolutePath().normalize();
+        Path resolved = base.resolve(path).normalize();
+        if (path.isAbsolute() || resolved.equals(base) || !resolved.startsWith(base)) {
+            throw new IllegalArgumentException(key + " 必须是任务目录内的相对路径: " + value);
+        }
+        return resolved;
+    }
+
+    private static int intProperty(Properties job, String key, int defaultValue) {
+        String value = job.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static Properties loadProperties(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    /**
+     * 读取饼图数据：每行“类别,数值”，首行数值无法解析时视为表头
+     */
+    private static Map<String, Double> readPieCsv(Path file) throws IOException {
+        Map<String, Double> amounts = new LinkedHashMap<>();
+        for (String[] fields : readCsvRows(file, 2)) {
+            amounts.put(fields[0], Double.parseDouble(fields[1]));
+        }
+        return amounts;
+    }
+
+    /**
+     * 读取甘特图数据：每行“设备,开始,结束”，首行数值无法解析时视为表头
+     */
+    private static List<TrackingDevice> readGanttCsv(Path file) throws IOException {
+        List<TrackingDevice> devices = new ArrayList<>();
+        for (String[] fields : readCsvRows(file, 3)) {
+            devices.add(new TrackingDevice(fields[0], Double.parseDouble(fields[1]), Double.parseDouble(fields[2])));
+        }
+        return devices;
+    }
+
+    private static List<String[]> readCsvRows(Path file, int columns) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '﻿') {
+                    line = line.substring(1);
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length < columns) {
+                    throw new IOException(file + " 第" + lineNumber + "行应有" + columns + "列: " + line);
+                }
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = fields[i].trim();
+                }
+                if (rows.isEmpty() && !isNumber(fields[1])) {
+                    // 表头
+                    continue;
+                }
+                rows.add(fields);
+            }
+        }
+        return rows;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static Thread newThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void joinQuietly(Thread thread) {
+        if (thread == null || thread == Thread.currentThread()) {
+            return;
+        }
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("关闭连接失败", e);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.pojo.ColumnarLineData;
+
+import java.util.Arrays;
+
+/**
+ * 流式最小值/最大值分桶器
+ * 逐行接收数据（一个X值与各系列的Y值），总行数未知时也只占用固定内存：
+ * 桶数达到上限后将相邻两个桶合并、桶宽加倍，每个桶只保存各系列最小值行与最大值行的完整数据。
+ * 输出时取首行、末行与各桶选中行的并集，选点方式与 LineDownsampler 的 MIN_MAX 一致。
+ * 桶数按系列数分配，输出的总行数不超过目标点数，填充时不会再次降采样；行数不超过桶数时保留全部数据。
+ * 内存占用约为 目标点数 × (系列数 + 1) 个 double，与输入行数无关。
+ * 实例不是线程安全的。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public final class StreamingLineBucketer {
+
+    private final int seriesCount;
+
+    /** 每行保存的值个数：X值 + 各系列Y值 */
+    private final int rowWidth;
+
+    private final int bucketCapacity;
+
+    /** 每个桶覆盖的行数 */
+    private long bucketWidth = 1;
+
+    private int bucketCount;
+
+    /** [桶 × 系列数 + 系列] -> 最小值 / 最大值所在行号，-1 表示空 */
+    private final long[] minRows;
+
+    private final long[] maxRows;
+
+    /** [(桶 × 系列数 + 系列) × rowWidth + k] -> 最小值 / 最大值所在行的数据 */
+    private final double[] minValues;
+
+    private final double[] maxValues;
+
+    private final double[] firstRow;
+
+    private final double[] lastRow;
+
+    private long rowCount;
+
+    /**
+     * @param seriesCount  系列数
+     * @param targetPoints 输出的目标行数（至少为3；系列数较多时每个桶至少保留各系列的最小值与最大值）
+     */
+    public StreamingLineBucketer(int seriesCount, int targetPoints) {
+        if (seriesCount < 1) {
+            throw new IllegalArgumentException("系列数应大于0: " + seriesCount);
+        }
+        if (targetPoints < 3) {
+            throw new IllegalArgumentException("目标点数应不小于3: " + targetPoints);
+        }
+        this.seriesCount = seriesCount;
+        this.rowWidth = seriesCount + 1;
+        // 首尾两行之外，每个桶为每个系列贡献最小值、最大值两行
+        this.bucketCapacity = Math.max(1, (targetPoints - 2) / (2 * seriesCount));
+        int slots = bucketCapacity * seriesCount;
+        this.minRows = new long[slots];
+        this.maxRows = new long[slots];
+        this.minValues = new double[slots * rowWidth];
+        this.maxValues = new double[slots * rowWidth];
+        this.firstRow = new double[rowWidth];
+        this.lastRow = new double[rowWidth];
+    }
+
+    /**
+     * 系列数
+     */
+    public int getSeriesCount() {
+        return seriesCount;
+    }
+
+    /**
+     * 已接收的行数
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 接收一行数据
+     *
+     * @param x      X值
+     * @param values 各系列的Y值，长度不小于系列数；调用返回后可复用该数组
+     */
+    public void add(double x, double[] values) {
+        long row = rowCount++;
+        lastRow[0] = x;
+        System.arraycopy(values, 0, lastRow, 1, seriesCount);
+        if (row == 0) {
+            System.arraycopy(lastRow, 0, firstRow, 0, rowWidth);
+            return;
+        }
+
+        // 首行单独保存，其余各行按行号分桶
+        long offset = row - 1;
+        if (offset / bucketWidth >= bucketCapacity) {
+            compact();
+        }
+        int bucket = (int) (offset / bucketWidth);
+        if (bucket == bucketCount) {
+            Arrays.fill(minRows, bucket * seriesCount, (bucket + 1) * seriesCount, -1L);
+            Arrays.fill(maxRows, bucket * seriesCount, (bucket + 1) * seriesCount, -1L);
+            bucketCount++;
+        }
+        for (int s = 0; s < seriesCount; s++) {
+            int slot = bucket * seriesCount + s;
+            double value = values[s];
+            if (minRows[slot] < 0 || value < minValues[slot * rowWidth + 1 + s]) {
+                minRows[slot] = row;
+                System.arraycopy(lastRow, 0, minValues, slot * rowWidth, rowWidth);
+            }
+            if (maxRows[slot] < 0 || value > maxValues[slot * rowWidth + 1 + s]) {
+                maxRows[slot] = row;
+                System.arraycopy(lastRow, 0, maxValues, slot * rowWidth, rowWidth);
+            }
+        }
+    }
+
+    /**
+     * 输出分桶结果
+     *
+     * @param title       图表标题
+     * @param seriesNames 系列名称，可为 null
+     * @return 列式折线图数据，行按原始顺序排列
+     */
+    public ColumnarLineData toLineData(String title, String[] seriesNames) {
+        int capacity = 2 + bucketCount * seriesCount * 2;
+        double[] xValues = new double[capacity];
+        double[][] seriesValues = new double[seriesCount][capacity];
+        int count = 0;
+        if (rowCount > 0) {
+            count = emit(firstRow, 0, xValues, seriesValues, count);
+        }
+
+        // 桶内候选行（每个系列的最小值行与最大值行）按行号排序后去重输出
+        long lastEmitted = 0;
+        long[] candidateRows = new long[seriesCount * 2];
+        double[][] candidateSources = new double[seriesCount * 2][];
+        int[] candidateOffsets = new int[seriesCount * 2];
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            int candidates = 0;
+            for (int s = 0; s < seriesCount; s++) {
+                int slot = bucket * seriesCount + s;
+                if (minRows[slot] >= 0) {
+                    candidates = insert(candidateRows, candidateSources, candidateOffsets, candidates,
+                            minRows[slot], minValues, slot * rowWidth);
+                    candidates = insert(candidateRows, candidateSources, candidateOffsets, candidates,
+                            maxRows[slot], maxValues, slot * rowWidth);
+                }
+            }
+            for (int i = 0; i < candidates; i++) {
+                long row = candidateRows[i];
+                if (row > lastEmitted && row < rowCount - 1) {
+                    count = emit(candidateSources[i], candidateOffsets[i], xValues, seriesValues, count);
+                    lastEmitted = row;
+                }
+            }
+        }
+        if (rowCount > 1) {
+            count = emit(lastRow, 0, xValues, seriesValues, count);
+        }
+
+        for (int s = 0; s < seriesCount; s++) {
+            seriesValues[s] = Arrays.copyOf(seriesValues[s], count);
+        }
+        return new ColumnarLineData(title, Arrays.copyOf(xValues, count), seriesNames, seriesValues);
+    }
+
+    /**
+     * 相邻两个桶合并为一个，桶宽加倍；同值时保留行号较小的一行
+     */
+    private void compact() {
+        int merged = (bucketCount + 1) / 2;
+        for (int bucket = 0; bucket < merged; bucket++) {
+            int left = bucket * 2;
+            int right = left + 1;
+            for (int s = 0; s < seriesCount; s++) {
+                int target = bucket * seriesCount + s;
+                int leftSlot = left * seriesCount + s;
+                int rightSlot = right * seriesCount + s;
+                boolean hasRight = right < bucketCount && minRows[rightSlot] >= 0;
+                if (hasRight && minValues[rightSlot * rowWidth + 1 + s] < minValues[leftSlot * rowWidth + 1 + s]) {
+                    moveSlot(minRows, minValues, rightSlot, target);
+                } else {
+                    moveSlot(minRows, minValues, leftSlot, target);
+                }
+                if (hasRight && maxValues[rightSlot * rowWidth + 1 + s] > maxValues[leftSlot * rowWidth + 1 + s]) {
+                    moveSlot(maxRows, maxValues, rightSlot, target);
+                } else {
+                    moveSlot(maxRows, maxValues, leftSlot, target);
+                }
+            }
+        }
+        bucketCount = merged;
+        bucketWidth *= 2;
+    }
+
+    private void moveSlot(long[] rows, double[] values, int from, int to) {
+        if (from != to) {
+            rows[to] = rows[from];
+            System.arraycopy(values, from * rowWidth, values, to * rowWidth, rowWidth);
+        }
+    }
+
+    /**
+     * 按行号插入候选行（候选数不超过系列数的两倍，插入排序即可），行号相同时不重复插入
+     */
+    private static int insert(long[] rows, double[][] sources, int[] offsets, int size, long row,
+                              double[] source, int offset) {
+        int i = size;
+        while (i > 0 && rows[i - 1] > row) {
+            i--;
+        }
+        if (i > 0 && rows[i - 1] == row) {
+            return size;
+        }
+        System.arraycopy(rows, i, rows, i + 1, size - i);
+        System.arraycopy(sources, i, sources, i + 1, size - i);
+        System.arraycopy(offsets, i, offsets, i + 1, size - i);
+        rows[i] = row;
+        sources[i] = source;
+        offsets[i] = offset;
+        return size + 1;
+    }
+
+    private int emit(double[] source, int offset, double[] xValues, double[][] seriesValues, int count) {
+        xValues[count] = source[offset];
+        for (int s = 0; s < seriesCount; s++) {
+            seriesValues[s][count] = source[offset + 1 + s];
+        }
+        return count + 1;
+    }
+}
@@ -0,0 +1,195 @@
+package com.mygs.trackppt.utils;
+
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.TrackingDevice;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 可复现的合成数据生成器，用于压力测试、基准测试与演示
+ * 同一种子、同一调用顺序总是生成相同的数据；使用 SplittableRandom（无锁、无同步），
+ * 折线数据直接写入 double 数组或逐行送入 StreamingLineBucketer，百万级数据点也不产生装箱对象。
+ * 名称通过对预设名称的洗牌轮次生成（超过预设数量时追加轮次后缀），数量任意也不需要重试，保证唯一。
+ * 实例不是线程安全的，并发使用时每个线程各建一个实例（可用 split 派生）。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public final class SyntheticDataGenerator {
+
+    private static final String[] TERMS = ChartData.AEROSPACE_TRACKING_TERMS;
+
+    private final SplittableRandom random;
+
+    /**
+     * @param seed 随机种子
+     */
+    public SyntheticDataGenerator(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SyntheticDataGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * 派生一个独立的生成器，用于并发任务；派生结果同样由种子决定
+     */
+    public SyntheticDataGenerator split() {
+        return new SyntheticDataGenerator(random.split());
+    }
+
+    /**
+     * 生成不重复的名称：先按洗牌顺序使用全部预设名称，用完后开始新一轮并追加“-轮次”后缀
+     *
+     * @param count 名称数量
+     * @return 名称数组
+     */
+    public String[] uniqueNames(int count) {
+        String[] names = new String[count];
+        int[] order = new int[TERMS.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            int round = i / TERMS.length;
+            int position = i % TERMS.length;
+            // Fisher-Yates：每轮逐个抽取，不需要重试
+            int pick = position + random.nextInt(TERMS.length - position);
+            int term = order[pick];
+            order[pick] = order[position];
+            order[position] = term;
+            names[i] = round == 0 ? TERMS[term] : TERMS[term] + "-" + (round + 1);
+        }
+        return names;
+    }
+
+    /**
+     * 生成与旧版随机数据相同规模的折线数据：1~MAX_LINE_COUNT 个系列，每个系列 2~MAX_LINE_LENGTH+2 个点，
+     * 取值在 MIN_VALUE ~ MAX_VALUE 之间
+     */
+    public double[][] randomLineData() {
+        int lineCount = random.nextInt(ChartData.MAX_LINE_COUNT) + 1;
+        double[][] result = new double[lineCount][];
+        for (int i = 0; i < lineCount; i++) {
+            double[] line = new double[random.nextInt(ChartData.MAX_LINE_LENGTH + 1) + 2];
+            for (int j = 0; j < line.length; j++) {
+                line[j] = random.nextDouble(ChartData.MIN_VALUE, ChartData.MAX_VALUE);
+            }
+            result[i] = line;
+        }
+        return result;
+    }
+
+    /**
+     * 生成指定规模的折线数据：每个系列为随机游走曲线，X值为 0, 1, 2...
+     *
+     * @param seriesCount     系列数
+     * @param pointsPerSeries 每个系列的点数
+     * @return 列式折线图数据
+     */
+    public ColumnarLineData lineData(int seriesCount, int pointsPerSeries) {
+        double[] x = new double[pointsPerSeries];
+        for (int i = 0; i < pointsPerSeries; i++) {
+            x[i] = i;
+        }
+        double[][] values = new double[seriesCount][pointsPerSeries];
+        for (int s = 0; s < seriesCount; s++) {
+            fillRandomWalk(values[s]);
+        }
+        return new ColumnarLineData("合成折线图", x, uniqueNames(seriesCount), values);
+    }
+
+    /**
+     * 逐行生成折线数据并送入分桶器，只复用一个行数组，行数不受内存限制
+     *
+     * @param bucketer 分桶器，系列数由分桶器决定
+     * @param rowCount 行数
+     */
+    public void streamLineRows(StreamingLineBucketer bucketer, long rowCount) {
+        double[] row = new double[bucketer.getSeriesCount()];
+        for (int s = 0; s < row.length; s++) {
+            row[s] = 50;
+        }
+        for (long i = 0; i < rowCount; i++) {
+            for (int s = 0; s < row.length; s++) {
+                row[s] += walkStep();
+            }
+            bucketer.add(i, row);
+        }
+    }
+
+    /**
+     * 生成与旧版随机数据相同规模的饼图数据：PIE_MIN_PIE_ITEMS~PIE_MAX_PIE_ITEMS 个类别
+     */
+    public Map<String, Double> randomPieData() {
+        int itemCount = ChartData.PIE_MIN_PIE_ITEMS
+                + random.nextInt(ChartData.PIE_MAX_PIE_ITEMS - ChartData.PIE_MIN_PIE_ITEMS + 1);
+        return pieData(itemCount);
+    }
+
+    /**
+     * 生成指定类别数的饼图数据，取值在 PIE_MIN_VALUE ~ PIE_MAX_VALUE 之间
+     *
+     * @param categoryCount 类别数
+     * @return 饼图数据，键为类别名称，值为数值
+     */
+    public Map<String, Double> pieData(int categoryCount) {
+        String[] names = uniqueNames(categoryCount);
+        Map<String, Double> data = new LinkedHashMap<>(categoryCount * 4 / 3 + 1);
+        for (String name : names) {
+            data.put(name, random.nextDouble(ChartData.PIE_MIN_VALUE, ChartData.PIE_MAX_VALUE));
+        }
+        return data;
+    }
+
+    /**
+     * 生成跟踪设备列表，每个设备一个时间段：开始时间 0~60，持续 5~30，结束时间不超过 100
+     *
+     * @param count 设备数
+     * @return 设备列表，设备名称不重复
+     */
+    public List<TrackingDevice> trackingDevices(int count) {
+        return trackingDevices(count, 1);
+    }
+
+    /**
+     * 生成跟踪设备列表，每个设备若干时间段（甘特图同一行）
+     *
+     * @param deviceCount        设备数
+     * @param intervalsPerDevice 每个设备的时间段数
+     * @return 设备列表，同一设备的时间段相邻
+     */
+    public List<TrackingDevice> trackingDevices(int deviceCount, int intervalsPerDevice) {
+        String[] names = uniqueNames(deviceCount);
+        List<TrackingDevice> devices = new ArrayList<>(deviceCount * intervalsPerDevice);
+        for (String name : names) {
+            for (int i = 0; i < intervalsPerDevice; i++) {
+                double start = random.nextDouble(0, 60);
+                double end = Math.min(start + random.nextDouble(5, 30), 100);
+                devices.add(new TrackingDevice(name, start, end));
+            }
+        }
+        return devices;
+    }
+
+    private void fillRandomWalk(double[] values) {
+        double value = 50;
+        for (int i = 0; i < values.length; i++) {
+            value += walkStep();
+            values[i] = value;
+        }
+    }
+
+    /**
+     * 随机游走步长：[-√3, √3) 均匀分布，方差为 1
+     */
+    private double walkStep() {
+        return (random.nextDouble() * 2 - 1) * 1.7320508075688772;
+    }
+}
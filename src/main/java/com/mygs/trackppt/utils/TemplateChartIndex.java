@@ -0,0 +1,318 @@
+package com.mygs.trackppt.utils;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFChart;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 模板图表部件索引（不可变）
+ * 直接读取模板压缩包中的演示文稿、幻灯片与关系部件（StAX，不构建 POI 对象），记录每页幻灯片上的图表：
+ * 图形框架的名称与ID、指向图表部件的关系ID、图表部件与其嵌入工作簿部件的名称。
+ * 索引随模板一起缓存（见 PptTemplateCache.getChartIndex），填充时按关系ID直接取得目标图表，
+ * 无需遍历幻灯片上的全部形状，也可以按名称只填充同一页上的指定图表。
+ *
+ * @author z
+ * @since 1.0.0
+ */
+public final class TemplateChartIndex {
+
+    private static final String PRESENTATION_NAMESPACE = "http://schemas.openxmlformats.org/presentationml/2006/main";
+
+    private static final QName ID = new QName("", "id");
+
+    private static final QName NAME = new QName("", "name");
+
+    private static final QName RELATIONSHIP_ID = new QName(EmbeddedSheetPatcher.RELATIONSHIP_NAMESPACE, "id");
+
+    /** 按页码（从0开始）存放的图表，顺序与幻灯片中的形状顺序一致 */
+    private final List<List<ChartRef>> slides;
+
+    private TemplateChartIndex(List<List<ChartRef>> slides) {
+        this.slides = slides;
+    }
+
+    /**
+     * 从模板文件内容构建索引
+     *
+     * @param templateBytes 模板文件内容
+     * @return 图表部件索引
+     * @throws IOException 模板解析失败
+     */
+    public static TemplateChartIndex build(byte[] templateBytes) throws IOException {
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(templateBytes))) {
+            String presentation = EmbeddedSheetPatcher.relationshipTargetByType(zip, "_rels/.rels", "/", "/officeDocument");
+            if (presentation == null) {
+                throw new IOException("模板中不存在演示文稿部件");
+            }
+            Map<String, String> presentationTargets = EmbeddedSheetPatcher.relationshipTargets(zip,
+                    IncrementalChartUpdater.relsEntryName(presentation), "/" + presentation);
+
+            List<List<ChartRef>> slides = new ArrayList<>();
+            for (StartElement slideId : startElements(zip, presentation, "sldId")) {
+                String slideEntry = presentationTargets.get(attribute(slideId, RELATIONSHIP_ID));
+                slides.add(slideEntry == null ? Collections.emptyList() : indexSlide(zip, slideEntry, slides.size() + 1));
+            }
+            return new TemplateChartIndex(Collections.unmodifiableList(slides));
+        }
+    }
+
+    /**
+     * 幻灯片数量
+     */
+    public int getSlideCount() {
+        return slides.size();
+    }
+
+    /**
+     * 指定页上的全部图表，按形状顺序排列
+     *
+     * @param slideNumber 页码（从1开始）
+     */
+    public List<ChartRef> getCharts(int slideNumber) {
+        if (slideNumber < 1 || slideNumber > slides.size()) {
+            throw new IllegalArgumentException("页码超出范围: " + slideNumber + "，模板共" + slides.size() + "页");
+        }
+        return slides.get(slideNumber - 1);
+    }
+
+    /**
+     * 按图形框架名称（如“图表 5”）或ID查找图表
+     *
+     * @param slideNumber 页码（从1开始）
+     * @param chartName   图形框架名称或ID
+     * @return 图表，不存在时返回 null
+     */
+    public ChartRef find(int slideNumber, String chartName) {
+        List<ChartRef> charts = getCharts(slideNumber);
+        for (ChartRef chart : charts) {
+            if (chart.getName().equals(chartName)) {
+                return chart;
+            }
+        }
+        for (ChartRef chart : charts) {
+            if (String.valueOf(chart.getShapeId()).equals(chartName)) {
+                return chart;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按图形框架名称或ID查找图表，不存在时抛出 IllegalArgumentException
+     */
+    public ChartRef require(int slideNumber, String chartName) {
+        ChartRef chart = find(slideNumber, chartName);
+        if (chart == null) {
+            throw new IllegalArgumentException("第" + slideNumber + "页不存在图表: " + chartName);
+        }
+        return chart;
+    }
+
+    /**
+     * 在由同一模板打开的PPT中取得索引对应的图表对象，只按关系ID查找，不遍历形状
+     *
+     * @param ppt   由该模板打开的PPT
+     * @param chart 索引中的图表
+     * @return 图表对象，PPT 与模板结构不一致时返回 null
+     */
+    public static XSLFChart resolve(XMLSlideShow ppt, ChartRef chart) {
+        List<XSLFSlide> pptSlides = ppt.getSlides();
+        if (chart.getSlideNumber() > pptSlides.size()) {
+            return null;
+        }
+        POIXMLDocumentPart part = pptSlides.get(chart.getSlideNumber() - 1).getRelationById(chart.getRelationshipId());
+        return part instanceof XSLFChart ? (XSLFChart) part : null;
+    }
+
+    /**
+     * 在由同一模板打开的PPT中取得指定页上的全部图表对象
+     */
+    public List<XSLFChart> resolveAll(XMLSlideShow ppt, int slideNumber) {
+        List<ChartRef> refs = getCharts(slideNumber);
+        List<XSLFChart> charts = new ArrayList<>(refs.size());
+        for (ChartRef ref : refs) {
+            XSLFChart chart = resolve(ppt, ref);
+            if (chart != null) {
+                charts.add(chart);
+            }
+        }
+        return charts;
+    }
+
+    /**
+     * 读取幻灯片中的图形框架：名称、ID 与图表关系ID
+     */
+    private static List<ChartRef> indexSlide(ZipFile zip, String slideEntry, int slideNumber) throws IOException {
+        String relsEntry = IncrementalChartUpdater.relsEntryName(slideEntry);
+        Map<String, String> targets = EmbeddedSheetPatcher.relationshipTargets(zip, relsEntry, "/" + slideEntry);
+        List<ChartRef> charts = new ArrayList<>();
+        ZipArchiveEntry entry = zip.getEntry(slideEntry);
+        if (entry == null) {
+            return charts;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLEventReader reader = EmbeddedSheetPatcher.INPUT_FACTORY.createXMLEventReader(in);
+            int frameDepth = -1;
+            int depth = 0;
+            int shapeId = 0;
+            String name = null;
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                    StartElement element = event.asStartElement();
+                    String localName = element.getName().getLocalPart();
+                    if (frameDepth < 0) {
+                        if ("graphicFrame".equals(localName)
+                                && PRESENTATION_NAMESPACE.equals(element.getName().getNamespaceURI())) {
+                            frameDepth = depth;
+                            shapeId = 0;
+                            name = null;
+                        }
+                    } else if ("cNvPr".equals(localName) && name == null) {
+                        String id = attribute(element, ID);
+                        shapeId = id == null ? 0 : Integer.parseInt(id);
+                        name = attribute(element, NAME);
+                    } else if ("chart".equals(localName)
+                            && EmbeddedSheetWriter.CHART_NAMESPACE.equals(element.getName().getNamespaceURI())) {
+                        String relationshipId = attribute(element, RELATIONSHIP_ID);
+                        String chartEntry = targets.get(relationshipId);
+                        if (chartEntry != null) {
+                            String workbookEntry = EmbeddedSheetPatcher.relationshipTargetByType(zip,
+                                    IncrementalChartUpdater.relsEntryName(chartEntry), "/" + chartEntry, "/package");
+                            charts.add(new ChartRef(slideNumber, shapeId, name == null ? "" : name, relationshipId,
+                                    "/" + chartEntry, workbookEntry == null ? null : "/" + workbookEntry));
+                        }
+                    }
+                } else if (event.isEndElement()) {
+                    if (depth == frameDepth) {
+                        frameDepth = -1;
+                    }
+                    depth--;
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("幻灯片解析失败: " + slideEntry, e);
+        }
+        return Collections.unmodifiableList(charts);
+    }
+
+    private static List<StartElement> startElements(ZipFile zip, String entryName, String localName) throws IOException {
+        ZipArchiveEntry entry = zip.getEntry(entryName);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<StartElement> result = new ArrayList<>();
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLEventReader reader = EmbeddedSheetPatcher.INPUT_FACTORY.createXMLEventReader(in);
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement() && localName.equals(event.asStartElement().getName().getLocalPart())) {
+                    result.add(event.asStartElement());
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("部件解析失败: " + entryName, e);
+        }
+        return result;
+    }
+
+    private static String attribute(StartElement element, QName name) {
+        Attribute attribute = element.getAttributeByName(name);
+        return attribute == null ? null : attribute.getValue();
+    }
+
+    /**
+     * 索引中的一个图表
+     */
+    public static final class ChartRef {
+
+        private final int slideNumber;
+
+        private final int shapeId;
+
+        private final String name;
+
+        private final String relationshipId;
+
+        private final String chartPartName;
+
+        private final String workbookPartName;
+
+        private ChartRef(int slideNumber, int shapeId, String name, String relationshipId, String chartPartName,
+                         String workbookPartName) {
+            this.slideNumber = slideNumber;
+            this.shapeId = shapeId;
+            this.name = name;
+            this.relationshipId = relationshipId;
+            this.chartPartName = chartPartName;
+            this.workbookPartName = workbookPartName;
+        }
+
+        /**
+         * 所在页码（从1开始）
+         */
+        public int getSlideNumber() {
+            return slideNumber;
+        }
+
+        /**
+         * 图形框架的形状ID
+         */
+        public int getShapeId() {
+            return shapeId;
+        }
+
+        /**
+         * 图形框架名称，如“图表 5”
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 幻灯片中指向图表部件的关系ID
+         */
+        public String getRelationshipId() {
+            return relationshipId;
+        }
+
+        /**
+         * 图表部件名称，如 /ppt/charts/chart1.xml，可直接用于 ChartUpdate
+         */
+        public String getChartPartName() {
+            return chartPartName;
+        }
+
+        /**
+         * 嵌入工作簿部件名称，没有嵌入工作簿时为 null
+         */
+        public String getWorkbookPartName() {
+            return workbookPartName;
+        }
+
+        @Override
+        public String toString() {
+            return "ChartRef{slide=" + slideNumber + ", name='" + name + "', id=" + shapeId + ", part=" + chartPartName + '}';
+        }
+    }
+}
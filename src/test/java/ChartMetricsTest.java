@@ -0,0 +1,70 @@
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.constant.ChartStage;
+import com.mygs.trackppt.constant.ChartType;
+import com.mygs.trackppt.metrics.ChartMetricsRegistry;
+import com.mygs.trackppt.metrics.HistogramMetricsListener;
+import com.mygs.trackppt.metrics.LatencyHistogram;
+import com.mygs.trackppt.metrics.MeterRegistryMetricsListener;
+import com.mygs.trackppt.pojo.PieChartData;
+import com.mygs.trackppt.utils.PieChartPptUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 图表生成指标测试类
+ */
+public class ChartMetricsTest {
+
+    /**
+     * 测试：生成饼图后监听器收到各阶段耗时、输出大小与模板缓存结果
+     */
+    @Test
+    public void testMetricsListeners() {
+        HistogramMetricsListener histogram = new HistogramMetricsListener();
+        List<String> meters = new ArrayList<>();
+        MeterRegistryMetricsListener adapter = new MeterRegistryMetricsListener(
+                (name, tags, nanos) -> meters.add(name + String.join(",", tags)),
+                (name, tags, amount) -> meters.add(name),
+                (name, tags) -> meters.add(name + String.join(",", tags)));
+        ChartMetricsRegistry.addListener(histogram);
+        ChartMetricsRegistry.addListener(adapter);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PieChartData pieChartData = new PieChartData("指标饼图", PieChartPptUtil.generateRandomPieData());
+            Assertions.assertTrue(PieChartPptUtil.generatePieChartPPT(ChartData.PIE_TEMPLATE_PATH, out, pieChartData, 1));
+
+            Assertions.assertEquals(1, histogram.getTotalHistogram(ChartType.PIE).getCount());
+            Assertions.assertEquals(1, histogram.getStageHistogram(ChartType.PIE, ChartStage.TEMPLATE_LOAD).getCount());
+            Assertions.assertEquals(1, histogram.getStageHistogram(ChartType.PIE, ChartStage.PLOT).getCount());
+            Assertions.assertEquals(out.size(), histogram.getOutputBytesHistogram(ChartType.PIE).getMax());
+            Assertions.assertEquals(1, histogram.getTemplateCacheHitCount(ChartType.PIE)
+                    + histogram.getTemplateCacheMissCount(ChartType.PIE));
+            Assertions.assertTrue(meters.contains("ppt.chart.durationchart,pie,success,true"));
+            Assertions.assertTrue(meters.contains("ppt.chart.stage.durationchart,pie,stage,write"));
+        } finally {
+            ChartMetricsRegistry.removeListener(histogram);
+            ChartMetricsRegistry.removeListener(adapter);
+        }
+    }
+
+    /**
+     * 测试：直方图分位数误差在分桶精度范围内
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v * 1000);
+        }
+        Assertions.assertEquals(10_000, histogram.getCount());
+        Assertions.assertEquals(10_000_000, histogram.getMax());
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        Assertions.assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 1.125, "p50=" + p50);
+        Assertions.assertTrue(p99 >= 9_900_000 && p99 <= 10_000_000, "p99=" + p99);
+    }
+}
@@ -0,0 +1,62 @@
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.TrackingDevice;
+import com.mygs.trackppt.utils.GanttLayout;
+import com.mygs.trackppt.utils.GanttLayoutEngine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 甘特图布局计算测试类
+ */
+public class GanttLayoutEngineTest {
+
+    /**
+     * 测试：任务条按设备行连续存放，重叠的时间段合并为一个任务条
+     */
+    @Test
+    public void testRowsAndMerging() {
+        List<TrackingDevice> devices = Arrays.asList(
+                new TrackingDevice("甲", 0.0, 10.0),
+                new TrackingDevice("乙", 20.0, 30.0),
+                new TrackingDevice("甲", 5.0, 15.0),
+                new TrackingDevice("甲", 50.0, 60.0));
+        GanttLayout layout = GanttLayoutEngine.compute(new GanttChartData("布局", devices), new ChartGenerateOptions());
+
+        Assertions.assertEquals(2, layout.getRowCount());
+        Assertions.assertEquals("甲", layout.getRowName(0));
+        // 甲：[0,15] 合并为一个，[50,60] 单独一个；乙：一个
+        Assertions.assertEquals(2, layout.getRowBarStart(1));
+        Assertions.assertEquals(3, layout.getBarCount());
+        Assertions.assertEquals(layout.getLeftMargin(), layout.getBarX(0));
+        Assertions.assertTrue(layout.getBarY(2) > layout.getBarY(0));
+        // 坐标取整，最后一个任务条右端与X轴右端相差不超过1像素
+        Assertions.assertTrue(layout.getAxisRight() - (layout.getBarX(1) + layout.getBarWidth(1)) <= 1);
+        Assertions.assertEquals(0, layout.getTickValue(0));
+        Assertions.assertEquals(60, layout.getTickValue(layout.getTickCount() - 1));
+    }
+
+    /**
+     * 测试：开启布局缓存时相同输入复用缓存中的布局，输入变化时重新计算；默认不缓存
+     */
+    @Test
+    public void testLayoutCache() {
+        List<TrackingDevice> devices = new ArrayList<>();
+        devices.add(new TrackingDevice("甲", 1.0, 8.0));
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        Assertions.assertNotSame(GanttLayoutEngine.layout(new GanttChartData("缓存", devices), options),
+                GanttLayoutEngine.layout(new GanttChartData("缓存", devices), options));
+        options.setGanttLayoutCache(true);
+
+        GanttLayout first = GanttLayoutEngine.layout(new GanttChartData("缓存", devices), options);
+        GanttLayout second = GanttLayoutEngine.layout(new GanttChartData("缓存", new ArrayList<>(devices)), options);
+        Assertions.assertSame(first, second);
+
+        devices.get(0).setRelativeEndTime(9.0);
+        Assertions.assertNotSame(first, GanttLayoutEngine.layout(new GanttChartData("缓存", devices), options));
+    }
+}
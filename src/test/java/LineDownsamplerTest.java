@@ -0,0 +1,69 @@
+import com.mygs.trackppt.constant.DownsampleMethod;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.utils.LineDownsampler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 折线图降采样测试类
+ */
+public class LineDownsamplerTest {
+
+    /**
+     * 测试：LTTB 保留首尾点且点数等于目标点数
+     */
+    @Test
+    public void testLttbKeepsEndpoints() {
+        double[] y = new double[1_000_000];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = Math.sin(i / 1000.0);
+        }
+        int[] indices = LineDownsampler.lttbIndices(null, y, 1000);
+
+        Assertions.assertEquals(1000, indices.length);
+        Assertions.assertEquals(0, indices[0]);
+        Assertions.assertEquals(y.length - 1, indices[indices.length - 1]);
+        for (int i = 1; i < indices.length; i++) {
+            Assertions.assertTrue(indices[i] > indices[i - 1]);
+        }
+    }
+
+    /**
+     * 测试：最小最大值降采样保留尖峰
+     */
+    @Test
+    public void testMinMaxKeepsSpike() {
+        double[] y = new double[100_000];
+        y[54_321] = 100;
+        y[12_345] = -100;
+        int[] indices = LineDownsampler.minMaxIndices(y, 200);
+
+        Assertions.assertTrue(indices.length <= 200);
+        Assertions.assertTrue(java.util.Arrays.stream(indices).anyMatch(i -> i == 54_321));
+        Assertions.assertTrue(java.util.Arrays.stream(indices).anyMatch(i -> i == 12_345));
+    }
+
+    /**
+     * 测试：多系列降采样后行对齐，X值为原始行号
+     */
+    @Test
+    public void testColumnarDownsample() {
+        double[] longSeries = new double[10_000];
+        double[] shortSeries = new double[5_000];
+        for (int i = 0; i < longSeries.length; i++) {
+            longSeries[i] = i % 97;
+        }
+        for (int i = 0; i < shortSeries.length; i++) {
+            shortSeries[i] = -i;
+        }
+        ColumnarLineData lineData = new ColumnarLineData("降采样", null, null, new double[][]{longSeries, shortSeries});
+        ColumnarLineData sampled = LineDownsampler.downsample(lineData, 100, DownsampleMethod.LTTB);
+
+        double[] x = sampled.getXValues();
+        Assertions.assertTrue(x.length <= 200);
+        Assertions.assertEquals(x.length, sampled.getSeriesValues()[0].length);
+        for (int i = 0; i < sampled.getSeriesValues()[1].length; i++) {
+            Assertions.assertEquals(-x[i], sampled.getSeriesValues()[1][i], 1e-9);
+        }
+    }
+}
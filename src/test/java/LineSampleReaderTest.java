@@ -0,0 +1,123 @@
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.utils.LineChartPptUtil;
+import com.mygs.trackppt.utils.LineSampleReader;
+import com.mygs.trackppt.utils.StreamingLineBucketer;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 折线图样本流式读取测试类
+ */
+public class LineSampleReaderTest {
+
+    private static final String TEMPLATE_FILE_PATH = "src/main/resources/templates/line_template.pptx";
+
+    private static final int ROWS = 200_000;
+
+    private static final int SPIKE_ROW = 123_457;
+
+    /**
+     * 测试：CSV 与二进制样本分桶后点数受目标点数限制，峰值、首行与末行保留，各读取方式结果一致
+     */
+    @Test
+    public void testStreamingBuckets(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("samples.csv");
+        Path binary = dir.resolve("samples.bin");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8);
+             DataOutputStream data = new DataOutputStream(Files.newOutputStream(binary))) {
+            writer.write("时间,方位,俯仰\r\n");
+            for (int i = 0; i < ROWS; i++) {
+                double azimuth = i == SPIKE_ROW ? 720.25 : (i % 360) * 0.5;
+                double elevation = -((i * 7) % 90) * 1.25e-1;
+                writer.write(i + "," + azimuth + "," + elevation + "\r\n");
+                data.writeDouble(i);
+                data.writeDouble(azimuth);
+                data.writeDouble(elevation);
+            }
+        }
+
+        ColumnarLineData mapped = LineSampleReader.readCsv(csv, "流式读取", 500);
+        Assertions.assertArrayEquals(new String[]{"方位", "俯仰"}, mapped.getSeriesNames());
+        double[] x = mapped.getXValues();
+        Assertions.assertTrue(x.length <= 500, "点数: " + x.length);
+        Assertions.assertEquals(0.0, x[0]);
+        Assertions.assertEquals(ROWS - 1, x[x.length - 1]);
+        for (int i = 1; i < x.length; i++) {
+            Assertions.assertTrue(x[i] > x[i - 1]);
+        }
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : mapped.getSeriesValues()[0]) {
+            max = Math.max(max, value);
+        }
+        Assertions.assertEquals(720.25, max);
+        Assertions.assertEquals(-11.125, min(mapped.getSeriesValues()[1]));
+
+        try (FileChannel channel = FileChannel.open(csv)) {
+            assertSameData(mapped, LineSampleReader.readCsv(channel, "流式读取", 500));
+        }
+        assertSameData(mapped, LineSampleReader.readBinary(binary, "流式读取", 2, ByteOrder.BIG_ENDIAN, 500));
+        try (FileChannel channel = FileChannel.open(binary)) {
+            assertSameData(mapped, LineSampleReader.readBinary(channel, "流式读取", 2, ByteOrder.BIG_ENDIAN, 500));
+        }
+
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        options.setLineDownsampleTarget(500);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assertions.assertTrue(LineChartPptUtil.generatePPTChartFromCsv(TEMPLATE_FILE_PATH, out, 1, csv, "流式读取", options));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            Assertions.assertEquals(x.length, ppt.getCharts().get(0).getWorkbook().getSheetAt(0).getLastRowNum());
+        }
+    }
+
+    /**
+     * 测试：行数较少时保留全部数据；解析各种数值写法，缺失字段补 0
+     */
+    @Test
+    public void testSmallCsv() throws Exception {
+        String csv = "﻿1,2.5,-3e2\n\n2,0.000123456789,\n3,1.7976931348623157E308,12345678901234567890\n4";
+        ColumnarLineData data = LineSampleReader.readCsv(
+                Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))), "小文件", 100);
+        Assertions.assertNull(data.getSeriesNames());
+        Assertions.assertArrayEquals(new double[]{1, 2, 3, 4}, data.getXValues());
+        Assertions.assertArrayEquals(new double[]{2.5, 0.000123456789, Double.MAX_VALUE, 0.0}, data.getSeriesValues()[0]);
+        Assertions.assertArrayEquals(new double[]{-300.0, 0.0, 12345678901234567890.0, 0.0}, data.getSeriesValues()[1]);
+
+        StreamingLineBucketer bucketer = new StreamingLineBucketer(1, 10);
+        for (int i = 0; i < 5; i++) {
+            bucketer.add(i, new double[]{i * i});
+        }
+        Assertions.assertArrayEquals(new double[]{0, 1, 4, 9, 16}, bucketer.toLineData("", null).getSeriesValues()[0]);
+
+        Assertions.assertThrows(java.io.IOException.class, () -> LineSampleReader.readCsv(
+                Channels.newChannel(new ByteArrayInputStream("1,2\n3,abc\n".getBytes(StandardCharsets.UTF_8))), "", 100));
+    }
+
+    private static double min(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static void assertSameData(ColumnarLineData expected, ColumnarLineData actual) {
+        Assertions.assertArrayEquals(expected.getXValues(), actual.getXValues());
+        for (int s = 0; s < expected.getSeriesValues().length; s++) {
+            Assertions.assertArrayEquals(expected.getSeriesValues()[s], actual.getSeriesValues()[s]);
+        }
+    }
+}
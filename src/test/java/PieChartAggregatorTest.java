@@ -0,0 +1,72 @@
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.PieChartData;
+import com.mygs.trackppt.utils.PieChartAggregator;
+import com.mygs.trackppt.utils.PieChartPptUtil;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 饼图前 N 项聚合测试类
+ */
+public class PieChartAggregatorTest {
+
+    private static final String PIE_TEMPLATE_FILE_PATH = "src/main/resources/templates/pie_template.pptx";
+
+    /**
+     * 测试：保留数值最大的类别，其余合并为其他扇区；不排序时保留输入顺序
+     */
+    @Test
+    public void testTopN() {
+        Map<String, Double> data = new LinkedHashMap<>();
+        data.put("甲", 5.0);
+        data.put("乙", 40.0);
+        data.put("丙", 1.0);
+        data.put("丁", 30.0);
+        data.put("戊", 5.0);
+        data.put("己", 2.0);
+
+        Map<String, Double> inOrder = PieChartAggregator.topN(data, 3, false, null);
+        Assertions.assertEquals(Arrays.asList("甲", "乙", "丁", "其他"), new ArrayList<>(inOrder.keySet()));
+        Assertions.assertEquals(8.0, inOrder.get("其他"), 1e-9);
+
+        Map<String, Double> sorted = PieChartAggregator.topN(data, 3, true, "其余");
+        Assertions.assertEquals(Arrays.asList("乙", "丁", "甲", "其余"), new ArrayList<>(sorted.keySet()));
+
+        // 类别数不超过 N 且不排序时原样返回
+        Assertions.assertSame(data, PieChartAggregator.topN(data, 10, false, null));
+        Assertions.assertEquals(Arrays.asList("乙", "丁", "甲", "戊", "己", "丙"),
+                new ArrayList<>(PieChartAggregator.topN(data, 0, true, null).keySet()));
+    }
+
+    /**
+     * 测试：生成选项开启前 N 项后，嵌入工作簿只写入保留的类别与其他扇区
+     */
+    @Test
+    public void testTopNInDeck() throws Exception {
+        Map<String, Double> data = new LinkedHashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            data.put("类别" + i, (double) (i % 97));
+        }
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        options.setPieTopN(5);
+        options.setPieSortByValue(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assertions.assertTrue(PieChartPptUtil.generatePieChartPPT(PIE_TEMPLATE_FILE_PATH, out,
+                new PieChartData("前N项饼图", data), 1, options));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSSFSheet sheet = ppt.getCharts().get(0).getWorkbook().getSheetAt(0);
+            Assertions.assertEquals(6, sheet.getLastRowNum());
+            Assertions.assertEquals(96.0, sheet.getRow(1).getCell(1).getNumericCellValue(), 1e-9);
+            Assertions.assertEquals("其他", sheet.getRow(6).getCell(0).getStringCellValue());
+        }
+    }
+}
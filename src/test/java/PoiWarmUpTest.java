@@ -0,0 +1,23 @@
+import com.mygs.trackppt.utils.PoiWarmUp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POI预热测试类
+ */
+public class PoiWarmUpTest {
+
+    /**
+     * 测试：后台预热只启动一次并正常完成
+     */
+    @Test
+    public void testWarmUpInBackground() throws Exception {
+        CompletableFuture<Void> warmUp = PoiWarmUp.warmUpInBackground();
+        Assertions.assertSame(warmUp, PoiWarmUp.warmUpInBackground());
+        warmUp.get(60, TimeUnit.SECONDS);
+        PoiWarmUp.touchSchemaTypes();
+    }
+}
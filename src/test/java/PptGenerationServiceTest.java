@@ -0,0 +1,68 @@
+import com.mygs.trackppt.pojo.PieChartData;
+import com.mygs.trackppt.utils.PieChartPptUtil;
+import com.mygs.trackppt.utils.PptGenerationService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+
+/**
+ * PPT并发生成服务测试类
+ */
+public class PptGenerationServiceTest {
+
+    private static final String PIE_TEMPLATE_FILE_PATH = "src/main/resources/templates/pie_template.pptx";
+
+    /**
+     * 测试：并发生成饼图PPT
+     */
+    @Test
+    public void testConcurrentGeneration(@TempDir Path dir) throws Exception {
+        try (PptGenerationService service = new PptGenerationService(2, 2)) {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                PieChartData pieChartData = new PieChartData("并发饼图" + i, PieChartPptUtil.generateRandomPieData());
+                String outputPath = dir.resolve("concurrent-pie-" + i + ".pptx").toString();
+                futures[i] = service.submitPieChart(PIE_TEMPLATE_FILE_PATH, outputPath, pieChartData, 1, 60_000);
+            }
+            for (CompletableFuture<?> future : futures) {
+                Assertions.assertEquals(Boolean.TRUE, future.get());
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(Files.exists(dir.resolve("concurrent-pie-" + i + ".pptx")));
+        }
+    }
+
+    /**
+     * 测试：队列已满时拒绝提交，超时任务被中断
+     */
+    @Test
+    public void testBackPressureAndTimeout() throws Exception {
+        try (PptGenerationService service = new PptGenerationService(1, 0)) {
+            CountDownLatch interrupted = new CountDownLatch(1);
+            CompletableFuture<Object> slow = service.submit(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            }, 200);
+
+            // 唯一的工作线程被占用且队列容量为0，立即拒绝
+            Assertions.assertThrows(RejectedExecutionException.class,
+                    () -> service.trySubmit(() -> true, 0, 10));
+
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, slow::get);
+            Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+            Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+            // 超时任务归还许可后可以继续提交
+            Assertions.assertEquals(Boolean.TRUE, service.trySubmit(() -> true, 0, 5_000).get());
+        }
+    }
+}
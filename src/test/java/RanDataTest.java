@@ -1,13 +1,53 @@
+import com.mygs.trackppt.constant.GanttBarStyle;
+import com.mygs.trackppt.metrics.ChartMetricsListener;
+import com.mygs.trackppt.metrics.ChartMetricsRegistry;
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ChartMetrics;
+import com.mygs.trackppt.pojo.ChartUpdate;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.GanttChartData;
+import com.mygs.trackppt.pojo.LineChartData;
 import com.mygs.trackppt.pojo.PieChartData;
+import com.mygs.trackppt.pojo.TrackingDevice;
+import com.mygs.trackppt.utils.BatchDeckPptUtil;
 import com.mygs.trackppt.utils.GanttChartPptUtil;
+import com.mygs.trackppt.utils.IncrementalChartUpdater;
 import com.mygs.trackppt.utils.LineChartPptUtil;
+import com.mygs.trackppt.utils.PassthroughDeckWriter;
 import com.mygs.trackppt.utils.PieChartPptUtil;
+import com.mygs.trackppt.utils.PptTemplateCache;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.poi.sl.usermodel.ShapeType;
+import org.apache.poi.sl.usermodel.PaintStyle;
+import org.apache.poi.sl.usermodel.TextParagraph;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFAutoShape;
+import org.apache.poi.xslf.usermodel.XSLFChart;
+import org.apache.poi.xslf.usermodel.XSLFShape;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.poi.xslf.usermodel.XSLFTextBox;
+import org.apache.poi.xslf.usermodel.XSLFTextParagraph;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
 
 /**
  * 随机图表数据测试类，用于生成折线图、饼图、甘特图的PPT演示文件
@@ -21,11 +61,13 @@ public class RanDataTest {
     private static final String LINE_FILE_NAME = String.format("line-chart-example_%s.pptx", TIME_STAMP);
     private static final String PIE_FILE_NAME = String.format("pie-chart-example_%s.pptx", TIME_STAMP);
     private static final String GANTT_FILE_NAME = String.format("gantt-chart-example_%s.pptx", TIME_STAMP);
+    private static final String BATCH_FILE_NAME = String.format("batch-deck-example_%s.pptx", TIME_STAMP);
 
     // 输出路径
     private static final String LINE_OUTPUT_PATH = "src/main/resources/output/" + LINE_FILE_NAME;
     private static final String PIE_OUTPUT_PATH = "src/main/resources/output/" + PIE_FILE_NAME;
     private static final String GANTT_OUTPUT_PATH = "src/main/resources/output/" + GANTT_FILE_NAME;
+    private static final String BATCH_OUTPUT_PATH = "src/main/resources/output/" + BATCH_FILE_NAME;
 
     // 模板文件路径
     private static final String LINE_TEMPLATE_FILE_PATH = "src/main/resources/templates/line_template.pptx";
@@ -81,4 +123,460 @@ public class RanDataTest {
         // 生成饼图PPT
         PieChartPptUtil.generatePieChartPPT(PIE_TEMPLATE_FILE_PATH, PIE_OUTPUT_PATH, pieChartData, 1);
     }
+
+    /**
+     * 测试：批量生成包含多种图表的PPT
+     */
+    @Test
+    public void testBatchDeckGeneration() {
+        List<Object> chartDataList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            // 折线图：以系列名称为键
+            Map<String, List<Double>> angleList = new LinkedHashMap<>();
+            double[][] data = LineChartPptUtil.generateRandomLineData();
+            for (int j = 0; j < data.length; j++) {
+                angleList.put("系列" + (j + 1), Arrays.stream(data[j]).boxed().collect(Collectors.toList()));
+            }
+            chartDataList.add(new LineChartData("批量折线图" + (i + 1), angleList));
+            chartDataList.add(new PieChartData("批量饼图" + (i + 1), PieChartPptUtil.generateRandomPieData()));
+            chartDataList.add(new GanttChartData("批量甘特图" + (i + 1), GanttChartPptUtil.generateTrackingDevices(5)));
+        }
+
+        // 生成批量PPT
+        Assertions.assertTrue(BatchDeckPptUtil.generateDeck(BATCH_OUTPUT_PATH, chartDataList));
+    }
+
+    /**
+     * 测试：并行渲染的批量PPT与串行渲染的页面顺序与内容一致
+     */
+    @Test
+    public void testParallelBatchDeck() throws Exception {
+        List<Object> chartDataList = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            double[][] data = {{1.0 + i, 2.0, 3.0}, {4.0, 5.0, 6.0 + i}};
+            chartDataList.add(new ColumnarLineData("并行折线图" + i, new double[]{10, 20, 30}, new String[]{"甲", "乙"}, data));
+            Map<String, Double> pieData = new LinkedHashMap<>();
+            pieData.put("遥测", 3.0 + i);
+            pieData.put("通信", 7.0);
+            chartDataList.add(new PieChartData("并行饼图" + i, pieData));
+            chartDataList.add(new GanttChartData("并行甘特图" + i, Arrays.asList(
+                    new TrackingDevice("设备" + i, 0.0, 100.0), new TrackingDevice("设备B", 50.0, 200.0))));
+        }
+
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        options.setParallelRender(true);
+        try (XMLSlideShow serial = BatchDeckPptUtil.buildDeck(chartDataList);
+             XMLSlideShow parallel = BatchDeckPptUtil.buildDeck(chartDataList, options)) {
+            Assertions.assertEquals(serial.getSlides().size(), parallel.getSlides().size());
+            for (int i = 0; i < chartDataList.size(); i++) {
+                XSLFSlide expected = serial.getSlides().get(i);
+                XSLFSlide actual = parallel.getSlides().get(i);
+                Assertions.assertEquals(expected.getShapes().size(), actual.getShapes().size());
+                List<XSLFChart> charts = PassthroughDeckWriter.chartsOf(actual);
+                if (!charts.isEmpty()) {
+                    Assertions.assertEquals(PassthroughDeckWriter.chartsOf(expected).get(0).getTitleShape().getText(),
+                            charts.get(0).getTitleShape().getText());
+                }
+            }
+
+            // 写出后重新打开，每个图表使用独立的嵌入工作簿
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            parallel.write(out);
+            try (XMLSlideShow reopened = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+                XSLFChart lastLine = PassthroughDeckWriter.chartsOf(reopened.getSlides().get(9)).get(0);
+                Assertions.assertEquals("并行折线图3", lastLine.getTitleShape().getText());
+                Assertions.assertEquals(9.0, lastLine.getWorkbook().getSheetAt(0).getRow(3).getCell(2).getNumericCellValue(), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * 测试：批量生成时折线图（LineChartData 与 ColumnarLineData）按生成选项降采样
+     */
+    @Test
+    public void testBatchDeckDownsampling() throws Exception {
+        int pointCount = 5000;
+        Map<String, List<Double>> angleList = new LinkedHashMap<>();
+        double[][] data = new double[2][pointCount];
+        for (int j = 0; j < data.length; j++) {
+            List<Double> series = new ArrayList<>(pointCount);
+            for (int k = 0; k < pointCount; k++) {
+                data[j][k] = Math.sin(k * 0.01 * (j + 1)) * 100;
+                series.add(data[j][k]);
+            }
+            angleList.put("系列" + (j + 1), series);
+        }
+        List<Object> chartDataList = Arrays.asList(new LineChartData("降采样折线图", angleList),
+                new ColumnarLineData("降采样列式折线图", null, new String[]{"甲", "乙"}, data));
+
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        options.setLineDownsampleTarget(200);
+        try (XMLSlideShow ppt = BatchDeckPptUtil.buildDeck(chartDataList, options)) {
+            for (XSLFSlide slide : ppt.getSlides()) {
+                int rows = PassthroughDeckWriter.chartsOf(slide).get(0).getWorkbook().getSheetAt(0).getLastRowNum();
+                // 每个系列不超过200点，两个系列选中的行取并集
+                Assertions.assertTrue(rows > 0 && rows <= 400, "行数: " + rows);
+            }
+        }
+    }
+
+    /**
+     * 测试：生成失败时不创建输出文件，也不覆盖已有的同名文件
+     */
+    @Test
+    public void testFailedGenerationKeepsOutputFile(@TempDir Path dir) throws Exception {
+        List<List<Double>> dataList = Collections.singletonList(Arrays.asList(1.0, 2.0, 3.0));
+        Path missing = dir.resolve("missing.pptx");
+        // 模板只有一页，第99页不存在
+        Assertions.assertFalse(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, missing.toString(), 99,
+                "失败折线图", dataList));
+        Assertions.assertFalse(Files.exists(missing));
+
+        Path existing = dir.resolve("existing.pptx");
+        Files.write(existing, new byte[]{1, 2, 3});
+        Assertions.assertFalse(PieChartPptUtil.generatePieChartPPT(PIE_TEMPLATE_FILE_PATH, existing.toString(),
+                new PieChartData("失败饼图", PieChartPptUtil.generateRandomPieData()), 99));
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(existing));
+        // 不残留 .part 临时文件
+        try (Stream<Path> files = Files.list(dir)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    /**
+     * 测试：设备列表为 null 时生成空甘特图
+     */
+    @Test
+    public void testGanttChartWithoutDevices() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GanttChartPptUtil.generatePPTChart(GANTT_TEMPLATE_FILE_PATH, out, new GanttChartData("空甘特图", null));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            Assertions.assertFalse(ppt.getSlides().isEmpty());
+        }
+    }
+
+    /**
+     * 测试：生成折线图PPT到内存输出流
+     */
+    @Test
+    public void testLineChartToOutputStream() {
+        List<List<Double>> dataList = Arrays.stream(LineChartPptUtil.generateRandomLineData())
+                .map(row -> Arrays.stream(row).boxed().collect(Collectors.toList()))
+                .collect(Collectors.toList());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assertions.assertTrue(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, out, 1, "内存折线图", dataList));
+        Assertions.assertTrue(out.size() > 0);
+    }
+
+    /**
+     * 测试：单形状圆角任务条并按设备行组合
+     */
+    @Test
+    public void testGanttChartRoundRectGeneration() throws Exception {
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        options.setGanttBarStyle(GanttBarStyle.ROUND_RECT);
+        options.setGanttGroupBarsByRow(true);
+
+        GanttChartData ganttChartData = new GanttChartData("圆角甘特图", GanttChartPptUtil.generateTrackingDevices(10));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GanttChartPptUtil.generatePPTChart(GANTT_TEMPLATE_FILE_PATH, out, ganttChartData, options);
+
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            long roundRects = ppt.getSlides().get(0).getShapes().stream()
+                    .filter(shape -> shape instanceof XSLFAutoShape)
+                    .filter(shape -> ((XSLFAutoShape) shape).getShapeType() == ShapeType.ROUND_RECT)
+                    .count();
+            // 每个设备一个任务条，且均未放入组合（单条的行不建组）
+            Assertions.assertEquals(10, roundRects);
+        }
+    }
+
+    /**
+     * 测试：密集时间段合并后形状数量受图表宽度约束
+     */
+    @Test
+    public void testGanttChartIntervalMerging() throws Exception {
+        List<TrackingDevice> devices = new ArrayList<>();
+        Random rand = new Random(42);
+        for (int i = 0; i < 3000; i++) {
+            double start = rand.nextDouble() * 600;
+            devices.add(new TrackingDevice("设备" + (i % 3), start, start + rand.nextDouble() * 5));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GanttChartPptUtil.generatePPTChart(GANTT_TEMPLATE_FILE_PATH, out, new GanttChartData("密集甘特图", devices),
+                new ChartGenerateOptions());
+
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            // 3000个时间段合并后，每行的任务条数量不会超过图表宽度
+            Assertions.assertTrue(ppt.getSlides().get(0).getShapes().size() < 1000);
+        }
+    }
+
+    /**
+     * 测试：复制原型生成的标签与逐个设置属性的第一个标签样式一致；刻度标签可合并为一个带制表位的文本框
+     */
+    @Test
+    public void testGanttLabelPrototypes() throws Exception {
+        List<TrackingDevice> devices = Arrays.asList(
+                new TrackingDevice("短名称", 0.0, 100.0),
+                new TrackingDevice("一个名称很长的跟踪测量设备", 50.0, 300.0));
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GanttChartPptUtil.generatePPTChart(GANTT_TEMPLATE_FILE_PATH, out, new GanttChartData("原型甘特图", devices), options);
+        int separateShapes;
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            List<XSLFTextBox> labels = new ArrayList<>();
+            for (XSLFShape shape : ppt.getSlides().get(0).getShapes()) {
+                if (shape instanceof XSLFTextBox && !((XSLFTextBox) shape).getText().isEmpty()) {
+                    labels.add((XSLFTextBox) shape);
+                }
+            }
+            separateShapes = ppt.getSlides().get(0).getShapes().size();
+            // 标题、两个设备标签与若干刻度标签
+            Assertions.assertTrue(labels.size() > 4);
+            XSLFTextBox longName = labels.get(2);
+            Assertions.assertEquals("一个名称很长的跟踪测量设备", longName.getText());
+            XSLFTextParagraph para = longName.getTextParagraphs().get(0);
+            Assertions.assertEquals(TextParagraph.TextAlign.RIGHT, para.getTextAlign());
+            Assertions.assertEquals(10.0, para.getTextRuns().get(0).getFontSize(), 1e-9);
+            Assertions.assertNull(longName.getFillColor());
+            for (XSLFTextBox tickLabel : labels.subList(3, labels.size())) {
+                XSLFTextParagraph tickPara = tickLabel.getTextParagraphs().get(0);
+                Assertions.assertEquals(TextParagraph.TextAlign.CENTER, tickPara.getTextAlign());
+                Assertions.assertEquals(12.0, tickPara.getTextRuns().get(0).getFontSize(), 1e-9);
+                Assertions.assertEquals(Color.BLACK, ((PaintStyle.SolidPaint) tickPara.getTextRuns().get(0).getFontColor()).getSolidColor().getColor());
+            }
+        }
+
+        options.setGanttTabbedTickLabels(true);
+        out.reset();
+        GanttChartPptUtil.generatePPTChart(GANTT_TEMPLATE_FILE_PATH, out, new GanttChartData("原型甘特图", devices), options);
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSLFTextBox tabbed = null;
+            for (XSLFShape shape : ppt.getSlides().get(0).getShapes()) {
+                if (shape instanceof XSLFTextBox && ((XSLFTextBox) shape).getText().startsWith("\t")) {
+                    tabbed = (XSLFTextBox) shape;
+                }
+            }
+            Assertions.assertNotNull(tabbed);
+            int ticks = tabbed.getText().split("\t").length - 1;
+            Assertions.assertEquals(ticks, tabbed.getTextParagraphs().get(0).getTabStops().size());
+            Assertions.assertEquals(separateShapes - ticks + 1, ppt.getSlides().get(0).getShapes().size());
+        }
+    }
+
+    /**
+     * 测试：使用列式原始类型数据生成折线图PPT，无需装箱
+     */
+    @Test
+    public void testColumnarLineChartGeneration() {
+        double[][] data = LineChartPptUtil.generateRandomLineData();
+        ColumnarLineData lineData = new ColumnarLineData("列式折线图", null, null, data);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assertions.assertTrue(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, out, 1, lineData));
+        Assertions.assertTrue(out.size() > 0);
+    }
+
+    /**
+     * 测试：批量写入嵌入工作簿，重新打开后工作簿数据与图表系列一致
+     */
+    @Test
+    public void testBulkSheetWriter() throws Exception {
+        double[][] data = {{1.5, 2.5, 3.5}, {4.0, 5.0}};
+        ColumnarLineData lineData = new ColumnarLineData("批量折线图", new double[]{10, 20, 30}, new String[]{"甲", "乙"}, data);
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        options.setBulkSheetWriter(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assertions.assertTrue(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, out, 1, lineData, options));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSLFChart chart = ppt.getCharts().get(0);
+            XSSFSheet sheet = chart.getWorkbook().getSheetAt(0);
+            Assertions.assertEquals("乙", sheet.getRow(0).getCell(2).getStringCellValue());
+            Assertions.assertEquals(30.0, sheet.getRow(3).getCell(0).getNumericCellValue(), 1e-9);
+            Assertions.assertEquals(0.0, sheet.getRow(3).getCell(2).getNumericCellValue(), 1e-9);
+            Assertions.assertEquals(2, chart.getChartSeries().get(0).getSeriesCount());
+            Assertions.assertEquals(3.5, chart.getChartSeries().get(0).getSeries(0).getValuesData().getPointAt(2).doubleValue(), 1e-9);
+        }
+
+        Map<String, Double> pieData = new LinkedHashMap<>();
+        pieData.put("遥测", 3.0);
+        pieData.put("测控 & 通信", 7.0);
+        out.reset();
+        Assertions.assertTrue(PieChartPptUtil.generatePieChartPPT(PIE_TEMPLATE_FILE_PATH, out,
+                new PieChartData("批量饼图", pieData), 1, options));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSSFSheet sheet = ppt.getCharts().get(0).getWorkbook().getSheetAt(0);
+            Assertions.assertEquals("测控 & 通信", sheet.getRow(2).getCell(0).getStringCellValue());
+            Assertions.assertEquals(7.0, sheet.getRow(2).getCell(1).getNumericCellValue(), 1e-9);
+        }
+    }
+
+    /**
+     * 低内存模式：超过内存预算时模板落盘打开，嵌入工作簿批量写入，生成后不残留临时文件
+     */
+    @Test
+    public void testMemoryBudget() throws Exception {
+        double[][] data = {{1.5, 2.5, 3.5}, {4.0, 5.0, 6.0}};
+        ColumnarLineData lineData = new ColumnarLineData("低内存折线图", new double[]{10, 20, 30}, new String[]{"甲", "乙"}, data);
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        options.setMemoryBudgetBytes(1);
+
+        List<ChartMetrics> published = new ArrayList<>();
+        ChartMetricsListener listener = published::add;
+        ChartMetricsRegistry.addListener(listener);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            Assertions.assertTrue(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, out, 1, lineData, options));
+        } finally {
+            ChartMetricsRegistry.removeListener(listener);
+        }
+        Assertions.assertEquals(1, published.size());
+        Assertions.assertTrue(published.get(0).isLowMemory());
+
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSSFSheet sheet = ppt.getCharts().get(0).getWorkbook().getSheetAt(0);
+            Assertions.assertEquals("甲", sheet.getRow(0).getCell(1).getStringCellValue());
+            Assertions.assertEquals(6.0, sheet.getRow(3).getCell(2).getNumericCellValue(), 1e-9);
+        }
+        File[] leftovers = new File(System.getProperty("java.io.tmpdir"), "poifiles")
+                .listFiles((dir, name) -> name.startsWith("ppt-template"));
+        Assertions.assertTrue(leftovers == null || leftovers.length == 0);
+    }
+
+    /**
+     * 测试：增量更新只修改变化的系列与扇区，未修改的部件原样复制
+     */
+    @Test
+    public void testIncrementalChartUpdate() throws Exception {
+        double[][] data = {{1.0, 2.0, 3.0}, {4.0, 5.0, 6.0}};
+        ColumnarLineData lineData = new ColumnarLineData("增量折线图", new double[]{10, 20, 30}, new String[]{"甲", "乙"}, data);
+        ByteArrayOutputStream deck = new ByteArrayOutputStream();
+        Assertions.assertTrue(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, deck, 1, lineData));
+        String chartPart;
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(deck.toByteArray()))) {
+            chartPart = ppt.getCharts().get(0).getPackagePart().getPartName().getName();
+        }
+
+        Map<Integer, double[]> changed = new HashMap<>();
+        changed.put(1, new double[]{7.0, 8.5, 9.0});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IncrementalChartUpdater.update(deck.toByteArray(), out,
+                Collections.singletonList(new ChartUpdate(chartPart, changed, null)));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSLFChart chart = ppt.getCharts().get(0);
+            Assertions.assertEquals(8.5, chart.getChartSeries().get(0).getSeries(1).getValuesData().getPointAt(1).doubleValue(), 1e-9);
+            Assertions.assertEquals(2.0, chart.getChartSeries().get(0).getSeries(0).getValuesData().getPointAt(1).doubleValue(), 1e-9);
+            XSSFSheet sheet = chart.getWorkbook().getSheetAt(0);
+            Assertions.assertEquals(9.0, sheet.getRow(3).getCell(2).getNumericCellValue(), 1e-9);
+            Assertions.assertEquals(3.0, sheet.getRow(3).getCell(1).getNumericCellValue(), 1e-9);
+        }
+        Assertions.assertArrayEquals(rawEntry(deck.toByteArray(), "ppt/slides/slide1.xml"),
+                rawEntry(out.toByteArray(), "ppt/slides/slide1.xml"));
+
+        Map<String, Double> pieData = new LinkedHashMap<>();
+        pieData.put("遥测", 3.0);
+        pieData.put("通信", 7.0);
+        deck.reset();
+        Assertions.assertTrue(PieChartPptUtil.generatePieChartPPT(PIE_TEMPLATE_FILE_PATH, deck,
+                new PieChartData("增量饼图", pieData), 1));
+        out.reset();
+        IncrementalChartUpdater.update(deck.toByteArray(), out, Collections.singletonList(
+                new ChartUpdate(chartPart, null, Collections.singletonMap("通信", 12.0))));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSLFChart chart = ppt.getCharts().get(0);
+            Assertions.assertEquals(12.0, chart.getChartSeries().get(0).getSeries(0).getValuesData().getPointAt(1).doubleValue(), 1e-9);
+            Assertions.assertEquals(12.0, chart.getWorkbook().getSheetAt(0).getRow(2).getCell(1).getNumericCellValue(), 1e-9);
+        }
+    }
+
+    /**
+     * 测试：直通写出只重新序列化修改过的部件，母版等部件与模板的压缩数据完全一致
+     */
+    @Test
+    public void testPassthroughWrite() throws Exception {
+        ChartGenerateOptions options = new ChartGenerateOptions();
+        options.setPassthroughWrite(true);
+        byte[] template = PptTemplateCache.getTemplateBytes(LINE_TEMPLATE_FILE_PATH);
+
+        double[][] data = {{1.0, 2.0, 3.0}, {4.0, 5.0, 6.0}};
+        ColumnarLineData lineData = new ColumnarLineData("直通折线图", new double[]{10, 20, 30}, new String[]{"甲", "乙"}, data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assertions.assertTrue(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, out, 1, lineData, options));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSLFChart chart = ppt.getCharts().get(0);
+            Assertions.assertEquals("直通折线图", chart.getTitleShape().getText());
+            Assertions.assertEquals(6.0, chart.getWorkbook().getSheetAt(0).getRow(3).getCell(2).getNumericCellValue(), 1e-9);
+        }
+        Assertions.assertArrayEquals(rawEntry(template, "ppt/slideMasters/slideMaster1.xml"),
+                rawEntry(out.toByteArray(), "ppt/slideMasters/slideMaster1.xml"));
+        // 直通写出保持模板中的条目顺序
+        Assertions.assertEquals(entryNames(template), entryNames(out.toByteArray()));
+
+        options.setBulkSheetWriter(true);
+        Map<String, Double> pieData = new LinkedHashMap<>();
+        pieData.put("遥测", 3.0);
+        pieData.put("通信", 7.0);
+        out.reset();
+        Assertions.assertTrue(PieChartPptUtil.generatePieChartPPT(PIE_TEMPLATE_FILE_PATH, out,
+                new PieChartData("直通饼图", pieData), 1, options));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            Assertions.assertEquals(7.0, ppt.getCharts().get(0).getWorkbook().getSheetAt(0).getRow(2).getCell(1).getNumericCellValue(), 1e-9);
+        }
+
+        out.reset();
+        GanttChartPptUtil.generatePPTChart(GANTT_TEMPLATE_FILE_PATH, out,
+                new GanttChartData("直通甘特图", GanttChartPptUtil.generateTrackingDevices(5)), options);
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            Assertions.assertTrue(ppt.getSlides().get(0).getShapes().size() > 5);
+        }
+    }
+
+    @Test
+    public void testCompressionLevels() throws Exception {
+        double[][] data = {{1.0, 2.0, 3.0}, {4.0, 5.0, 6.0}};
+        ColumnarLineData lineData = new ColumnarLineData("压缩折线图", new double[]{10, 20, 30}, new String[]{"甲", "乙"}, data);
+        for (boolean passthrough : new boolean[]{true, false}) {
+            ChartGenerateOptions options = new ChartGenerateOptions();
+            options.setPassthroughWrite(passthrough);
+            options.setXmlCompressionLevel(0);
+            options.setMediaCompressionLevel(0);
+            ByteArrayOutputStream stored = new ByteArrayOutputStream();
+            Assertions.assertTrue(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, stored, 1, lineData, options));
+            try (ZipFile file = new ZipFile(new SeekableInMemoryByteChannel(stored.toByteArray()))) {
+                for (ZipArchiveEntry entry : Collections.list(file.getEntries())) {
+                    Assertions.assertEquals(ZipEntry.STORED, entry.getMethod(), entry.getName());
+                }
+            }
+            try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(stored.toByteArray()))) {
+                Assertions.assertEquals("压缩折线图", ppt.getCharts().get(0).getTitleShape().getText());
+            }
+
+            options.setXmlCompressionLevel(9);
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+            Assertions.assertTrue(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, deflated, 1, lineData, options));
+            Assertions.assertTrue(deflated.size() < stored.size());
+        }
+
+        ChartGenerateOptions invalid = new ChartGenerateOptions();
+        invalid.setXmlCompressionLevel(10);
+        Assertions.assertFalse(LineChartPptUtil.generatePPTChart(LINE_TEMPLATE_FILE_PATH, new ByteArrayOutputStream(), 1, lineData, invalid));
+    }
+
+    private static List<String> entryNames(byte[] zip) throws Exception {
+        try (ZipFile file = new ZipFile(new SeekableInMemoryByteChannel(zip))) {
+            return Collections.list(file.getEntriesInPhysicalOrder()).stream()
+                    .map(ZipArchiveEntry::getName).collect(Collectors.toList());
+        }
+    }
+
+    private static byte[] rawEntry(byte[] zip, String name) throws Exception {
+        try (ZipFile file = new ZipFile(new SeekableInMemoryByteChannel(zip))) {
+            try (InputStream in = file.getRawInputStream(file.getEntry(name))) {
+                return IOUtils.toByteArray(in);
+            }
+        }
+    }
 }
@@ -0,0 +1,199 @@
+import com.mygs.trackppt.pojo.ReportDaemonOptions;
+import com.mygs.trackppt.utils.ReportDaemon;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+/**
+ * 常驻报表生成进程测试类
+ */
+public class ReportDaemonTest {
+
+    /**
+     * 测试：端口任务直接返回文档，假脱机任务写出文档并标记完成，错误任务标记失败
+     */
+    @Test
+    @Timeout(120)
+    public void testSocketAndSpoolJobs(@TempDir Path dir) throws Exception {
+        Path spool = dir.resolve("spool");
+        ReportDaemonOptions options = new ReportDaemonOptions();
+        options.setSpoolDir(spool);
+        options.setSpoolPollMillis(50);
+        options.setPort(0);
+        options.setWorkerCount(2);
+
+        try (ReportDaemon daemon = new ReportDaemon(options).start()) {
+            byte[] deck = deckFromReply(send(daemon.getPort(), "type=pie\ntitle=端口饼图\nseed=1\ncategoryCount=5\n"));
+            try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(deck))) {
+                Assertions.assertEquals(1, ppt.getCharts().size());
+            }
+            String error = new String(send(daemon.getPort(), "type=bar\nseed=1\n"), StandardCharsets.UTF_8);
+            Assertions.assertTrue(error.startsWith("ERROR "), error);
+            // 未配置 socketDir 时端口任务不能写出文件
+            error = new String(send(daemon.getPort(), "type=pie\nseed=1\noutput=pie.pptx\n"), StandardCharsets.UTF_8);
+            Assertions.assertTrue(error.startsWith("ERROR "), error);
+
+            Files.write(spool.resolve("gantt.csv"), "设备,开始,结束\n雷达一号,0,30\n雷达二号,20,75\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.write(spool.resolve("a-gantt.tmp"), "type=gantt\ncsv=gantt.csv\noutput=out/gantt.pptx\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.move(spool.resolve("a-gantt.tmp"), spool.resolve("a-gantt.properties"));
+            Files.write(spool.resolve("b-line.properties"), ("type=line\nseed=3\nseriesCount=2\npointCount=5000\n"
+                    + "option.lineDownsampleTarget=200\noption.lineDownsampleMethod=MIN_MAX\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.write(spool.resolve("c-bad.properties"), "type=line\n".getBytes(StandardCharsets.UTF_8));
+
+            while (daemon.getCompletedCount() + daemon.getFailedCount() < 6) {
+                Thread.sleep(20);
+            }
+            Assertions.assertEquals(3, daemon.getFailedCount());
+        }
+
+        Assertions.assertTrue(Files.exists(spool.resolve("a-gantt.properties.done")));
+        Assertions.assertTrue(Files.exists(spool.resolve("b-line.properties.done")));
+        Assertions.assertTrue(Files.exists(spool.resolve("c-bad.properties.failed")));
+        Assertions.assertTrue(Files.exists(spool.resolve("c-bad.error")));
+        Assertions.assertFalse(Files.exists(spool.resolve("c-bad.pptx")));
+        try (XMLSlideShow ppt = new XMLSlideShow(Files.newInputStream(spool.resolve("out/gantt.pptx")))) {
+            Assertions.assertFalse(ppt.getSlides().isEmpty());
+        }
+        try (XMLSlideShow ppt = new XMLSlideShow(Files.newInputStream(spool.resolve("b-line.pptx")))) {
+            int rows = ppt.getCharts().get(0).getWorkbook().getSheetAt(0).getLastRowNum();
+            // 降采样选项生效：每个系列不超过200点，两个系列选中的行取并集
+            Assertions.assertTrue(rows > 0 && rows <= 400, "行数: " + rows);
+        }
+    }
+
+    /**
+     * 测试：假脱机任务中的 template 与 csv 一样相对假脱机目录解析
+     */
+    @Test
+    @Timeout(120)
+    public void testSpoolJobWithRelativeTemplate(@TempDir Path dir) throws Exception {
+        Path spool = dir.resolve("spool");
+        Files.createDirectories(spool.resolve("templates"));
+        try (InputStream in = ReportDaemonTest.class.getResourceAsStream("/templates/pie_template.pptx")) {
+            Files.copy(in, spool.resolve("templates/my_pie.pptx"));
+        }
+        ReportDaemonOptions options = new ReportDaemonOptions();
+        options.setSpoolDir(spool);
+        options.setSpoolPollMillis(50);
+        options.setWorkerCount(1);
+        options.setTemplatePaths(Collections.emptyList());
+        options.setWarmUp(false);
+
+        try (ReportDaemon daemon = new ReportDaemon(options).start()) {
+            Files.write(spool.resolve("a-pie.properties"), "type=pie\ntemplate=templates/my_pie.pptx\nseed=2\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.write(spool.resolve("b-missing.properties"), "type=pie\ntemplate=templates/missing.pptx\nseed=2\n"
+                    .getBytes(StandardCharsets.UTF_8));
+
+            while (daemon.getCompletedCount() + daemon.getFailedCount() < 2) {
+                Thread.sleep(20);
+            }
+            Assertions.assertEquals(1, daemon.getFailedCount());
+        }
+
+        Assertions.assertTrue(Files.exists(spool.resolve("a-pie.properties.done")));
+        Assertions.assertTrue(Files.exists(spool.resolve("b-missing.properties.failed")));
+        try (XMLSlideShow ppt = new XMLSlideShow(Files.newInputStream(spool.resolve("a-pie.pptx")))) {
+            Assertions.assertEquals(1, ppt.getCharts().size());
+        }
+    }
+
+    /**
+     * 测试：任务中的绝对路径、指向任务目录之外的路径及非 .pptx 的 output 被拒绝，端口任务只能写入 socketDir
+     */
+    @Test
+    @Timeout(120)
+    public void testRejectsPathsOutsideJobDirectory(@TempDir Path dir) throws Exception {
+        Path spool = dir.resolve("spool");
+        Path socketDir = dir.resolve("socket");
+        Files.createDirectories(spool);
+        Path outsideCsv = dir.resolve("outside.csv");
+        Files.write(outsideCsv, "类别,数值\n甲,1\n".getBytes(StandardCharsets.UTF_8));
+        ReportDaemonOptions options = new ReportDaemonOptions();
+        options.setSpoolDir(spool);
+        options.setSpoolPollMillis(50);
+        options.setPort(0);
+        options.setSocketDir(socketDir);
+        options.setWorkerCount(1);
+        options.setTemplatePaths(Collections.emptyList());
+        options.setWarmUp(false);
+
+        try (ReportDaemon daemon = new ReportDaemon(options).start()) {
+            String reply = new String(send(daemon.getPort(), "type=pie\nseed=1\noutput=decks/pie.pptx\n"),
+                    StandardCharsets.UTF_8);
+            Assertions.assertTrue(reply.startsWith("OK "), reply);
+            reply = new String(send(daemon.getPort(), "type=pie\nseed=1\noutput=../escape.pptx\n"),
+                    StandardCharsets.UTF_8);
+            Assertions.assertTrue(reply.startsWith("ERROR "), reply);
+            reply = new String(send(daemon.getPort(), "type=pie\ncsv=" + outsideCsv.toString().replace('\\', '/')
+                    + "\n"), StandardCharsets.UTF_8);
+            Assertions.assertTrue(reply.startsWith("ERROR "), reply);
+
+            Files.write(spool.resolve("a-output.properties"), "type=pie\nseed=1\noutput=out/../../escape.pptx\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.write(spool.resolve("b-csv.properties"), "type=pie\ncsv=../outside.csv\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.write(spool.resolve("c-template.properties"), "type=pie\nseed=1\ntemplate=../pie_template.pptx\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.write(spool.resolve("d-job.properties"), "type=pie\nseed=1\noutput=e-job.properties\n"
+                    .getBytes(StandardCharsets.UTF_8));
+
+            while (daemon.getCompletedCount() + daemon.getFailedCount() < 7) {
+                Thread.sleep(20);
+            }
+            Assertions.assertEquals(6, daemon.getFailedCount());
+        }
+
+        Assertions.assertTrue(Files.exists(socketDir.resolve("decks/pie.pptx")));
+        Assertions.assertFalse(Files.exists(dir.resolve("escape.pptx")));
+        Assertions.assertFalse(Files.exists(spool.resolve("e-job.properties")));
+        for (String job : new String[]{"a-output", "b-csv", "c-template", "d-job"}) {
+            Assertions.assertTrue(Files.exists(spool.resolve(job + ".properties.failed")), job);
+        }
+    }
+
+    private static byte[] send(int port, String job) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(job.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            socket.shutdownOutput();
+            return IOUtils.toByteArray(socket.getInputStream());
+        }
+    }
+
+    /**
+     * 解析 "OK 字节数\n" 之后的文档内容
+     */
+    private static byte[] deckFromReply(byte[] reply) throws Exception {
+        InputStream in = new ByteArrayInputStream(reply);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            header.write(b);
+        }
+        String status = new String(header.toByteArray(), StandardCharsets.UTF_8);
+        Assertions.assertTrue(status.startsWith("OK "), status);
+        byte[] deck = new byte[Integer.parseInt(status.substring(3))];
+        new DataInputStream(in).readFully(deck);
+        return deck;
+    }
+}
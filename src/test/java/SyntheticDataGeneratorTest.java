@@ -0,0 +1,66 @@
+import com.mygs.trackppt.constant.ChartData;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.TrackingDevice;
+import com.mygs.trackppt.utils.GanttChartPptUtil;
+import com.mygs.trackppt.utils.LineChartPptUtil;
+import com.mygs.trackppt.utils.PieChartPptUtil;
+import com.mygs.trackppt.utils.StreamingLineBucketer;
+import com.mygs.trackppt.utils.SyntheticDataGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 合成数据生成器测试类
+ */
+public class SyntheticDataGeneratorTest {
+
+    /**
+     * 测试：相同种子生成相同的数据，不同种子生成不同的数据
+     */
+    @Test
+    public void testReproducible() {
+        Assertions.assertArrayEquals(LineChartPptUtil.generateRandomLineData(42), LineChartPptUtil.generateRandomLineData(42));
+        Assertions.assertEquals(PieChartPptUtil.generateRandomPieData(42), PieChartPptUtil.generateRandomPieData(42));
+        Assertions.assertEquals(GanttChartPptUtil.generateTrackingDevices(20, 42), GanttChartPptUtil.generateTrackingDevices(20, 42));
+        Assertions.assertNotEquals(GanttChartPptUtil.generateTrackingDevices(20, 42), GanttChartPptUtil.generateTrackingDevices(20, 43));
+
+        ColumnarLineData first = new SyntheticDataGenerator(7).lineData(3, 100_000);
+        ColumnarLineData second = new SyntheticDataGenerator(7).lineData(3, 100_000);
+        Assertions.assertArrayEquals(first.getSeriesValues(), second.getSeriesValues());
+        Assertions.assertArrayEquals(first.getSeriesNames(), second.getSeriesNames());
+
+        // 逐行生成与分桶，结果同样可复现
+        StreamingLineBucketer a = new StreamingLineBucketer(2, 1000);
+        StreamingLineBucketer b = new StreamingLineBucketer(2, 1000);
+        new SyntheticDataGenerator(7).streamLineRows(a, 1_000_000);
+        new SyntheticDataGenerator(7).streamLineRows(b, 1_000_000);
+        Assertions.assertEquals(1_000_000, a.getRowCount());
+        Assertions.assertArrayEquals(a.toLineData("", null).getSeriesValues(), b.toLineData("", null).getSeriesValues());
+    }
+
+    /**
+     * 测试：设备数超过预设名称数时也能结束，且名称不重复
+     */
+    @Test
+    @Timeout(10)
+    public void testManyDevices() {
+        int count = ChartData.AEROSPACE_TRACKING_TERMS.length * 3 + 5;
+        List<TrackingDevice> devices = GanttChartPptUtil.generateTrackingDevices(count);
+        Assertions.assertEquals(count, devices.size());
+        Set<String> names = new HashSet<>();
+        for (TrackingDevice device : devices) {
+            Assertions.assertTrue(names.add(device.getDeviceName()), device.getDeviceName());
+            Assertions.assertTrue(device.getRelativeEndTime() <= 100);
+            Assertions.assertTrue(device.getRelativeStartTime() < device.getRelativeEndTime());
+        }
+
+        Assertions.assertEquals(20_000, new HashSet<>(
+                java.util.Arrays.asList(new SyntheticDataGenerator(1).uniqueNames(20_000))).size());
+        Assertions.assertEquals(50_000, new SyntheticDataGenerator(1).pieData(50_000).size());
+    }
+}
@@ -0,0 +1,89 @@
+import com.mygs.trackppt.pojo.ChartGenerateOptions;
+import com.mygs.trackppt.pojo.ColumnarLineData;
+import com.mygs.trackppt.pojo.PieChartData;
+import com.mygs.trackppt.utils.LineChartPptUtil;
+import com.mygs.trackppt.utils.PieChartPptUtil;
+import com.mygs.trackppt.utils.PptTemplateCache;
+import com.mygs.trackppt.utils.TemplateChartIndex;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFChart;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 模板图表部件索引测试类
+ */
+public class TemplateChartIndexTest {
+
+    private static final String TEMPLATE_FILE_PATH = "src/main/resources/templates/line_template.pptx";
+
+    private static final String PIE_TEMPLATE_FILE_PATH = "src/main/resources/templates/pie_template.pptx";
+
+    /**
+     * 测试：索引记录图表名称、ID、图表部件与嵌入工作簿部件，并随模板缓存
+     */
+    @Test
+    public void testIndex() throws Exception {
+        TemplateChartIndex index = PptTemplateCache.getChartIndex(TEMPLATE_FILE_PATH);
+        Assertions.assertSame(index, PptTemplateCache.getChartIndex(TEMPLATE_FILE_PATH));
+        Assertions.assertEquals(1, index.getSlideCount());
+
+        List<TemplateChartIndex.ChartRef> charts = index.getCharts(1);
+        Assertions.assertEquals(1, charts.size());
+        TemplateChartIndex.ChartRef chart = charts.get(0);
+        Assertions.assertEquals("图表 5", chart.getName());
+        Assertions.assertSame(chart, index.find(1, String.valueOf(chart.getShapeId())));
+        Assertions.assertEquals("/ppt/charts/chart1.xml", chart.getChartPartName());
+        Assertions.assertTrue(chart.getWorkbookPartName().startsWith("/ppt/embeddings/"));
+        Assertions.assertNull(index.find(1, "不存在的图表"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index.getCharts(2));
+
+        // 按关系ID取得的图表与 POI 加载的图表部件一致
+        try (XMLSlideShow ppt = PptTemplateCache.openSlideShow(TEMPLATE_FILE_PATH)) {
+            XSLFChart resolved = TemplateChartIndex.resolve(ppt, chart);
+            Assertions.assertNotNull(resolved);
+            Assertions.assertEquals(chart.getChartPartName(), resolved.getPackagePart().getPartName().getName());
+        }
+
+        // 清除缓存后重新构建
+        PptTemplateCache.invalidate(TEMPLATE_FILE_PATH);
+        Assertions.assertNotSame(index, PptTemplateCache.getChartIndex(TEMPLATE_FILE_PATH));
+    }
+
+    /**
+     * 测试：按图表名称填充；名称不存在时生成失败
+     */
+    @Test
+    public void testFillByName() throws Exception {
+        double[][] values = {{1, 2, 3}, {4, 5, 6}};
+        Map<String, ColumnarLineData> lineCharts = new LinkedHashMap<>();
+        lineCharts.put("图表 5", new ColumnarLineData("按名称填充", null, null, values));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assertions.assertTrue(LineChartPptUtil.generatePPTChart(TEMPLATE_FILE_PATH, out, 1, lineCharts,
+                new ChartGenerateOptions()));
+        try (XMLSlideShow ppt = new XMLSlideShow(new ByteArrayInputStream(out.toByteArray()))) {
+            XSSFSheet sheet = ppt.getCharts().get(0).getWorkbook().getSheetAt(0);
+            Assertions.assertEquals(3, sheet.getLastRowNum());
+            Assertions.assertEquals(6.0, sheet.getRow(3).getCell(2).getNumericCellValue(), 1e-9);
+        }
+
+        Map<String, Double> amounts = new LinkedHashMap<>();
+        amounts.put("甲", 1.0);
+        amounts.put("乙", 2.0);
+        Assertions.assertTrue(PieChartPptUtil.generatePieChartPPT(PIE_TEMPLATE_FILE_PATH, new ByteArrayOutputStream(), 1,
+                Collections.singletonMap(PptTemplateCache.getChartIndex(PIE_TEMPLATE_FILE_PATH).getCharts(1).get(0).getName(),
+                        new PieChartData("按名称填充", amounts)), new ChartGenerateOptions()));
+
+        Assertions.assertFalse(LineChartPptUtil.generatePPTChart(TEMPLATE_FILE_PATH, new ByteArrayOutputStream(), 1,
+                Collections.singletonMap("不存在的图表", new ColumnarLineData("按名称填充", null, null, values)),
+                new ChartGenerateOptions()));
+    }
+}